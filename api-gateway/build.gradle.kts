@@ -0,0 +1,84 @@
+plugins {
+	java
+	id("org.springframework.boot") version "3.5.7"
+	id("io.spring.dependency-management") version "1.1.7"
+}
+
+group = "com.vyshali"
+version = "0.0.1-SNAPSHOT"
+description = "API Gateway - E-Commerce Microservices"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+configurations {
+	compileOnly {
+		extendsFrom(configurations.annotationProcessor.get())
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+ext {
+	set("springCloudVersion", "2024.0.0")
+}
+
+dependencies {
+	// Spring Cloud Gateway (reactive, Netty)
+	implementation("org.springframework.cloud:spring-cloud-starter-gateway")
+
+	// Spring Cloud - Service Discovery (lb:// routes)
+	implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
+
+	// Spring Boot Actuator
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+
+	// Response cache
+	implementation("com.github.ben-manes.caffeine:caffeine")
+
+	// Lombok
+	compileOnly("org.projectlombok:lombok")
+	annotationProcessor("org.projectlombok:lombok")
+
+	// Development Tools
+	developmentOnly("org.springframework.boot:spring-boot-devtools")
+
+	// Testing
+	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+dependencyManagement {
+	imports {
+		mavenBom("org.springframework.cloud:spring-cloud-dependencies:${property("springCloudVersion")}")
+	}
+}
+
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Upstream-load comparisons tagged @Tag("benchmark"); run with ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmark-tagged tests against local stub upstreams"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+}
+
+tasks.bootJar {
+	archiveFileName.set("api-gateway.jar")
+}
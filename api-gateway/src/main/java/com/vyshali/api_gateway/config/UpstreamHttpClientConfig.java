@@ -0,0 +1,23 @@
+package com.vyshali.api_gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Connections to the services. The pool itself (size, idle and lifetime limits) is configured
+ * under {@code spring.cloud.gateway.httpclient.pool}. With {@code gateway.upstream.h2c=true}
+ * each new connection is upgraded to cleartext HTTP/2, so one connection per instance carries
+ * many concurrent requests; a service that does not accept the upgrade is spoken to in
+ * HTTP/1.1 over the same pool.
+ */
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    @Bean
+    public HttpClientCustomizer upstreamProtocolCustomizer(@Value("${gateway.upstream.h2c:true}") boolean h2c) {
+        return httpClient -> h2c ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11) : httpClient;
+    }
+}
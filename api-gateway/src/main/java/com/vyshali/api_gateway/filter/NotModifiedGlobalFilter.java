@@ -0,0 +1,81 @@
+package com.vyshali.api_gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Answers {@code 304 Not Modified} when a 200 response carries an ETag that the request's
+ * {@code If-None-Match} already names. {@code LocalResponseCache} replays cached 200s whatever
+ * the request's validators, so without this a client revalidating a cached product would
+ * download it again. Runs outside the cache, so it sees cached and upstream responses alike.
+ */
+@Component
+public class NotModifiedGlobalFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !(HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))) {
+            return chain.filter(exchange);
+        }
+        List<ETag> validators = ETag.parse(ifNoneMatch);
+        return chain.filter(exchange.mutate().response(new NotModifiedResponse(exchange.getResponse(), validators)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Before LocalResponseCache (WRITE_RESPONSE_FILTER_ORDER - 3), so its decorator wraps the cache's
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 4;
+    }
+
+    private static final class NotModifiedResponse extends ServerHttpResponseDecorator {
+
+        private final List<ETag> validators;
+
+        NotModifiedResponse(ServerHttpResponse delegate, List<ETag> validators) {
+            super(delegate);
+            this.validators = validators;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isNotModified()) {
+                return super.writeWith(body);
+            }
+            setStatusCode(HttpStatus.NOT_MODIFIED);
+            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            // Drain the body so upstream buffers are released and the pooled connection reused
+            return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(super::setComplete));
+        }
+
+        private boolean isNotModified() {
+            String eTag = getHeaders().getETag();
+            if (!HttpStatus.OK.equals(getStatusCode()) || eTag == null) {
+                return false;
+            }
+            ETag current = ETag.create(eTag);
+            // Weak comparison, as RFC 9110 asks for If-None-Match
+            return validators.stream().anyMatch(validator -> validator.isWildcard() || validator.compare(current, false));
+        }
+    }
+}
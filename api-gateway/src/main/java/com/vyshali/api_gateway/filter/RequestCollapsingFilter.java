@@ -0,0 +1,163 @@
+package com.vyshali.api_gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The first of a group of identical requests (the leader) goes upstream; its response is copied
+ * as it streams back to its own client. Requests that arrive before that response is complete
+ * wait for the copy and are answered with it. If the leader fails, is cancelled, or its response
+ * is too large or a stream, the waiting requests go upstream themselves.
+ */
+class RequestCollapsingFilter implements GatewayFilter {
+
+    /** Content negotiation, plus validators: a 304 for one client is no answer for a client without them */
+    private static final List<String> KEY_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING,
+            HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    private final long maxBodySize;
+    private final Counter collapsed;
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    RequestCollapsingFilter(long maxBodySize, Counter collapsed) {
+        this.maxBodySize = maxBodySize;
+        this.collapsed = collapsed;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!collapsible(request)) {
+            return chain.filter(exchange);
+        }
+        String key = key(request);
+        Sinks.One<SharedResponse> leader = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return existing.asMono()
+                    .flatMap(shared -> {
+                        collapsed.increment();
+                        return shared.writeTo(exchange.getResponse()).thenReturn(true);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(true)))
+                    .then();
+        }
+
+        Runnable release = () -> inFlight.remove(key, leader);
+        CopyingResponse response = new CopyingResponse(exchange.getResponse(), shared -> {
+            release.run();
+            leader.tryEmitValue(shared);
+        });
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    // Completes the group if the response was never copied in full
+                    release.run();
+                    leader.tryEmitEmpty();
+                });
+    }
+
+    private static boolean collapsible(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return HttpMethod.GET.equals(request.getMethod())
+                && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.AUTHORIZATION)
+                && !headers.containsKey(HttpHeaders.COOKIE)
+                && headers.getCacheControl() == null;
+    }
+
+    private static String key(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : KEY_HEADERS) {
+            key.append('\n').append(request.getHeaders().getOrEmpty(header));
+        }
+        return key.toString();
+    }
+
+    /**
+     * A complete upstream response, replayed to each waiting request
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().putAll(headers);
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    /**
+     * Passes the leader's response through unchanged while copying it, up to the size limit
+     */
+    private class CopyingResponse extends ServerHttpResponseDecorator {
+
+        private final Consumer<SharedResponse> onCopied;
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private boolean tooLarge;
+
+        CopyingResponse(ServerHttpResponse delegate, Consumer<SharedResponse> onCopied) {
+            super(delegate);
+            this.onCopied = onCopied;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(this::append)
+                    .doOnComplete(this::copied));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // A streamed response (server-sent events, NDJSON) is not shared
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return super.setComplete().doOnSuccess(done -> copied());
+        }
+
+        private void append(DataBuffer buffer) {
+            int length = buffer.readableByteCount();
+            if (tooLarge || copy.size() + length > maxBodySize) {
+                tooLarge = true;
+                return;
+            }
+            byte[] bytes = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(bytes);
+            buffer.readPosition(position);
+            copy.writeBytes(bytes);
+        }
+
+        private void copied() {
+            if (!tooLarge && getStatusCode() != null) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.putAll(getHeaders());
+                onCopied.accept(new SharedResponse(getStatusCode(), headers, copy.toByteArray()));
+            }
+        }
+    }
+}
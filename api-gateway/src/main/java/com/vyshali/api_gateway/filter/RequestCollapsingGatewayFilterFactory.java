@@ -0,0 +1,62 @@
+package com.vyshali.api_gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * {@code RequestCollapsing} route filter: identical GETs that arrive while one is already on its
+ * way upstream wait for that one's response instead of making their own call (see
+ * {@link RequestCollapsingFilter}). It runs after {@code LocalResponseCache}, so on a cached
+ * route only cache misses are collapsed. Requests count as identical when their path, query
+ * and content-negotiation headers match; requests with credentials are never collapsed.
+ * <p>
+ * Collapsed requests are counted as {@code gateway.requests.collapsed{route}}.
+ */
+@Component
+public class RequestCollapsingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCollapsingGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCollapsingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxBodySize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Counter collapsed = Counter.builder("gateway.requests.collapsed")
+                .description("Requests answered with another identical request's upstream response")
+                .tag("route", String.valueOf(config.getRouteId()))
+                .register(meterRegistry);
+        // Inside the response write, like LocalResponseCache, but after it
+        return new OrderedGatewayFilter(new RequestCollapsingFilter(config.getMaxBodySize().toBytes(), collapsed),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        /** Larger responses are streamed to the first caller only; the others go upstream */
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        private String routeId;
+    }
+}
@@ -0,0 +1,158 @@
+package com.vyshali.api_gateway.benchmark;
+
+import com.vyshali.api_gateway.filter.RequestCollapsingGatewayFilterFactory;
+import com.vyshali.api_gateway.support.StubService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A read storm on a few hot products, sent through three routes to the same stub
+ * product-service: plain proxying, request collapsing only, and the configured products route
+ * (LocalResponseCache plus collapsing). Reports client requests, upstream requests and latency
+ * for each. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("local")
+class HotProductReadStormBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final Duration DURATION = Duration.ofSeconds(5);
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(20);
+    /** 90% of reads go to the hot products, the rest spread over the catalogue */
+    private static final int HOT_PRODUCTS = 10;
+    private static final int CATALOGUE = 10_000;
+
+    private static final StubService PRODUCTS = StubService.start("product-service");
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @AfterAll
+    static void stopUpstreams() {
+        PRODUCTS.stop();
+    }
+
+    @TestConfiguration
+    static class ComparisonRoutes {
+
+        @Bean
+        RouteLocator comparisonRoutes(RouteLocatorBuilder builder, RequestCollapsingGatewayFilterFactory collapsing) {
+            return builder.routes()
+                    .route("plain", route -> route.path("/plain/api/v1/products/**")
+                            .filters(filters -> filters.stripPrefix(1))
+                            .uri("lb://product-service"))
+                    .route("collapsed", route -> route.path("/collapsed/api/v1/products/**")
+                            .filters(filters -> filters.stripPrefix(1)
+                                    .filter(collapsing.apply(new RequestCollapsingGatewayFilterFactory.Config())))
+                            .uri("lb://product-service"))
+                    .build();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void hotProductReadStorm() throws Exception {
+        PRODUCTS.setLatency(UPSTREAM_LATENCY);
+        run("warm-up", "/plain", Duration.ofSeconds(2));
+
+        System.out.printf("%n%d clients for %ds; 90%% of reads on %d products; upstream latency %dms%n",
+                CLIENTS, DURATION.toSeconds(), HOT_PRODUCTS, UPSTREAM_LATENCY.toMillis());
+        System.out.printf("%-20s %10s %10s %10s %10s %9s %9s%n",
+                "route", "requests", "upstream", "saved", "req/s", "p50 ms", "p99 ms");
+        Result plain = run("plain", "/plain", DURATION);
+        Result collapsed = run("collapsed", "/collapsed", DURATION);
+        Result cached = run("cache+collapsed", "", DURATION);
+        for (Result result : List.of(plain, collapsed, cached)) {
+            System.out.println(result);
+        }
+
+        assertThat(plain.upstream()).isEqualTo(plain.requests());
+        assertThat(collapsed.upstreamShare()).isLessThan(plain.upstreamShare());
+        assertThat(cached.upstreamShare()).isLessThan(collapsed.upstreamShare());
+    }
+
+    private Result run(String name, String prefix, Duration duration) throws InterruptedException {
+        PRODUCTS.reset();
+        AtomicInteger failures = new AtomicInteger();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (int i = 0; i < CLIENTS; i++) {
+            long[] samples = new long[200_000];
+            latencies.add(samples);
+            threads.add(Thread.ofVirtual().start(() -> {
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline && count < samples.length) {
+                    int id = random.nextInt(10) < 9 ? random.nextInt(HOT_PRODUCTS) + 1 : random.nextInt(CATALOGUE) + 1;
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + prefix + "/api/v1/products/" + id)).build();
+                    long start = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        failures.incrementAndGet();
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                samples[samples.length - 1] = count;
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples, 0, (int) samples[samples.length - 1]))
+                .sorted()
+                .toArray();
+        assertThat(failures.get()).as("failed requests on %s", name).isZero();
+        return new Result(name, all.length, PRODUCTS.requestCount(), duration,
+                all[all.length / 2] / 1_000_000.0, all[(int) (all.length * 0.99)] / 1_000_000.0);
+    }
+
+    private record Result(String name, int requests, int upstream, Duration duration, double p50, double p99) {
+
+        double upstreamShare() {
+            return (double) upstream / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %10d %10d %9.1f%% %10.0f %9.1f %9.1f", name, requests, upstream,
+                    100 * (1 - upstreamShare()), requests / (double) duration.toSeconds(), p50, p99);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.vyshali.api_gateway.filter;
+
+import com.vyshali.api_gateway.support.StubService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client revalidating a product the gateway has cached gets a 304 from the cache, without
+ * the body and without an upstream call.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("local")
+class NotModifiedTest {
+
+    private static final StubService PRODUCTS = StubService.start("product-service");
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @AfterAll
+    static void stopUpstreams() {
+        PRODUCTS.stop();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void cachedProductIsRevalidatedWithoutBody() throws Exception {
+        HttpResponse<String> first = get("/api/v1/products/3", null);
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> revalidated = get("/api/v1/products/3", eTag);
+        HttpResponse<String> changed = get("/api/v1/products/3", "\"stale\"");
+
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.body()).isEmpty();
+        assertThat(revalidated.headers().firstValue("ETag")).hasValue(eTag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.body()).isEqualTo(first.body());
+        assertThat(PRODUCTS.requestCount()).isEqualTo(1);
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,91 @@
+package com.vyshali.api_gateway.filter;
+
+import com.vyshali.api_gateway.support.StubService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent identical product reads share one upstream call and are then served from the
+ * route's cache; order reads always go upstream.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("local")
+class RequestCollapsingTest {
+
+    private static final StubService PRODUCTS = StubService.start("product-service");
+    private static final StubService ORDERS = StubService.start("order-service");
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+        ORDERS.register(registry);
+    }
+
+    @AfterAll
+    static void stopUpstreams() {
+        PRODUCTS.stop();
+        ORDERS.stop();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void slowUpstreams() {
+        PRODUCTS.setLatency(Duration.ofMillis(300));
+        ORDERS.setLatency(Duration.ofMillis(300));
+    }
+
+    @Test
+    void concurrentProductReadsShareOneUpstreamCall() {
+        List<HttpResponse<String>> responses = concurrently(20, "/api/v1/products/7");
+
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo("{\"path\":\"/api/v1/products/7\"}");
+        });
+        assertThat(PRODUCTS.requestCount()).isEqualTo(1);
+
+        assertThat(concurrently(1, "/api/v1/products/7").getFirst().statusCode()).isEqualTo(200);
+        assertThat(PRODUCTS.requestCount()).isEqualTo(1);
+        assertThat(concurrently(1, "/api/v1/products/8").getFirst().statusCode()).isEqualTo(200);
+        assertThat(PRODUCTS.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void orderReadsAreNeitherCollapsedNorCached() {
+        int before = ORDERS.requestCount();
+
+        concurrently(5, "/api/v1/orders/1");
+
+        assertThat(ORDERS.requestCount() - before).isEqualTo(5);
+    }
+
+    private List<HttpResponse<String>> concurrently(int requests, String path) {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.vyshali.api_gateway.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for one instance of a service behind the gateway. Every GET answers
+ * {@code {"path":"<request path>"}}, tagged with an ETag derived from the path, after
+ * {@link #setLatency the set latency}, and counts as one upstream request. Registered through
+ * simple discovery, so {@code lb://<serviceId>} routes reach it.
+ */
+public final class StubService {
+
+    private final String serviceId;
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+
+    private StubService(String serviceId, HttpServer server) {
+        this.serviceId = serviceId;
+        this.server = server;
+    }
+
+    public static StubService start(String serviceId) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+            StubService stub = new StubService(serviceId, server);
+            server.createContext("/", stub::handle);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return stub;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start stub " + serviceId, ex);
+        }
+    }
+
+    /**
+     * Make this stub the only instance of its service
+     */
+    public void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances." + serviceId + "[0].uri",
+                () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    /**
+     * Number of requests served so far
+     */
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public void reset() {
+        requests.set(0);
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Delay every response, standing in for database and network time
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("ETag", "\"" + exchange.getRequestURI().getPath().hashCode() + "\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.vyshali.config_server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vyshali.config_server.environment.CachingEnvironmentRepository;
+import com.vyshali.config_server.environment.ConfigRepoWatcher;
+import com.vyshali.config_server.environment.EnvironmentETagInterceptor;
+import com.vyshali.config_server.environment.MemoizedSourceVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.JGitEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.MultipleJGitEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory cache of resolved environments in front of the native or git repository, with
+ * change detection and conditional GET (see {@link CachingEnvironmentRepository}).
+ * Set {@code environment-cache.enabled=false} to resolve every fetch from the repository.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "environment-cache.enabled", matchIfMissing = true)
+public class EnvironmentCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvironmentCacheConfig.class);
+
+    @Bean
+    public static BeanPostProcessor environmentCachePostProcessor() {
+        return new EnvironmentCachePostProcessor();
+    }
+
+    @Bean
+    public ConfigRepoWatcher configRepoWatcher(EnvironmentRepository environmentRepository,
+                                               ObjectProvider<NativeEnvironmentRepository> nativeRepositories,
+                                               ResourceLoader resourceLoader) {
+        if (!(environmentRepository instanceof CachingEnvironmentRepository cache)) {
+            return new ConfigRepoWatcher(List.of(), null);
+        }
+        List<Path> roots = new ArrayList<>();
+        nativeRepositories.orderedStream().forEach(repository -> {
+            for (String location : repository.getSearchLocations()) {
+                Path root = directoryOf(resourceLoader, location);
+                if (root != null) {
+                    roots.add(root);
+                }
+            }
+        });
+        return new ConfigRepoWatcher(roots, cache);
+    }
+
+    @Bean
+    public WebMvcConfigurer environmentETagConfigurer(EnvironmentRepository environmentRepository) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                if (environmentRepository instanceof CachingEnvironmentRepository cache) {
+                    registry.addInterceptor(new EnvironmentETagInterceptor(cache));
+                }
+            }
+        };
+    }
+
+    /**
+     * The file-system directory a search location points at, up to its first placeholder
+     * ({@code {application}}, {@code {profile}}, {@code {label}}), or null if there is none
+     */
+    private static Path directoryOf(ResourceLoader resourceLoader, String location) {
+        int placeholder = location.indexOf('{');
+        String fixed = placeholder < 0 ? location : location.substring(0, location.lastIndexOf('/', placeholder) + 1);
+        Resource resource = resourceLoader.getResource(fixed);
+        try {
+            if (resource.isFile() && Files.isDirectory(resource.getFile().toPath())) {
+                return resource.getFile().toPath();
+            }
+        } catch (IOException ex) {
+            log.debug("Search location {} is not a directory", location, ex);
+        }
+        log.info("Search location {} is not a directory on the file system and is not watched", location);
+        return null;
+    }
+
+    /**
+     * Wraps the primary repository that EnvironmentController and ResourceController use.
+     * Only native and git sources are cached, since only their changes can be detected; git
+     * repositories with pattern-matched sub-repositories are left alone.
+     */
+    static class EnvironmentCachePostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+        private ListableBeanFactory beanFactory;
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = (ListableBeanFactory) beanFactory;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof SearchPathCompositeEnvironmentRepository composite)) {
+                return bean;
+            }
+            List<JGitEnvironmentRepository> gitRepositories = new ArrayList<>();
+            for (String name : beanFactory.getBeanNamesForType(EnvironmentRepository.class, true, false)) {
+                Class<?> type = beanFactory.getType(name);
+                if (type == null || CompositeEnvironmentRepository.class.isAssignableFrom(type)
+                        || NativeEnvironmentRepository.class.isAssignableFrom(type)) {
+                    continue;
+                }
+                if (!JGitEnvironmentRepository.class.isAssignableFrom(type)) {
+                    log.info("Not caching environments: changes to {} ({}) cannot be detected", name, type.getSimpleName());
+                    return bean;
+                }
+                JGitEnvironmentRepository git = beanFactory.getBean(name, JGitEnvironmentRepository.class);
+                if (git instanceof MultipleJGitEnvironmentRepository multiple && !multiple.getRepos().isEmpty()) {
+                    log.info("Not caching environments: {} has pattern-matched repositories", name);
+                    return bean;
+                }
+                gitRepositories.add(git);
+            }
+
+            Environment environment = beanFactory.getBean(Environment.class);
+            return new CachingEnvironmentRepository(composite,
+                    gitRepositories.isEmpty() ? null : commitOf(gitRepositories, environment),
+                    beanFactory.getBeanProvider(ObjectMapper.class).getIfAvailable(ObjectMapper::new),
+                    beanFactory.getBeanProvider(MeterRegistry.class).getIfAvailable(SimpleMeterRegistry::new),
+                    environment.getProperty("environment-cache.max-entries", Integer.class, 1000));
+        }
+
+        /**
+         * The commit each repository's label points at, after the fetch JGit would make anyway.
+         * Checked at most every {@code spring.cloud.config.server.git.refresh-rate} seconds, and
+         * never more often than {@code environment-cache.min-commit-check-interval} (default
+         * 1s), so a refresh-rate of 0 does not mean a fetch on every lookup.
+         */
+        private static UnaryOperator<String> commitOf(List<JGitEnvironmentRepository> repositories, Environment environment) {
+            Duration refreshRate = Duration.ofSeconds(repositories.stream().mapToInt(JGitEnvironmentRepository::getRefreshRate).max().orElse(0));
+            Duration floor = environment.getProperty("environment-cache.min-commit-check-interval", Duration.class, Duration.ofSeconds(1));
+            Duration maxAge = refreshRate.compareTo(floor) > 0 ? refreshRate : floor;
+            return new MemoizedSourceVersion(label -> {
+                StringJoiner commits = new StringJoiner(",");
+                for (JGitEnvironmentRepository repository : repositories) {
+                    // JGit checks out labels under the repository's own lock
+                    synchronized (repository) {
+                        commits.add(repository.refresh(label != null ? label : repository.getDefaultLabel()));
+                    }
+                }
+                return commits.toString();
+            }, maxAge);
+        }
+    }
+}
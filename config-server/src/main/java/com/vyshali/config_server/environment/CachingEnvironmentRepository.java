@@ -0,0 +1,145 @@
+package com.vyshali.config_server.environment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathLocator;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Resolved environments kept in memory per application, profiles, label and origin flag, so a
+ * repeat fetch is a map lookup instead of re-reading and re-parsing the YAML files.
+ * <ul>
+ *     <li>{@link #invalidate()} drops every entry; {@link ConfigRepoWatcher} calls it when a
+ *     file under a native search location changes.</li>
+ *     <li>An entry also carries the source version it was resolved at (for git, the commit
+ *     of its label) and is resolved again once that moves on.</li>
+ * </ul>
+ * Each entry carries an ETag derived from its content, so clients can ask whether anything
+ * changed (see {@link EnvironmentETagInterceptor}).
+ */
+public class CachingEnvironmentRepository implements EnvironmentRepository, SearchPathLocator {
+
+    private final EnvironmentRepository delegate;
+    private final SearchPathLocator searchPathLocator;
+    private final UnaryOperator<String> sourceVersion;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean caching = true;
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * A resolved environment and the ETag of its content
+     */
+    public record Resolved(Environment environment, String etag) {
+    }
+
+    private record Key(String application, String profile, String label, boolean includeOrigin) {
+    }
+
+    private record Entry(Resolved resolved, long generation, String sourceVersion) {
+    }
+
+    /**
+     * @param sourceVersion the version of the sources behind a label (null label: the default
+     *                      one), or null when only {@link #invalidate()} signals changes
+     */
+    public <T extends EnvironmentRepository & SearchPathLocator> CachingEnvironmentRepository(
+            T delegate, UnaryOperator<String> sourceVersion, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry, int maxEntries) {
+        this.delegate = delegate;
+        this.searchPathLocator = delegate;
+        this.sourceVersion = sourceVersion;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("config.environment.lookups").tag("result", "hit")
+                .description("Environment lookups answered from memory").register(meterRegistry);
+        this.misses = Counter.builder("config.environment.lookups").tag("result", "miss")
+                .description("Environment lookups resolved from the repository").register(meterRegistry);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label) {
+        return findOne(application, profile, label, false);
+    }
+
+    @Override
+    public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+        Environment cached = resolve(application, profile, label, includeOrigin).environment();
+        // Callers may add or reorder property sources; the cached list stays as resolved
+        Environment copy = new Environment(cached);
+        copy.addAll(cached.getPropertySources());
+        return copy;
+    }
+
+    /**
+     * The environment from memory if it is still current, otherwise resolved and remembered
+     * (up to the configured number of entries)
+     */
+    public Resolved resolve(String application, String profile, String label, boolean includeOrigin) {
+        Key key = new Key(application, profile, label, includeOrigin);
+        // Read before resolving: a change that lands mid-resolve makes the entry stale at once
+        long current = generation.get();
+        String version = sourceVersion != null ? sourceVersion.apply(label) : null;
+        Entry entry = caching ? entries.get(key) : null;
+        if (entry != null && entry.generation() == current && Objects.equals(entry.sourceVersion(), version)) {
+            hits.increment();
+            return entry.resolved();
+        }
+
+        misses.increment();
+        Environment environment = delegate.findOne(application, profile, label, includeOrigin);
+        Resolved resolved = new Resolved(environment, etagOf(environment));
+        if (caching && (entries.size() < maxEntries || entries.containsKey(key))) {
+            entries.put(key, new Entry(resolved, current, version));
+        }
+        return resolved;
+    }
+
+    /**
+     * Forget every resolved environment
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Resolve every lookup from the repository from now on, for when changes can no longer
+     * be detected. ETags are still computed, so unchanged environments are still answered
+     * with 304.
+     */
+    public void stopCaching() {
+        caching = false;
+        invalidate();
+    }
+
+    @Override
+    public Locations getLocations(String application, String profile, String label) {
+        return searchPathLocator.getLocations(application, profile, label);
+    }
+
+    private String etagOf(Environment environment) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(environment));
+            // Weak: equal content may still be rendered with different bytes (JSON, YAML, properties)
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not compute the ETag of " + environment.getName(), ex);
+        }
+    }
+}
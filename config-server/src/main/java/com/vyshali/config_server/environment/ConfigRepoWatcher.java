@@ -0,0 +1,121 @@
+package com.vyshali.config_server.environment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Watches the native repository's search locations (and every directory below them) and
+ * invalidates the environment cache whenever a file is created, changed or deleted. Locations
+ * that are not directories on the file system, such as a classpath folder inside the jar,
+ * cannot change and are not watched. If watching fails, the cache stops caching rather than
+ * serve stale environments.
+ */
+public class ConfigRepoWatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigRepoWatcher.class);
+
+    private final List<Path> roots;
+    private final CachingEnvironmentRepository cache;
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    public ConfigRepoWatcher(List<Path> roots, CachingEnvironmentRepository cache) {
+        this.roots = roots;
+        this.cache = cache;
+    }
+
+    @Override
+    public void start() {
+        if (roots.isEmpty()) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path root : roots) {
+                registerTree(root);
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Could not watch {}; resolved environments will not be cached", roots, ex);
+            close();
+            cache.stopCaching();
+            return;
+        }
+        // Anything cached before the watch was in place may already be out of date
+        cache.invalidate();
+        log.info("Watching {} for configuration changes", roots);
+        thread = Thread.ofPlatform().name("config-repo-watcher").daemon().start(this::watch);
+    }
+
+    @Override
+    public void stop() {
+        close();
+        thread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                            && key.watchable() instanceof Path dir
+                            && Files.isDirectory(dir.resolve((Path) event.context()))) {
+                        registerTree(dir.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+                log.debug("Configuration changed under {}", key.watchable());
+                cache.invalidate();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // stopped
+        } catch (RuntimeException ex) {
+            log.error("Stopped watching {}; resolved environments will no longer be cached", roots, ex);
+            thread = null;
+            cache.stopCaching();
+        }
+    }
+
+    private void registerTree(Path root) {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void close() {
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                log.debug("Could not close the watch service", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.vyshali.config_server.environment;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.cloud.config.server.support.PathUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conditional GET for the JSON environment endpoints ({@code /{application}/{profiles}} and
+ * {@code /{application}/{profiles}/{label}}): every response carries the ETag of the resolved
+ * environment, and a request whose {@code If-None-Match} still matches is answered with
+ * {@code 304 Not Modified} from the cache, without rendering anything. Lookups that fail, or
+ * find nothing, are left to {@link EnvironmentController} to report.
+ */
+public class EnvironmentETagInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> ENVIRONMENT_METHODS =
+            Set.of("defaultLabel", "defaultLabelIncludeOrigin", "labelled", "labelledIncludeOrigin");
+
+    private final CachingEnvironmentRepository cache;
+
+    public EnvironmentETagInterceptor(CachingEnvironmentRepository cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)
+                || !EnvironmentController.class.isAssignableFrom(method.getBeanType())
+                || !ENVIRONMENT_METHODS.contains(method.getMethod().getName())) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String name = variables.get("name");
+        String profiles = variables.get("profiles");
+        String label = variables.get("label");
+        if (name == null || profiles == null || PathUtils.isInvalidEncodedLocation(name)
+                || label != null && PathUtils.isInvalidEncodedLocation(label)) {
+            return true;
+        }
+
+        CachingEnvironmentRepository.Resolved resolved;
+        try {
+            // The same lookup EnvironmentController makes, so it is answered from the entry cached here
+            resolved = cache.resolve(Environment.normalize(name), profiles, Environment.normalize(label),
+                    method.getMethod().getName().endsWith("IncludeOrigin"));
+        } catch (RuntimeException ex) {
+            return true;
+        }
+        if (resolved.environment().getPropertySources().isEmpty()) {
+            return true;
+        }
+        // v1 and v2 (with origins) of the same environment have different ETags
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(resolved.etag());
+    }
+}
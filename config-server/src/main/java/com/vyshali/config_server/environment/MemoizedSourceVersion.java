@@ -0,0 +1,50 @@
+package com.vyshali.config_server.environment;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Remembers the source version of each label for a while, so that the lookups of one request
+ * (ETag check and controller), and of every client polling in the same interval, share one
+ * check against the repository. For git that check is {@code refresh()}, which takes the
+ * repository lock, inspects the working tree and may fetch.
+ */
+public class MemoizedSourceVersion implements UnaryOperator<String> {
+
+    private final UnaryOperator<String> delegate;
+    private final long maxAgeNanos;
+    private final LongSupplier clock;
+    private final ConcurrentMap<Label, Checked> versions = new ConcurrentHashMap<>();
+
+    /** Wraps a null label, which stands for the default one */
+    private record Label(String name) {
+    }
+
+    private record Checked(String version, long at) {
+    }
+
+    public MemoizedSourceVersion(UnaryOperator<String> delegate, Duration maxAge) {
+        this(delegate, maxAge, System::nanoTime);
+    }
+
+    MemoizedSourceVersion(UnaryOperator<String> delegate, Duration maxAge, LongSupplier clock) {
+        this.delegate = delegate;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public String apply(String label) {
+        // compute() runs one check per label at a time; concurrent lookups wait and reuse its result
+        return versions.compute(new Label(label), (key, checked) -> {
+            long now = clock.getAsLong();
+            if (checked != null && now - checked.at() < maxAgeNanos) {
+                return checked;
+            }
+            return new Checked(delegate.apply(label), now);
+        }).version();
+    }
+}
@@ -0,0 +1,95 @@
+package com.vyshali.config_server.environment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Environments are served from memory with an ETag, answered with 304 while unchanged, and
+ * resolved again once a file in the native repository changes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false", "spring.cloud.compatibility-verifier.enabled=false"})
+class EnvironmentCacheTest {
+
+    @TempDir
+    static Path repo;
+
+    @DynamicPropertySource
+    static void nativeRepository(DynamicPropertyRegistry registry) throws IOException {
+        Files.writeString(repo.resolve("application.yml"), "shared: one\n");
+        Files.writeString(repo.resolve("cache-test.yml"), "greeting: hello\n");
+        registry.add("spring.cloud.config.server.native.search-locations", () -> repo.toUri().toString());
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CachingEnvironmentRepository cache;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void unchangedEnvironmentIsNotModifiedUntilAFileChanges() throws Exception {
+        HttpResponse<String> first = get("/cache-test/default", null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.body()).contains("hello");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> again = get("/cache-test/default", etag);
+        assertThat(again.statusCode()).isEqualTo(304);
+        assertThat(again.body()).isEmpty();
+        assertThat(get("/cache-test/default/main", null).headers().firstValue("ETag")).isNotEmpty();
+
+        Files.writeString(repo.resolve("cache-test.yml"), "greeting: goodbye\n");
+        HttpResponse<String> changed = awaitChange("/cache-test/default", etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.body()).contains("goodbye");
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void repeatLookupsAreServedFromMemory() {
+        CachingEnvironmentRepository.Resolved first = cache.resolve("cache-test", "dev", null, false);
+        assertThat(cache.resolve("cache-test", "dev", null, false)).isSameAs(first);
+
+        cache.invalidate();
+        CachingEnvironmentRepository.Resolved afterInvalidate = cache.resolve("cache-test", "dev", null, false);
+        assertThat(afterInvalidate).isNotSameAs(first);
+        assertThat(afterInvalidate.etag()).isEqualTo(first.etag());
+    }
+
+    private HttpResponse<String> awaitChange(String path, String etag) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        HttpResponse<String> response = get(path, etag);
+        while (response.statusCode() == 304 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            response = get(path, etag);
+        }
+        return response;
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
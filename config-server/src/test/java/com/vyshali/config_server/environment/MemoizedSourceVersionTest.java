@@ -0,0 +1,47 @@
+package com.vyshali.config_server.environment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each label's source version is looked up once per interval and reused in between.
+ */
+class MemoizedSourceVersionTest {
+
+    private final List<String> lookups = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong();
+    private final MemoizedSourceVersion versions = new MemoizedSourceVersion(label -> {
+        lookups.add(label);
+        return label + "@" + lookups.size();
+    }, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void reusesTheVersionWithinTheInterval() {
+        assertThat(versions.apply("main")).isEqualTo("main@1");
+        now.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(versions.apply("main")).isEqualTo("main@1");
+        assertThat(lookups).containsExactly("main");
+    }
+
+    @Test
+    void looksTheVersionUpAgainOnceTheIntervalHasPassed() {
+        versions.apply("main");
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(versions.apply("main")).isEqualTo("main@2");
+    }
+
+    @Test
+    void keepsEachLabelApart() {
+        assertThat(versions.apply("main")).isEqualTo("main@1");
+        assertThat(versions.apply(null)).isEqualTo("null@2");
+        assertThat(versions.apply("release")).isEqualTo("release@3");
+        assertThat(versions.apply(null)).isEqualTo("null@2");
+        assertThat(lookups).containsExactly("main", null, "release");
+    }
+}
@@ -0,0 +1,35 @@
+plugins {
+	java
+	application
+}
+
+group = "com.vyshali"
+version = "0.0.1-SNAPSHOT"
+description = "Load Test - E-Commerce Microservices"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	// Same Jackson line as the services' Spring Boot 3.5.7
+	implementation(platform("com.fasterxml.jackson:jackson-bom:2.19.2"))
+	implementation("com.fasterxml.jackson.core:jackson-databind")
+	implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+}
+
+application {
+	mainClass.set("com.vyshali.load_test.LoadTestApplication")
+}
+
+// ./gradlew run --args="--duration=PT1M --concurrency=32"; see README.md for every option
+tasks.named<JavaExec>("run") {
+	workingDir = projectDir
+	maxHeapSize = "1g"
+}
@@ -0,0 +1,51 @@
+package com.vyshali.load_test;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors of one endpoint within one scenario. Every latency is kept, so
+ * percentiles are exact; a run of a few minutes stays within a few megabytes.
+ */
+final class EndpointStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos, boolean ok) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    synchronized LoadReport.EndpointResult result(String endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new LoadReport.EndpointResult(
+                endpoint,
+                count,
+                errors,
+                LoadReport.round(count == 0 ? 0 : (double) errors / count),
+                LoadReport.round(count / seconds),
+                millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)),
+                millis(count == 0 ? 0 : sorted[count - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return LoadReport.round(nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.vyshali.load_test;
+
+import java.util.List;
+
+/**
+ * The machine-readable result of a run, written as JSON. Scenarios keep their run order and
+ * endpoints are sorted by name, so reports of two builds can be diffed line by line.
+ */
+public record LoadReport(String label,
+                         String startedAt,
+                         Settings settings,
+                         List<ScenarioResult> scenarios) {
+
+    public record Settings(int concurrency, double warmupSeconds, double durationSeconds, int seedProducts) {
+    }
+
+    public record ScenarioResult(String name, long iterations, double iterationsPerSecond, List<EndpointResult> endpoints) {
+    }
+
+    /**
+     * One endpoint within one scenario; throughput is per second and latencies are in milliseconds
+     */
+    public record EndpointResult(String endpoint,
+                                 long requests,
+                                 long errors,
+                                 double errorRate,
+                                 double throughput,
+                                 double p50,
+                                 double p95,
+                                 double p99,
+                                 double max) {
+    }
+
+    static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
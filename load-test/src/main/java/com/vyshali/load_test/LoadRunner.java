@@ -0,0 +1,72 @@
+package com.vyshali.load_test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs one scenario as a closed loop: every client starts its next journey as soon as the
+ * previous one ends, so throughput is what the services sustain at that concurrency.
+ */
+final class LoadRunner {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final LoadTestSettings settings;
+
+    LoadRunner(HttpClient client, ObjectMapper objectMapper, LoadTestSettings settings) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+    }
+
+    LoadReport.ScenarioResult run(Scenarios.Scenario scenario) throws Exception {
+        Session session = new Session(client, objectMapper);
+        AtomicLong iterations = new AtomicLong();
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            List<Future<?>> loops = new ArrayList<>(settings.concurrency());
+            for (int i = 0; i < settings.concurrency(); i++) {
+                loops.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean measured = now >= warmupEnd;
+                        scenario.journey().run(session, random);
+                        if (measured) {
+                            iterations.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Thread.sleep(Duration.ofNanos(Math.max(0, warmupEnd - System.nanoTime())));
+            session.startRecording();
+            for (Future<?> loop : loops) {
+                loop.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        double seconds = settings.duration().toNanos() / 1e9;
+        List<LoadReport.EndpointResult> endpoints = session.endpoints().entrySet().stream()
+                .map(entry -> entry.getValue().result(entry.getKey(), seconds))
+                .sorted(Comparator.comparing(LoadReport.EndpointResult::endpoint))
+                .toList();
+        return new LoadReport.ScenarioResult(scenario.name(), iterations.get(),
+                LoadReport.round(iterations.get() / seconds), endpoints);
+    }
+}
@@ -0,0 +1,66 @@
+package com.vyshali.load_test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the load-test scenarios against the services and writes a JSON report with
+ * throughput, p50/p95/p99 latency and error rate per endpoint. See README.md for options.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        StandInServices services = settings.startServices() ? StandInServices.start(settings) : null;
+        try {
+            String startedAt = OffsetDateTime.now().toString();
+            List<Long> productIds = Scenarios.seedProducts(new Session(client, objectMapper), settings.urls(), settings.seedProducts());
+
+            LoadRunner runner = new LoadRunner(client, objectMapper, settings);
+            List<LoadReport.ScenarioResult> results = new ArrayList<>();
+            for (String name : settings.scenarios()) {
+                System.out.printf("Running %s: %d clients, %s warmup, %s measured%n",
+                        name, settings.concurrency(), settings.warmup(), settings.duration());
+                LoadReport.ScenarioResult result = runner.run(Scenarios.named(name, settings.urls(), productIds));
+                print(result);
+                results.add(result);
+            }
+
+            LoadReport report = new LoadReport(settings.label(), startedAt,
+                    new LoadReport.Settings(settings.concurrency(), settings.warmup().toMillis() / 1000.0,
+                            settings.duration().toMillis() / 1000.0, settings.seedProducts()),
+                    results);
+            Files.createDirectories(settings.report().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.report().toFile(), report);
+            System.out.printf("Report written to %s%n", settings.report().toAbsolutePath());
+        } finally {
+            if (services != null) {
+                services.close();
+            }
+        }
+    }
+
+    private static void print(LoadReport.ScenarioResult result) {
+        System.out.printf("  %-45s %9s %8s %9s %9s %9s %9s%n", "endpoint", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LoadReport.EndpointResult endpoint : result.endpoints()) {
+            System.out.printf("  %-45s %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f%n", endpoint.endpoint(), endpoint.throughput(),
+                    endpoint.errorRate() * 100, endpoint.p50(), endpoint.p95(), endpoint.p99(), endpoint.max());
+        }
+    }
+}
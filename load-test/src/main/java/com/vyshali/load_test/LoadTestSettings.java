@@ -0,0 +1,80 @@
+package com.vyshali.load_test;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load-test run, given as {@code --name=value} arguments. Every option has a
+ * default, so a bare run starts the stand-in services and runs every scenario.
+ *
+ * @param scenarios      scenarios to run, in order ({@code --scenarios=browse-products,search})
+ * @param concurrency    closed-loop clients per scenario
+ * @param warmup         time each scenario runs before anything is recorded
+ * @param duration       time each scenario is measured for
+ * @param seedProducts   products created before the first scenario
+ * @param startServices  boot the stand-in services, or test services already running at the URLs
+ * @param repositoryRoot directory holding the service projects
+ * @param gradle         Gradle command used to boot each stand-in, relative to its project
+ * @param urls           where the services listen
+ * @param report         JSON report to write
+ * @param label          free-form build identifier recorded in the report, e.g. a commit
+ */
+public record LoadTestSettings(List<String> scenarios,
+                               int concurrency,
+                               Duration warmup,
+                               Duration duration,
+                               int seedProducts,
+                               boolean startServices,
+                               Path repositoryRoot,
+                               String gradle,
+                               ServiceUrls urls,
+                               Path report,
+                               String label) {
+
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        LoadTestSettings settings = new LoadTestSettings(
+                Arrays.stream(options.getOrDefault("scenarios", String.join(",", Scenarios.NAMES)).split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .toList(),
+                Integer.parseInt(options.getOrDefault("concurrency", "16")),
+                Duration.parse(options.getOrDefault("warmup", "PT10S")),
+                Duration.parse(options.getOrDefault("duration", "PT30S")),
+                Integer.parseInt(options.getOrDefault("seed-products", "200")),
+                Boolean.parseBoolean(options.getOrDefault("start-services", "true")),
+                Path.of(options.getOrDefault("repository-root", "..")),
+                options.getOrDefault("gradle", "./gradlew"),
+                new ServiceUrls(
+                        URI.create(options.getOrDefault("product-url", "http://localhost:18081")),
+                        URI.create(options.getOrDefault("order-url", "http://localhost:18082")),
+                        URI.create(options.getOrDefault("notification-url", "http://localhost:18083"))),
+                Path.of(options.getOrDefault("report", "build/reports/load-test/report.json")),
+                options.getOrDefault("label", ""));
+        options.keySet().removeAll(List.of("scenarios", "concurrency", "warmup", "duration", "seed-products",
+                "start-services", "repository-root", "gradle", "product-url", "order-url", "notification-url",
+                "report", "label"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        for (String scenario : settings.scenarios()) {
+            if (!Scenarios.NAMES.contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario + "; expected one of " + Scenarios.NAMES);
+            }
+        }
+        return settings;
+    }
+}
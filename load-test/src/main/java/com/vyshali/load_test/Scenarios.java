@@ -0,0 +1,153 @@
+package com.vyshali.load_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The traffic mix, one scenario per user journey. Each iteration of a scenario is one
+ * journey by one client; a journey stops at its first failed request.
+ */
+final class Scenarios {
+
+    static final List<String> NAMES = List.of(
+            "browse-products", "search", "create-order", "status-transitions", "notification-fan-out");
+
+    private static final String[] WORDS = {
+            "Wireless", "Mouse", "Keyboard", "Monitor", "Laptop", "Phone", "Charger", "Headphones",
+            "Speaker", "Camera", "Tablet", "Watch", "Router", "Drive", "Cable", "Adapter"};
+
+    private static final int EVENTS_PER_BATCH = 20;
+
+    private Scenarios() {
+    }
+
+    /**
+     * A scenario's journey, run once per iteration
+     */
+    interface Journey {
+        void run(Session session, ThreadLocalRandom random);
+    }
+
+    record Scenario(String name, Journey journey) {
+    }
+
+    static Scenario named(String name, ServiceUrls urls, List<Long> productIds) {
+        return switch (name) {
+            case "browse-products" -> new Scenario(name, (session, random) -> browseProducts(session, random, urls, productIds));
+            case "search" -> new Scenario(name, (session, random) -> search(session, random, urls));
+            case "create-order" -> new Scenario(name, (session, random) -> createOrder(session, random, urls, productIds));
+            case "status-transitions" -> new Scenario(name, (session, random) -> statusTransitions(session, random, urls, productIds));
+            case "notification-fan-out" -> new Scenario(name, (session, random) -> notificationFanOut(session, random, urls));
+            default -> throw new IllegalArgumentException("Unknown scenario " + name);
+        };
+    }
+
+    /**
+     * Create the catalog the other scenarios read and order from
+     *
+     * @return the ids of the created products
+     */
+    static List<Long> seedProducts(Session session, ServiceUrls urls, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            JsonNode product = session.post("POST /api/v1/products", urls.product().resolve("/api/v1/products"), Map.of(
+                    "name", WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i,
+                    "description", "Load-test product " + i,
+                    "price", BigDecimal.valueOf(random.nextInt(100, 100_000), 2),
+                    "stockQuantity", 1_000_000));
+            if (product == null) {
+                throw new IllegalStateException("Could not create load-test products at " + urls.product());
+            }
+            ids.add(product.get("id").asLong());
+        }
+        return ids;
+    }
+
+    /** Open a product page, and every tenth visit the full catalog */
+    private static void browseProducts(Session session, ThreadLocalRandom random, ServiceUrls urls, List<Long> productIds) {
+        long id = productIds.get(random.nextInt(productIds.size()));
+        if (session.get("GET /api/v1/products/{id}", urls.product().resolve("/api/v1/products/" + id)) == null) {
+            return;
+        }
+        if (random.nextInt(10) == 0) {
+            session.get("GET /api/v1/products", urls.product().resolve("/api/v1/products"));
+        }
+    }
+
+    /** Search by a catalog word, then open the second page */
+    private static void search(Session session, ThreadLocalRandom random, ServiceUrls urls) {
+        String term = WORDS[random.nextInt(WORDS.length)];
+        if (session.get("GET /api/v1/products/search", urls.product().resolve("/api/v1/products/search?term=" + term + "&size=20")) == null) {
+            return;
+        }
+        session.get("GET /api/v1/products/search", urls.product().resolve("/api/v1/products/search?term=" + term + "&page=1&size=20"));
+    }
+
+    /** Place an order and read it back */
+    private static void createOrder(Session session, ThreadLocalRandom random, ServiceUrls urls, List<Long> productIds) {
+        JsonNode order = placeOrder(session, random, urls, productIds);
+        if (order == null) {
+            return;
+        }
+        session.get("GET /api/v1/orders/{id}", urls.order().resolve("/api/v1/orders/" + order.get("id").asLong()));
+    }
+
+    /** Take a new order through its whole lifecycle, or cancel it one time in five */
+    private static void statusTransitions(Session session, ThreadLocalRandom random, ServiceUrls urls, List<Long> productIds) {
+        JsonNode order = placeOrder(session, random, urls, productIds);
+        if (order == null) {
+            return;
+        }
+        URI status = urls.order().resolve("/api/v1/orders/" + order.get("id").asLong() + "/status");
+        List<String> lifecycle = random.nextInt(5) == 0
+                ? List.of("CONFIRMED", "CANCELLED")
+                : List.of("CONFIRMED", "SHIPPED", "DELIVERED");
+        for (String next : lifecycle) {
+            if (session.patch("PATCH /api/v1/orders/{id}/status", status, Map.of("status", next)) == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver a batch of order events as order-service's outbox relay does, then read one
+     * order's notifications back
+     */
+    private static void notificationFanOut(Session session, ThreadLocalRandom random, ServiceUrls urls) {
+        long orderId = random.nextLong(1, 1_000_000);
+        List<Map<String, Object>> events = new ArrayList<>(EVENTS_PER_BATCH);
+        for (int i = 0; i < EVENTS_PER_BATCH; i++) {
+            events.add(Map.of(
+                    "eventId", UUID.randomUUID().toString(),
+                    "eventType", i == 0 ? "ORDER_CREATED" : "ORDER_STATUS_CHANGED",
+                    "orderId", orderId + i,
+                    "customerId", "LOAD-" + random.nextInt(1000),
+                    "status", i == 0 ? "PENDING" : "CONFIRMED",
+                    "productName", WORDS[random.nextInt(WORDS.length)],
+                    "quantity", 1,
+                    "totalAmount", BigDecimal.valueOf(random.nextInt(100, 100_000), 2),
+                    "occurredAt", LocalDateTime.now()));
+        }
+        if (session.post("POST /api/v1/notifications/order-events",
+                urls.notification().resolve("/api/v1/notifications/order-events"), Map.of("events", events)) == null) {
+            return;
+        }
+        session.get("GET /api/v1/notifications/order/{orderId}", urls.notification().resolve("/api/v1/notifications/order/" + orderId));
+    }
+
+    private static JsonNode placeOrder(Session session, ThreadLocalRandom random, ServiceUrls urls, List<Long> productIds) {
+        return session.post("POST /api/v1/orders", urls.order().resolve("/api/v1/orders"), Map.of(
+                "customerId", "LOAD-" + random.nextInt(1000),
+                "productId", productIds.get(random.nextInt(productIds.size())),
+                "quantity", random.nextInt(1, 5)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.vyshali.load_test;
+
+import java.net.URI;
+
+/**
+ * Base URLs of the services under test
+ */
+public record ServiceUrls(URI product, URI order, URI notification) {
+}
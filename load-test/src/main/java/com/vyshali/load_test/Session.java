@@ -0,0 +1,92 @@
+package com.vyshali.load_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the requests of one scenario and records each under its endpoint, named by method
+ * and path template (e.g. {@code GET /api/v1/products/{id}}) so runs can be compared.
+ * Nothing is recorded until {@link #startRecording()}.
+ */
+final class Session {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    Session(HttpClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    void startRecording() {
+        recording = true;
+    }
+
+    Map<String, EndpointStats> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return the response body, or null if the request failed (the failure is recorded)
+     */
+    JsonNode get(String endpoint, URI uri) {
+        return send(endpoint, HttpRequest.newBuilder(uri).GET());
+    }
+
+    JsonNode post(String endpoint, URI uri, Object body) {
+        return send(endpoint, withBody(uri).POST(bodyOf(body)));
+    }
+
+    JsonNode patch(String endpoint, URI uri, Object body) {
+        return send(endpoint, withBody(uri).method("PATCH", bodyOf(body)));
+    }
+
+    private HttpRequest.Builder withBody(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher bodyOf(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Could not serialize request body", ex);
+        }
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) {
+        request.timeout(TIMEOUT).header("Accept", "application/json");
+        long start = System.nanoTime();
+        JsonNode body = null;
+        boolean ok;
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            ok = response.statusCode() < 400;
+            if (ok && response.body().length > 0) {
+                body = objectMapper.readTree(response.body());
+            }
+        } catch (IOException ex) {
+            ok = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long nanos = System.nanoTime() - start;
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new EndpointStats()).record(nanos, ok);
+        }
+        return ok && body == null ? objectMapper.nullNode() : body;
+    }
+}
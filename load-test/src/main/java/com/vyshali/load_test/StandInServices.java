@@ -0,0 +1,100 @@
+package com.vyshali.load_test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots product-, notification- and order-service on their local stand-ins through each
+ * project's {@code standIn} Gradle task: in-memory H2 in place of PostgreSQL, an embedded
+ * MongoDB in place of a MongoDB server, and fixed instance lists in place of Eureka.
+ * Output goes to {@code build/load-test/<service>.log}.
+ */
+final class StandInServices implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(10);
+
+    private final List<Process> processes = new ArrayList<>();
+
+    static StandInServices start(LoadTestSettings settings) throws Exception {
+        ServiceUrls urls = settings.urls();
+        StandInServices services = new StandInServices();
+        try {
+            services.launch(settings, "product-service", "--server.port=" + urls.product().getPort());
+            services.launch(settings, "notification-service", "--server.port=" + urls.notification().getPort());
+            services.launch(settings, "order-service",
+                    "--server.port=" + urls.order().getPort(),
+                    "--spring.cloud.discovery.client.simple.instances.product-service[0].uri=" + urls.product(),
+                    "--spring.cloud.discovery.client.simple.instances.notification-service[0].uri=" + urls.notification(),
+                    // The relay is off in the h2 profile; here it carries order events to notification-service
+                    "--business.outbox.enabled=true");
+
+            HttpClient client = HttpClient.newHttpClient();
+            long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+            for (URI service : List.of(urls.product(), urls.notification(), urls.order())) {
+                awaitHealthy(client, service, deadline, services);
+            }
+            return services;
+        } catch (Exception ex) {
+            services.close();
+            throw ex;
+        }
+    }
+
+    private void launch(LoadTestSettings settings, String service, String... springArgs) throws IOException {
+        Path project = settings.repositoryRoot().resolve(service).toAbsolutePath().normalize();
+        String gradle = settings.gradle().startsWith("./") ? project.resolve(settings.gradle()).toString() : settings.gradle();
+        Path log = Path.of("build", "load-test", service + ".log");
+        Files.createDirectories(log.getParent());
+
+        Process process = new ProcessBuilder(gradle, "--no-daemon", "-q", "standIn", "-PstandIn.args=" + String.join(" ", springArgs))
+                .directory(project.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.add(process);
+        System.out.printf("Starting %s (log: %s)%n", service, log);
+    }
+
+    private static void awaitHealthy(HttpClient client, URI service, long deadline, StandInServices services) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(service.resolve("/actuator/health")).timeout(Duration.ofSeconds(5)).build();
+        while (System.nanoTime() < deadline) {
+            for (Process process : services.processes) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("A stand-in service exited during startup; see build/load-test/*.log");
+                }
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("%s is up%n", service);
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException(service + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Stop the services, including the JVMs Gradle forked for them
+     */
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+        }
+        for (Process process : processes) {
+            process.onExit().join();
+        }
+    }
+}
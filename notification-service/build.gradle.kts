@@ -32,6 +32,7 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("org.springframework.boot:spring-boot-starter-mail")
 	implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
 	implementation("org.springframework.cloud:spring-cloud-starter-config")
 	implementation("org.springframework.cloud:spring-cloud-starter-bootstrap")
@@ -40,7 +41,7 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
-	testImplementation("de.flapdoodle.embed:de.flapdoodle.embed.mongo.spring3x:4.9.3")
+	testImplementation("de.flapdoodle.embed:de.flapdoodle.embed.mongo.spring3x:4.24.0")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
@@ -50,8 +51,73 @@ dependencyManagement {
 	}
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Throughput comparisons tagged @Tag("benchmark"); run with ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmark-tagged tests against an embedded MongoDB"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+}
+
+// JMH microbenchmarks in src/jmh/java; run with ./gradlew jmh (works with --offline once
+// dependencies are cached). Results, including the gc profiler's allocation rate
+// (gc.alloc.rate.norm, bytes per operation), go to build/reports/jmh/results.json.
+// Narrow the run with -Pjmh.include=<regex>, e.g. -Pjmh.include=OrderMapping
+val jmh: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations {
+	named(jmh.implementationConfigurationName) { extendsFrom(configurations.implementation.get()) }
+	named(jmh.runtimeOnlyConfigurationName) { extendsFrom(configurations.runtimeOnly.get()) }
+	named(jmh.compileOnlyConfigurationName) { extendsFrom(configurations.compileOnly.get()) }
+	named(jmh.annotationProcessorConfigurationName) { extendsFrom(configurations.annotationProcessor.get()) }
+}
+
+dependencies {
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+	description = "Runs the JMH microbenchmarks with the gc profiler"
+	group = "verification"
+	classpath = jmh.runtimeClasspath
+	mainClass.set("org.openjdk.jmh.Main")
+	val results = layout.buildDirectory.file("reports/jmh/results.json")
+	outputs.file(results)
+	outputs.upToDateWhen { false }
+	doFirst { results.get().asFile.parentFile.mkdirs() }
+	args(listOfNotNull(
+		providers.gradleProperty("jmh.include").orNull,
+		"-prof", "gc",
+		"-rf", "json",
+		"-rff", results.get().asFile.absolutePath
+	))
+}
+
+// Runs the service against an embedded MongoDB with Eureka and Config Server off, as the load-test
+// module does; pass Spring arguments with -PstandIn.args="--server.port=... ..."
+tasks.register<JavaExec>("standIn") {
+	description = "Runs the service against an embedded MongoDB instead of its real dependencies"
+	group = "application"
+	classpath = sourceSets.test.get().runtimeClasspath
+	mainClass.set("com.vyshali.notification_service.NotificationServiceApplication")
+	args("--spring.profiles.active=embedded-mongo")
+	providers.gradleProperty("standIn.args").orNull?.let { extra -> args(extra.split(" ").filter { it.isNotBlank() }) }
 }
 
 tasks.bootJar {
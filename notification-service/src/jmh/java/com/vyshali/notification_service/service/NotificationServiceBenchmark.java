@@ -0,0 +1,87 @@
+package com.vyshali.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.dto.NotificationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the notification endpoints that does not touch MongoDB: mapping a
+ * notification to its response and serializing a page of responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationServiceBenchmark {
+
+    @Param({"50"})
+    private int pageSize;
+
+    private NotificationService notificationService;
+    private ObjectMapper objectMapper;
+    private Notification notification;
+    private List<NotificationResponse> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only the pure mapping is measured, so none of the collaborators are needed
+        notificationService = new NotificationService(null, null);
+        // Configured as spring.jackson configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        notification = notification(1L);
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            page.add(notificationService.mapToResponse(notification(id)));
+        }
+    }
+
+    @Benchmark
+    public NotificationResponse mapToResponse() {
+        return notificationService.mapToResponse(notification);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static Notification notification(long id) {
+        Notification notification = new Notification();
+        notification.setId(Long.toHexString(0x65f000000000L + id));
+        notification.setType(NotificationType.EMAIL);
+        notification.setRecipient("customer" + id + "@example.com");
+        notification.setSubject("Order Confirmation - Order #" + id);
+        notification.setMessage("Your order #" + id + " has been confirmed and is being prepared for shipment.");
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setOrderId(String.valueOf(id));
+        notification.setCreatedAt(LocalDateTime.of(2025, 10, 26, 10, 30).plusMinutes(id));
+        notification.setSentAt(notification.getCreatedAt().plusSeconds(2));
+        notification.setRetryCount(0);
+        return notification;
+    }
+}
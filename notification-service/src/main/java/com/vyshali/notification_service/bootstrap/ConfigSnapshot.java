@@ -0,0 +1,190 @@
+package com.vyshali.notification_service.bootstrap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.CompositePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The last environment config-server returned for this service, kept on local disk so the next
+ * start does not wait for config-server. There is one file per application, profiles and label,
+ * written atomically and readable by the owner only (it holds decrypted values).
+ * <p>
+ * Connection settings are the usual {@code spring.cloud.config.*} ones (uri, name, profile,
+ * label, fail-fast); the stock client is switched off, since this replaces it.
+ * <p>
+ * This package and its {@code ConfigSnapshotTest} are copied, package name aside, in
+ * order-service and product-service. A fix made here belongs in all three copies.
+ */
+@Slf4j
+public final class ConfigSnapshot {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String[] uris;
+    private final String name;
+    private final String profiles;
+    private final String label;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Path file;
+
+    /**
+     * An environment as config-server sent it, and the ETag it came with (null if none)
+     */
+    public record Fetched(JsonNode environment, String etag) {
+    }
+
+    private ConfigSnapshot(Environment environment) {
+        this.uris = StringUtils.commaDelimitedListToStringArray(
+                environment.getProperty("spring.cloud.config.uri", "http://localhost:8888"));
+        this.name = environment.getProperty("spring.cloud.config.name",
+                environment.getProperty("spring.application.name", "application"));
+        String[] active = environment.getActiveProfiles();
+        this.profiles = environment.getProperty("spring.cloud.config.profile",
+                active.length > 0 ? String.join(",", active) : "default");
+        this.label = environment.getProperty("spring.cloud.config.label");
+        this.connectTimeout = environment.getProperty("bootstrap-snapshot.connect-timeout", Duration.class, Duration.ofSeconds(2));
+        this.readTimeout = environment.getProperty("bootstrap-snapshot.read-timeout", Duration.class, Duration.ofSeconds(5));
+        Path dir = Path.of(environment.getProperty("bootstrap-snapshot.dir", ".snapshots"));
+        String key = label == null ? name + "-" + profiles : name + "-" + profiles + "-" + label;
+        this.file = dir.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    /**
+     * The snapshot for the application, profiles and label configured in {@code environment}
+     */
+    public static ConfigSnapshot of(Environment environment) {
+        return new ConfigSnapshot(environment);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * The saved environment, if there is a readable one
+     */
+    public Optional<Fetched> read() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode saved = MAPPER.readTree(file.toFile());
+            JsonNode etag = saved.get("etag");
+            return Optional.of(new Fetched(saved.get("environment"), etag == null || etag.isNull() ? null : etag.asText()));
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable config snapshot {}: {}", file, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replace the saved environment
+     */
+    public void write(Fetched fetched) throws IOException {
+        ObjectNode saved = MAPPER.createObjectNode();
+        saved.put("etag", fetched.etag());
+        saved.set("environment", fetched.environment());
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            restrictToOwner(temp);
+            MAPPER.writeValue(temp.toFile(), saved);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Ask config-server for the environment, trying each configured URI in turn.
+     *
+     * @param ifNoneMatch the ETag of the environment already held, or null
+     * @return the environment, or null if it still matches {@code ifNoneMatch}
+     * @throws IOException if no config-server answered with the environment
+     */
+    public Fetched fetch(String ifNoneMatch) throws IOException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+        IOException failure = null;
+        for (String uri : uris) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri.replaceAll("/+$", "") + path()))
+                    .timeout(readTimeout)
+                    .header("Accept", "application/json");
+            if (ifNoneMatch != null) {
+                request.header("If-None-Match", ifNoneMatch);
+            }
+            try {
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 304) {
+                    return null;
+                }
+                if (response.statusCode() == 200) {
+                    return new Fetched(MAPPER.readTree(response.body()), response.headers().firstValue("ETag").orElse(null));
+                }
+                failure = new IOException(uri + " answered " + response.statusCode());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching configuration", ex);
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        throw failure != null ? failure : new IOException("No config-server URI configured");
+    }
+
+    /**
+     * The fetched property sources, highest precedence first, as the stock config client
+     * would add them
+     */
+    public static CompositePropertySource toPropertySource(JsonNode environment) {
+        CompositePropertySource composite = new CompositePropertySource("configService");
+        for (JsonNode source : environment.path("propertySources")) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonNode> field : source.path("source").properties()) {
+                JsonNode value = field.getValue();
+                if (!value.isNull()) {
+                    values.put(field.getKey(), value.isNumber() ? value.numberValue()
+                            : value.isBoolean() ? value.booleanValue() : value.asText());
+                }
+            }
+            composite.addPropertySource(new MapPropertySource("configserver:" + source.path("name").asText(), values));
+        }
+        return composite;
+    }
+
+    private String path() {
+        return "/" + name + "/" + profiles + (label == null ? "" : "/" + label.replace("/", "(_)"));
+    }
+
+    private static void restrictToOwner(Path path) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ex) {
+            // not a POSIX file system
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.vyshali.notification_service.config;
+
+import com.mongodb.MongoCommandException;
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Duration;
+
+/**
+ * Creates the indexes declared on {@link Notification} before the web server starts taking
+ * requests, plus the TTL index whose expiry comes from configuration. Index creation is
+ * idempotent, so running it on every start is cheap once they exist.
+ */
+@Configuration
+@Slf4j
+public class MongoIndexConfig {
+    
+    static final String SENT_TTL_INDEX = "ttl_notifications_sent";
+    
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    
+    private final MongoTemplate mongoTemplate;
+    private final Duration sentTtl;
+    
+    public MongoIndexConfig(MongoTemplate mongoTemplate,
+                            @Value("${notification.retention.sent-ttl:P180D}") Duration sentTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.sentTtl = sentTtl;
+    }
+    
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOps = mongoTemplate.indexOps(Notification.class);
+        resolver.resolveIndexFor(Notification.class).forEach(indexOps::createIndex);
+        ensureSentTtlIndex(indexOps);
+    }
+    
+    /**
+     * Expire delivered notifications {@code sent-ttl} after {@code sentAt}. Pending, retrying
+     * and failed ones have no TTL; the archiver moves failed ones out.
+     */
+    private void ensureSentTtlIndex(IndexOperations indexOps) {
+        Index ttl = new Index()
+                .on("sentAt", Sort.Direction.ASC)
+                .expire(sentTtl)
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(NotificationStatus.SENT.name())))
+                .named(SENT_TTL_INDEX);
+        try {
+            indexOps.createIndex(ttl);
+        } catch (DataAccessException ex) {
+            if (!(ex.getCause() instanceof MongoCommandException command) || command.getErrorCode() != INDEX_OPTIONS_CONFLICT) {
+                throw ex;
+            }
+            // The retention window changed: update the expiry in place rather than rebuilding the index
+            mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(Notification.class))
+                    .append("index", new Document("name", SENT_TTL_INDEX).append("expireAfterSeconds", sentTtl.toSeconds())));
+            log.info("Updated {} expiry to {}", SENT_TTL_INDEX, sentTtl);
+        }
+    }
+}
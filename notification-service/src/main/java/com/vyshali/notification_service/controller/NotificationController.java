@@ -1,18 +1,32 @@
 package com.vyshali.notification_service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.dto.NotificationBatchRequest;
+import com.vyshali.notification_service.dto.NotificationPageResponse;
 import com.vyshali.notification_service.dto.NotificationRequest;
 import com.vyshali.notification_service.dto.NotificationResponse;
+import com.vyshali.notification_service.dto.OrderEventBatchRequest;
+import com.vyshali.notification_service.dto.OrderEventBatchResponse;
 import com.vyshali.notification_service.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -22,36 +36,136 @@ import java.util.List;
 public class NotificationController {
     
     private final NotificationService service;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
-    @Operation(summary = "Send a notification", description = "Sends an email/SMS/push notification")
+    @Operation(summary = "Send a notification", description = "Queues an email/SMS/push notification for background delivery")
     public ResponseEntity<NotificationResponse> sendNotification(@Valid @RequestBody NotificationRequest request) {
         log.info("REST request to send notification to: {}", request.getRecipient());
         NotificationResponse response = service.sendNotification(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Send notifications in bulk", description = "Queues up to 1000 notifications for background delivery, persisted in bulk writes")
+    public ResponseEntity<List<NotificationResponse>> sendNotifications(@Valid @RequestBody NotificationBatchRequest request) {
+        log.info("REST request to send {} notifications", request.getNotifications().size());
+        List<NotificationResponse> responses = service.sendNotifications(request.getNotifications());
+        return new ResponseEntity<>(responses, HttpStatus.ACCEPTED);
+    }
+    
+    @PostMapping("/order-events")
+    @Operation(summary = "Ingest order events", description = "Bulk-ingests relayed order events; events already ingested (same eventId) are skipped")
+    public ResponseEntity<OrderEventBatchResponse> ingestOrderEvents(@Valid @RequestBody OrderEventBatchRequest request) {
+        log.info("REST request to ingest {} order events", request.getEvents().size());
+        OrderEventBatchResponse response = service.ingestOrderEvents(request.getEvents());
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping
-    @Operation(summary = "Get all notifications", description = "Returns all notifications")
-    public ResponseEntity<List<NotificationResponse>> getAllNotifications() {
+    @Operation(summary = "Get all notifications", description = "Streams all notifications as a JSON array, newest first")
+    public ResponseEntity<StreamingResponseBody> getAllNotifications() {
         log.info("REST request to get all notifications");
-        List<NotificationResponse> notifications = service.getAllNotifications();
-        return ResponseEntity.ok(notifications);
+        return jsonArray(service::streamAllNotifications);
+    }
+    
+    @GetMapping("/page")
+    @Operation(summary = "Get notifications page", description = "Returns one keyset page of notifications, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<NotificationPageResponse> getNotificationsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get notifications page after cursor: {}", cursor);
+        NotificationPageResponse page = service.getNotificationsPage(cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/recipient/{recipient}")
-    @Operation(summary = "Get notifications by recipient", description = "Returns notifications for a specific recipient")
-    public ResponseEntity<List<NotificationResponse>> getByRecipient(@PathVariable String recipient) {
+    @Operation(summary = "Get notifications by recipient", description = "Streams notifications for a specific recipient as a JSON array, newest first")
+    public ResponseEntity<StreamingResponseBody> getByRecipient(@PathVariable String recipient) {
         log.info("REST request to get notifications for recipient: {}", recipient);
-        List<NotificationResponse> notifications = service.getByRecipient(recipient);
-        return ResponseEntity.ok(notifications);
+        return jsonArray(consumer -> service.streamByRecipient(recipient, consumer));
+    }
+    
+    @GetMapping("/recipient/{recipient}/page")
+    @Operation(summary = "Get notifications page by recipient", description = "Returns one keyset page of a recipient's notifications, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<NotificationPageResponse> getPageByRecipient(
+            @PathVariable String recipient,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get notifications page for recipient: {} after cursor: {}", recipient, cursor);
+        NotificationPageResponse page = service.getPageByRecipient(recipient, cursor, size);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/order/{orderId}")
-    @Operation(summary = "Get notifications by order", description = "Returns notifications for a specific order")
-    public ResponseEntity<List<NotificationResponse>> getByOrderId(@PathVariable String orderId) {
+    @Operation(summary = "Get notifications by order", description = "Streams notifications for a specific order as a JSON array, newest first")
+    public ResponseEntity<StreamingResponseBody> getByOrderId(@PathVariable String orderId) {
         log.info("REST request to get notifications for order: {}", orderId);
-        List<NotificationResponse> notifications = service.getByOrderId(orderId);
-        return ResponseEntity.ok(notifications);
+        return jsonArray(consumer -> service.streamByOrderId(orderId, consumer));
+    }
+    
+    @GetMapping("/order/{orderId}/page")
+    @Operation(summary = "Get notifications page by order", description = "Returns one keyset page of an order's notifications, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<NotificationPageResponse> getPageByOrderId(
+            @PathVariable String orderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get notifications page for order: {} after cursor: {}", orderId, cursor);
+        NotificationPageResponse page = service.getPageByOrderId(orderId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/status/{status}/page")
+    @Operation(summary = "Get notifications page by status", description = "Returns one keyset page of notifications with a specific status, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<NotificationPageResponse> getPageByStatus(
+            @PathVariable NotificationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get notifications page with status: {} after cursor: {}", status, cursor);
+        NotificationPageResponse page = service.getPageByStatus(status, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Write notifications into a JSON array while the service walks its Mongo cursor, so
+     * neither the documents nor the response body are ever held in memory as a whole
+     */
+    private ResponseEntity<StreamingResponseBody> jsonArray(Consumer<Consumer<NotificationResponse>> source) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                try {
+                    source.accept(notification -> {
+                        try {
+                            generator.writePOJO(notification);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                } catch (UncheckedIOException ex) {
+                    throw ex.getCause();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
@@ -4,11 +4,24 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
+/**
+ * Indexes are declared here and created by {@code MongoIndexConfig} at startup. Lookups page
+ * newest first on (createdAt, _id), so each lookup index ends with both keys in that order
+ * and Mongo never sorts in memory.
+ */
 @Document(collection = "notifications")
+@CompoundIndex(name = "idx_notifications_created", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "idx_notifications_recipient_created", def = "{'recipient': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "idx_notifications_order_created", def = "{'orderId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "idx_notifications_status_created", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
+// Dispatcher poller: due PENDING/RETRY notifications, oldest first
+@CompoundIndex(name = "idx_notifications_status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,4 +39,16 @@ public class Notification {
     private LocalDateTime createdAt;
     private LocalDateTime sentAt;
     private Integer retryCount;
+    
+    /** Earliest time the next delivery attempt may run; unset once the notification is SENT or FAILED */
+    private LocalDateTime nextAttemptAt;
+    
+    /** While in the future, one dispatcher instance owns the delivery and others leave it alone */
+    private LocalDateTime leaseUntil;
+    
+    private String lastError;
+    
+    /** Set for notifications created from relayed order events; unique across the collection */
+    @Indexed(name = "uk_notifications_idempotency_key", unique = true, sparse = true)
+    private String idempotencyKey;
 }
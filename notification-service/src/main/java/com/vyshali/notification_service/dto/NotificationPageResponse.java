@@ -0,0 +1,24 @@
+package com.vyshali.notification_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of notifications, newest first. Pass {@code nextCursor} back as the
+ * {@code cursor} parameter to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationPageResponse {
+    
+    private List<NotificationResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -24,4 +24,6 @@ public class NotificationResponse {
     private String orderId;
     private LocalDateTime createdAt;
     private LocalDateTime sentAt;
+    private Integer retryCount;
+    private String lastError;
 }
@@ -0,0 +1,20 @@
+package com.vyshali.notification_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventBatchRequest {
+    
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 1000, message = "At most 1000 events can be ingested at once")
+    private List<@Valid OrderEventRequest> events;
+}
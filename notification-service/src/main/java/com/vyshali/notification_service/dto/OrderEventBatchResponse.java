@@ -0,0 +1,19 @@
+package com.vyshali.notification_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventBatchResponse {
+    
+    private int received;
+    private int created;
+    
+    /** Events already ingested earlier, recognised by their event ID */
+    private int duplicates;
+}
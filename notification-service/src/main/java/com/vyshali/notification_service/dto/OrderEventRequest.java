@@ -0,0 +1,40 @@
+package com.vyshali.notification_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order event relayed from order-service's outbox. {@code eventId} is the
+ * idempotency key: an event delivered more than once produces one notification.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventRequest {
+    
+    @NotBlank(message = "Event ID is required")
+    private String eventId;
+    
+    @NotBlank(message = "Event type is required")
+    private String eventType;
+    
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+    
+    @NotBlank(message = "Customer ID is required")
+    private String customerId;
+    
+    @NotBlank(message = "Order status is required")
+    private String status;
+    
+    private String productName;
+    private Integer quantity;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
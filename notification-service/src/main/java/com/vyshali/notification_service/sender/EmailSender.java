@@ -0,0 +1,48 @@
+package com.vyshali.notification_service.sender;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends email over SMTP once {@code spring.mail.host} is configured; until then the
+ * message is only logged, which keeps local runs and tests free of a mail server.
+ */
+@Component
+@Slf4j
+public class EmailSender implements NotificationSender {
+    
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final String from;
+    
+    public EmailSender(ObjectProvider<JavaMailSender> mailSender,
+                       @Value("${notification.email.from:noreply@ecommerce.com}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+    
+    @Override
+    public NotificationType type() {
+        return NotificationType.EMAIL;
+    }
+    
+    @Override
+    public void send(Notification notification) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            log.info("[email stub] to={} subject={}", notification.getRecipient(), notification.getSubject());
+            return;
+        }
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(notification.getRecipient());
+        message.setSubject(notification.getSubject());
+        message.setText(notification.getMessage());
+        sender.send(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.vyshali.notification_service.sender;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationType;
+
+/**
+ * Delivers notifications over one channel. Every sender bean is registered with the
+ * dispatcher under its {@link #type()}; throwing fails the attempt and schedules a retry.
+ */
+public interface NotificationSender {
+    
+    NotificationType type();
+    
+    void send(Notification notification) throws Exception;
+}
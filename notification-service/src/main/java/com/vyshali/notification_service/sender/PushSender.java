@@ -0,0 +1,24 @@
+package com.vyshali.notification_service.sender;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Placeholder until a push provider is integrated: logs the notification as delivered
+ */
+@Component
+@Slf4j
+public class PushSender implements NotificationSender {
+    
+    @Override
+    public NotificationType type() {
+        return NotificationType.PUSH;
+    }
+    
+    @Override
+    public void send(Notification notification) {
+        log.info("[push stub] to={} subject={}", notification.getRecipient(), notification.getSubject());
+    }
+}
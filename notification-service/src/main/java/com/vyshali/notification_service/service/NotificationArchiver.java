@@ -0,0 +1,194 @@
+package com.vyshali.notification_service.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves finished notifications out of the live collection into monthly archive collections
+ * ({@code notifications_archive_yyyyMM}, by {@code createdAt}), created with zstd block
+ * compression.
+ * <ul>
+ *     <li>SENT and FAILED notifications older than {@code archive.after} are copied in
+ *     batches, then deleted from the live collection by ID.</li>
+ *     <li>Each run pauses between batches and stops after {@code archive.max-run-time}, so
+ *     a backlog is worked off over several nights instead of competing with live traffic.</li>
+ *     <li>Copying is idempotent: a batch interrupted between copy and delete is simply
+ *     copied again, and the duplicates are ignored.</li>
+ * </ul>
+ * The TTL index on {@code sentAt} remains the hard retention limit for SENT notifications,
+ * so {@code archive.after} must be well inside {@code sent-ttl}.
+ */
+@Component
+@Slf4j
+public class NotificationArchiver {
+    
+    static final String ARCHIVE_PREFIX = "notifications_archive_";
+    
+    /** Queried as raw documents, so statuses are matched by their stored names */
+    private static final List<String> FINISHED = List.of(NotificationStatus.SENT.name(), NotificationStatus.FAILED.name());
+    private static final DateTimeFormatter PARTITION = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final int NAMESPACE_EXISTS = 48;
+    
+    private final MongoTemplate mongoTemplate;
+    private final String liveCollection;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+    private final Counter archived;
+    private final Set<String> knownPartitions = ConcurrentHashMap.newKeySet();
+    
+    public NotificationArchiver(MongoTemplate mongoTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${notification.retention.archive.enabled:true}") boolean enabled,
+                                @Value("${notification.retention.archive.after:P30D}") Duration archiveAfter,
+                                @Value("${notification.retention.archive.batch-size:1000}") int batchSize,
+                                @Value("${notification.retention.archive.pause:PT0.2S}") Duration pause,
+                                @Value("${notification.retention.archive.max-run-time:PT30M}") Duration maxRunTime,
+                                @Value("${notification.retention.sent-ttl:P180D}") Duration sentTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.liveCollection = mongoTemplate.getCollectionName(Notification.class);
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxRunTime = maxRunTime;
+        this.archived = Counter.builder("notifications.archived")
+                .description("Notifications moved to archive collections")
+                .register(meterRegistry);
+        if (enabled && archiveAfter.compareTo(sentTtl) >= 0) {
+            log.warn("notification.retention.archive.after ({}) is not shorter than sent-ttl ({}); "
+                    + "SENT notifications will expire before they are archived", archiveAfter, sentTtl);
+        }
+    }
+    
+    @Scheduled(cron = "${notification.retention.archive.cron:0 30 2 * * *}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archive();
+        }
+    }
+    
+    /**
+     * Archive eligible notifications until none are left or the run time is used up
+     *
+     * @return the number of notifications moved
+     */
+    public long archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        Query eligible = new Query(Criteria.where("status").in(FINISHED)
+                .and("createdAt").lt(Date.from(cutoff.atZone(ZoneId.systemDefault()).toInstant())))
+                .limit(batchSize);
+    
+        long moved = 0;
+        while (System.nanoTime() < deadline) {
+            // Raw documents: archived copies keep every field exactly as stored
+            List<Document> batch = mongoTemplate.find(eligible, Document.class, liveCollection);
+            if (batch.isEmpty()) {
+                break;
+            }
+            moved += moveBatch(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} notifications created before {}", moved, cutoff);
+        }
+        return moved;
+    }
+    
+    private long moveBatch(List<Document> batch) {
+        Map<String, List<Document>> byPartition = new LinkedHashMap<>();
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Document document : batch) {
+            byPartition.computeIfAbsent(partitionOf(document), partition -> new ArrayList<>()).add(document);
+            ids.add(document.get("_id"));
+        }
+        byPartition.forEach(this::copyTo);
+    
+        // Only delete what was copied; anything changed since the read (e.g. re-queued) stays live
+        long deleted = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)
+                .and("status").in(FINISHED)), liveCollection)
+                .getDeletedCount();
+        archived.increment(deleted);
+        return deleted;
+    }
+    
+    private void copyTo(String collection, List<Document> documents) {
+        ensurePartition(collection);
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            // Copied by an earlier, interrupted run
+            boolean onlyDuplicates = ex.getErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                throw ex;
+            }
+        }
+    }
+    
+    /**
+     * Create the archive collection the first time it is needed. Archives are written once
+     * and rarely read, so they trade CPU for the better ratio of zstd over the default snappy.
+     */
+    private void ensurePartition(String collection) {
+        if (knownPartitions.contains(collection)) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(collection)) {
+            try {
+                mongoTemplate.getDb().createCollection(collection, new CreateCollectionOptions()
+                        .storageEngineOptions(new Document("wiredTiger", new Document("configString", "block_compressor=zstd"))));
+            } catch (MongoCommandException ex) {
+                if (ex.getErrorCode() != NAMESPACE_EXISTS) {
+                    throw ex;
+                }
+            }
+        }
+        knownPartitions.add(collection);
+    }
+    
+    private static String partitionOf(Document document) {
+        Date createdAt = document.getDate("createdAt");
+        return ARCHIVE_PREFIX + PARTITION.format(createdAt.toInstant().atZone(ZoneId.systemDefault()));
+    }
+}
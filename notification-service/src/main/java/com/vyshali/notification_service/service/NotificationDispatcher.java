@@ -0,0 +1,220 @@
+package com.vyshali.notification_service.service;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.repository.NotificationRepository;
+import com.vyshali.notification_service.sender.NotificationSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers notifications on a pool of virtual threads through the {@link NotificationSender}
+ * registered for their type.
+ * <ul>
+ *     <li>{@link #enqueue} stores a notification as PENDING through the
+ *     {@link NotificationWriteBuffer} and hands it straight to a worker, so the caller waits
+ *     for the insert but never for delivery.</li>
+ *     <li>A failed attempt is retried after {@code delay-seconds}, doubling per attempt; after
+ *     {@code max-attempts} the notification is FAILED.</li>
+ *     <li>Due retries, and notifications left behind by a crash or stored without a worker
+ *     (bulk-ingested order events), are claimed by a poller. A claim is a time-limited lease
+ *     taken atomically, so replicas never deliver the same notification concurrently.</li>
+ * </ul>
+ * Outcomes are counted in {@code notifications.delivery} by type and outcome.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+    
+    private final MongoTemplate mongoTemplate;
+    private final NotificationWriteBuffer writeBuffer;
+    private final NotificationRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final Map<NotificationType, NotificationSender> senders = new EnumMap<>(NotificationType.class);
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration lease;
+    private final int claimBatchSize;
+    private final Semaphore permits;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    
+    public NotificationDispatcher(MongoTemplate mongoTemplate,
+                                  NotificationWriteBuffer writeBuffer,
+                                  NotificationRepository repository,
+                                  List<NotificationSender> senders,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${notification.retry.delay-seconds:5}") long retryDelaySeconds,
+                                  @Value("${notification.delivery.concurrency:200}") int concurrency,
+                                  @Value("${notification.delivery.lease:PT5M}") Duration lease,
+                                  @Value("${notification.delivery.claim-batch-size:500}") int claimBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.writeBuffer = writeBuffer;
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        for (NotificationSender sender : senders) {
+            this.senders.put(sender.type(), sender);
+        }
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = Duration.ofSeconds(retryDelaySeconds);
+        this.lease = lease;
+        this.claimBatchSize = claimBatchSize;
+        // Virtual threads are cheap, but channel providers are not: cap concurrent sends
+        this.permits = new Semaphore(concurrency);
+    }
+    
+    /**
+     * Store a new notification as PENDING and start delivering it in the background.
+     * Returns once the notification is persisted.
+     */
+    public Notification enqueue(Notification notification) {
+        return enqueueAll(List.of(notification)).get(0);
+    }
+    
+    /**
+     * Store new notifications as PENDING through the write buffer and start delivering each
+     * one as soon as it is persisted. Returns once all of them are persisted; if any insert
+     * failed, its error is rethrown after the others have been handed to workers.
+     */
+    public List<Notification> enqueueAll(List<Notification> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setRetryCount(0);
+            notification.setNextAttemptAt(now);
+            // Leased to this instance up front, so the poller leaves it to the worker below
+            notification.setLeaseUntil(now.plus(lease));
+        }
+        List<CompletableFuture<Notification>> writes = writeBuffer.writeAll(notifications).stream()
+                .map(write -> write.thenApply(saved -> {
+                    workers.execute(() -> deliver(saved));
+                    return saved;
+                }))
+                .toList();
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return writes.stream().map(CompletableFuture::join).toList();
+    }
+    
+    /**
+     * Claim due notifications and hand them to workers
+     */
+    @Scheduled(fixedDelayString = "${notification.delivery.poll-interval:PT1S}")
+    public void dispatchDue() {
+        for (int i = 0; i < claimBatchSize; i++) {
+            Notification claimed = claimNext();
+            if (claimed == null) {
+                return;
+            }
+            workers.execute(() -> deliver(claimed));
+        }
+    }
+    
+    private Notification claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Query due = new Query(new Criteria().andOperator(
+                Criteria.where("status").in(NotificationStatus.PENDING, NotificationStatus.RETRY),
+                Criteria.where("nextAttemptAt").lte(now),
+                new Criteria().orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lte(now))))
+                .with(Sort.by("nextAttemptAt"));
+        return mongoTemplate.findAndModify(due, new Update().set("leaseUntil", now.plus(lease)),
+                FindAndModifyOptions.options().returnNew(true), Notification.class);
+    }
+    
+    /**
+     * Make one delivery attempt for a notification this instance holds the lease on
+     */
+    void deliver(Notification notification) {
+        permits.acquireUninterruptibly();
+        try {
+            NotificationSender sender = senders.get(notification.getType());
+            if (sender == null) {
+                throw new IllegalStateException("No sender registered for " + notification.getType());
+            }
+            sender.send(notification);
+        } catch (Exception ex) {
+            markFailedAttempt(notification, ex);
+            return;
+        } finally {
+            permits.release();
+        }
+        // If this save fails the lease runs out and the notification is sent again: at least once
+        markSent(notification);
+    }
+    
+    private void markSent(Notification notification) {
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setSentAt(LocalDateTime.now());
+        notification.setNextAttemptAt(null);
+        notification.setLeaseUntil(null);
+        notification.setLastError(null);
+        repository.save(notification);
+        count(notification, "sent");
+    }
+    
+    private void markFailedAttempt(Notification notification, Exception ex) {
+        int attempts = notification.getRetryCount() + 1;
+        notification.setRetryCount(attempts);
+        notification.setLastError(ex.getMessage());
+        notification.setLeaseUntil(null);
+        if (attempts >= maxAttempts) {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(null);
+            log.warn("Notification {} failed after {} attempts: {}", notification.getId(), attempts, ex.getMessage());
+            count(notification, "failed");
+        } else {
+            notification.setStatus(NotificationStatus.RETRY);
+            notification.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            log.debug("Notification {} attempt {} failed, retrying: {}", notification.getId(), attempts, ex.getMessage());
+            count(notification, "retry");
+        }
+        repository.save(notification);
+    }
+    
+    /**
+     * Delay before the attempt that follows the given number of failed attempts
+     */
+    Duration backoff(int failedAttempts) {
+        return retryDelay.multipliedBy(1L << Math.min(failedAttempts - 1, 20));
+    }
+    
+    private void count(Notification notification, String outcome) {
+        meterRegistry.counter("notifications.delivery", "type", notification.getType().name(), "outcome", outcome).increment();
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Deliveries cut short here are picked up by the poller once their lease runs out
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
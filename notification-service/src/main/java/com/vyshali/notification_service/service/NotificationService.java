@@ -2,66 +2,237 @@ package com.vyshali.notification_service.service;
 
 import com.vyshali.notification_service.domain.Notification;
 import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.dto.NotificationPageResponse;
 import com.vyshali.notification_service.dto.NotificationRequest;
 import com.vyshali.notification_service.dto.NotificationResponse;
-import com.vyshali.notification_service.repository.NotificationRepository;
+import com.vyshali.notification_service.dto.OrderEventBatchResponse;
+import com.vyshali.notification_service.dto.OrderEventRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
     
-    private final NotificationRepository repository;
+    private static final String ORDER_CREATED = "ORDER_CREATED";
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_BATCH_SIZE = 500;
     
+    private final MongoTemplate mongoTemplate;
+    private final NotificationDispatcher dispatcher;
+    
+    /**
+     * Store the notification as PENDING and deliver it in the background
+     */
     public NotificationResponse sendNotification(NotificationRequest request) {
         log.info("Sending {} notification to: {}", request.getType(), request.getRecipient());
         
-        Notification notification = new Notification();
-        notification.setType(request.getType());
-        notification.setRecipient(request.getRecipient());
-        notification.setSubject(request.getSubject());
-        notification.setMessage(request.getMessage());
-        notification.setOrderId(request.getOrderId());
-        notification.setStatus(NotificationStatus.SENT);
-        notification.setCreatedAt(LocalDateTime.now());
-        notification.setSentAt(LocalDateTime.now());
-        notification.setRetryCount(0);
-        
-        Notification saved = repository.save(notification);
-        log.info("Notification sent successfully with ID: {}", saved.getId());
+        Notification saved = dispatcher.enqueue(toNotification(request, LocalDateTime.now()));
+        log.info("Notification queued for delivery with ID: {}", saved.getId());
         
         return mapToResponse(saved);
     }
     
-    public List<NotificationResponse> getAllNotifications() {
-        log.info("Fetching all notifications");
-        return repository.findAll().stream()
+    /**
+     * Store several notifications as PENDING in bulk writes and deliver them in the background
+     */
+    public List<NotificationResponse> sendNotifications(List<NotificationRequest> requests) {
+        log.info("Sending batch of {} notifications", requests.size());
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = requests.stream()
+                .map(request -> toNotification(request, now))
+                .collect(Collectors.toList());
+        
+        List<Notification> saved = dispatcher.enqueueAll(notifications);
+        log.info("{} notifications queued for delivery", saved.size());
+        
+        return saved.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
     
-    public List<NotificationResponse> getByRecipient(String recipient) {
-        log.info("Fetching notifications for recipient: {}", recipient);
-        return repository.findByRecipient(recipient).stream()
-                .map(this::mapToResponse)
+    /**
+     * Queue customer notifications for relayed order events. Events are inserted in one
+     * unordered bulk write; events whose ID was already ingested are counted as duplicates
+     * rather than failing the batch, which makes redelivery by the relay harmless.
+     */
+    public OrderEventBatchResponse ingestOrderEvents(List<OrderEventRequest> events) {
+        log.info("Ingesting {} order events", events.size());
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = events.stream()
+                .map(event -> toNotification(event, now))
                 .collect(Collectors.toList());
+        
+        int created;
+        try {
+            created = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(notifications)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException ex) {
+            boolean onlyDuplicates = ex.getErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                throw ex;
+            }
+            created = ex.getResult().getInsertedCount();
+        }
+        
+        int duplicates = events.size() - created;
+        log.info("Order events ingested: {} created, {} duplicates", created, duplicates);
+        return OrderEventBatchResponse.builder()
+                .received(events.size())
+                .created(created)
+                .duplicates(duplicates)
+                .build();
     }
     
-    public List<NotificationResponse> getByOrderId(String orderId) {
-        log.info("Fetching notifications for order: {}", orderId);
-        return repository.findByOrderId(orderId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Stream every notification to the consumer, newest first, straight off a Mongo cursor
+     */
+    public void streamAllNotifications(Consumer<NotificationResponse> consumer) {
+        log.info("Streaming all notifications");
+        stream(null, consumer);
+    }
+    
+    public void streamByRecipient(String recipient, Consumer<NotificationResponse> consumer) {
+        log.info("Streaming notifications for recipient: {}", recipient);
+        stream(Criteria.where("recipient").is(recipient), consumer);
+    }
+    
+    public void streamByOrderId(String orderId, Consumer<NotificationResponse> consumer) {
+        log.info("Streaming notifications for order: {}", orderId);
+        stream(Criteria.where("orderId").is(orderId), consumer);
+    }
+    
+    public NotificationPageResponse getNotificationsPage(String cursor, int size) {
+        log.info("Fetching notifications page after cursor: {}", cursor);
+        return page(null, cursor, size);
+    }
+    
+    public NotificationPageResponse getPageByRecipient(String recipient, String cursor, int size) {
+        log.info("Fetching notifications page for recipient: {} after cursor: {}", recipient, cursor);
+        return page(Criteria.where("recipient").is(recipient), cursor, size);
+    }
+    
+    public NotificationPageResponse getPageByOrderId(String orderId, String cursor, int size) {
+        log.info("Fetching notifications page for order: {} after cursor: {}", orderId, cursor);
+        return page(Criteria.where("orderId").is(orderId), cursor, size);
+    }
+    
+    public NotificationPageResponse getPageByStatus(NotificationStatus status, String cursor, int size) {
+        log.info("Fetching notifications page with status: {} after cursor: {}", status, cursor);
+        return page(Criteria.where("status").is(status), cursor, size);
+    }
+    
+    /**
+     * Keyset page, newest first. One extra document is fetched to tell whether a next page
+     * exists, so no count is ever run.
+     */
+    private NotificationPageResponse page(Criteria filter, String cursor, int size) {
+        NotificationCursor after = NotificationCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        Query query = newestFirst(filter);
+        if (after != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id())));
+        }
+        List<Notification> notifications = mongoTemplate.find(query.limit(pageSize + 1), Notification.class);
+        
+        boolean hasNext = notifications.size() > pageSize;
+        List<Notification> content = hasNext ? notifications.subList(0, pageSize) : notifications;
+        String nextCursor = hasNext ? NotificationCursor.after(content.get(content.size() - 1)).encode() : null;
+        
+        return NotificationPageResponse.builder()
+                .content(content.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private void stream(Criteria filter, Consumer<NotificationResponse> consumer) {
+        Query query = newestFirst(filter).cursorBatchSize(STREAM_BATCH_SIZE);
+        try (Stream<Notification> notifications = mongoTemplate.stream(query, Notification.class)) {
+            notifications.forEach(notification -> consumer.accept(mapToResponse(notification)));
+        }
+    }
+    
+    /**
+     * Query sorted on (createdAt, _id) descending, the trailing keys of every lookup index
+     */
+    private static Query newestFirst(Criteria filter) {
+        Query query = filter == null ? new Query() : new Query(filter);
+        return query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+    
+    private Notification toNotification(NotificationRequest request, LocalDateTime now) {
+        Notification notification = new Notification();
+        notification.setType(request.getType());
+        notification.setRecipient(request.getRecipient());
+        notification.setSubject(request.getSubject());
+        notification.setMessage(request.getMessage());
+        notification.setOrderId(request.getOrderId());
+        notification.setCreatedAt(now);
+        return notification;
+    }
+    
+    /**
+     * Compose the customer notification for an order event
+     */
+    private Notification toNotification(OrderEventRequest event, LocalDateTime now) {
+        String subject;
+        String message;
+        if (ORDER_CREATED.equals(event.getEventType())) {
+            subject = "Order #" + event.getOrderId() + " received";
+            message = "Thank you for your order of " + event.getQuantity() + " x " + event.getProductName()
+                    + " (total " + event.getTotalAmount() + ").";
+        } else {
+            subject = "Order #" + event.getOrderId() + " is now " + event.getStatus();
+            message = "Your order of " + event.getQuantity() + " x " + event.getProductName()
+                    + " is now " + event.getStatus() + ".";
+        }
+        
+        Notification notification = new Notification();
+        notification.setType(NotificationType.EMAIL);
+        // There is no customer directory yet, so the customer ID is the address
+        notification.setRecipient(event.getCustomerId());
+        notification.setSubject(subject);
+        notification.setMessage(message);
+        notification.setOrderId(String.valueOf(event.getOrderId()));
+        // Not leased: the dispatcher's poller claims and delivers these
+        notification.setStatus(NotificationStatus.PENDING);
+        notification.setCreatedAt(now);
+        notification.setRetryCount(0);
+        notification.setNextAttemptAt(now);
+        notification.setIdempotencyKey(event.getEventId());
+        return notification;
     }
     
-    private NotificationResponse mapToResponse(Notification notification) {
+    /**
+     * Package-private for the JMH benchmarks in src/jmh
+     */
+    NotificationResponse mapToResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .type(notification.getType())
@@ -72,6 +243,8 @@ public class NotificationService {
                 .orderId(notification.getOrderId())
                 .createdAt(notification.getCreatedAt())
                 .sentAt(notification.getSentAt())
+                .retryCount(notification.getRetryCount())
+                .lastError(notification.getLastError())
                 .build();
     }
 }
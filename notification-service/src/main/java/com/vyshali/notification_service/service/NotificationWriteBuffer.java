@@ -0,0 +1,203 @@
+package com.vyshali.notification_service.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.vyshali.notification_service.domain.Notification;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer that turns many concurrent single-notification inserts into a few
+ * unordered bulk inserts.
+ * <ul>
+ *     <li>{@link #write} queues a notification and returns a future that completes once it
+ *     is persisted, or fails if its insert did.</li>
+ *     <li>A flusher thread sends a batch once {@code max-batch-size} notifications are
+ *     queued or {@code max-delay} has passed since the oldest one, whichever is first.
+ *     While a batch is in flight, new writes queue up for the next one.</li>
+ *     <li>The queue is bounded; when Mongo falls behind, writers block instead of
+ *     buffering without limit.</li>
+ * </ul>
+ * Batch sizes are published as {@code notifications.write.batch}.
+ */
+@Component
+@Slf4j
+public class NotificationWriteBuffer {
+    
+    private final MongoTemplate mongoTemplate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    /** Set once the flusher has taken its last write; anything queued later is failed, not flushed */
+    private volatile boolean flusherDone;
+    
+    public NotificationWriteBuffer(MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${notification.write-buffer.max-batch-size:500}") int maxBatchSize,
+                                   @Value("${notification.write-buffer.max-delay:PT0.002S}") Duration maxDelay,
+                                   @Value("${notification.write-buffer.capacity:10000}") int capacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSizes = DistributionSummary.builder("notifications.write.batch")
+                .description("Notifications inserted per bulk write")
+                .register(meterRegistry);
+        this.flusher = Thread.ofPlatform().name("notification-write-buffer").daemon().start(this::flushLoop);
+    }
+    
+    /**
+     * Queue a new notification for insertion. Its ID is assigned here, so it is known
+     * before the write completes.
+     */
+    public CompletableFuture<Notification> write(Notification notification) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Notification write buffer is shut down"));
+        }
+        if (notification.getId() == null) {
+            notification.setId(new ObjectId().toHexString());
+        }
+        PendingWrite write = new PendingWrite(notification, new CompletableFuture<>());
+        try {
+            queue.put(write);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ex);
+        }
+        // A write that passed the running check as shutdown began may land after the flusher's last drain
+        if (flusherDone && queue.remove(write)) {
+            write.result().completeExceptionally(new IllegalStateException("Notification write buffer is shut down"));
+        }
+        return write.result();
+    }
+    
+    /**
+     * Queue several notifications; each future completes independently
+     */
+    public List<CompletableFuture<Notification>> writeAll(List<Notification> notifications) {
+        List<CompletableFuture<Notification>> results = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            results.add(write(notification));
+        }
+        return results;
+    }
+    
+    private void flushLoop() {
+        try {
+            flushUntilShutdown();
+        } finally {
+            flusherDone = true;
+            failRemaining();
+        }
+    }
+    
+    private void flushUntilShutdown() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Shutdown: drain what is left below
+                running = false;
+            } catch (RuntimeException ex) {
+                log.error("Notification write buffer flush failed", ex);
+                batch.forEach(write -> write.result().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Fails writes queued after the loop's last check, so no caller waits on a future
+     * nobody will complete
+     */
+    private void failRemaining() {
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Failing {} notification writes queued after the write buffer shut down", remaining.size());
+        }
+        IllegalStateException shutDown = new IllegalStateException("Notification write buffer is shut down");
+        remaining.forEach(write -> write.result().completeExceptionally(shutDown));
+    }
+    
+    private void flush(List<PendingWrite> batch) {
+        List<Notification> documents = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            documents.add(write.notification());
+        }
+        batchSizes.record(batch.size());
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            // Unordered: every document without an error of its own was inserted
+            completePartially(batch, ex.getErrors().stream().map(BulkWriteError::getIndex).toList(), ex);
+            return;
+        }
+        for (PendingWrite write : batch) {
+            write.result().complete(write.notification());
+        }
+    }
+    
+    private void completePartially(List<PendingWrite> batch, List<Integer> failedIndexes, RuntimeException ex) {
+        boolean[] failed = new boolean[batch.size()];
+        failedIndexes.forEach(index -> failed[index] = true);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            if (failed[i]) {
+                write.result().completeExceptionally(ex);
+            } else {
+                write.result().complete(write.notification());
+            }
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Writes already queued are still flushed before the Mongo client closes
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    
+    private record PendingWrite(Notification notification, CompletableFuture<Notification> result) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.vyshali.notification_service.benchmark;
+
+import com.vyshali.notification_service.config.MongoIndexConfig;
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.dto.NotificationPageResponse;
+import com.vyshali.notification_service.service.NotificationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the paged notification lookups with and without the indexes declared on
+ * {@link Notification}, over a synthetic collection (1M documents by default,
+ * -Dbenchmark.documents=10000000 for the 10M figure). Each lookup fetches the first page of 50
+ * and the page after it.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded-mongo")
+@Tag("benchmark")
+class NotificationQueryBenchmark {
+    
+    private static final int RECIPIENTS = 100_000;
+    private static final int RUNS = 5;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Test
+    void indexesCutLookupLatency() {
+        int documents = Integer.getInteger("benchmark.documents", 1_000_000);
+        seed(documents);
+        
+        mongoTemplate.indexOps(Notification.class).dropAllIndexes();
+        List<Double> unindexed = measureAll();
+        mongoIndexConfig.ensureIndexes();
+        List<Double> indexed = measureAll();
+        
+        System.out.printf("collection: %,d notifications%n", documents);
+        System.out.printf("%-22s %16s %16s%n", "lookup", "no index (ms)", "indexed (ms)");
+        String[] names = {"all", "by recipient", "by order", "by status"};
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-22s %16.2f %16.2f%n", names[i], unindexed.get(i), indexed.get(i));
+        }
+    }
+    
+    private List<Double> measureAll() {
+        return List.of(
+                measure(cursor -> notificationService.getNotificationsPage(cursor, 50)),
+                measure(cursor -> notificationService.getPageByRecipient("customer42@example.com", cursor, 50)),
+                measure(cursor -> notificationService.getPageByOrderId("4242", cursor, 50)),
+                measure(cursor -> notificationService.getPageByStatus(NotificationStatus.FAILED, cursor, 50)));
+    }
+    
+    /**
+     * Median time of fetching a first page and the page after it
+     */
+    private static double measure(Function<String, NotificationPageResponse> lookup) {
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            NotificationPageResponse first = lookup.apply(null);
+            if (first.isHasNext()) {
+                NotificationPageResponse second = lookup.apply(first.getNextCursor());
+                assertThat(second.getContent()).doesNotContainAnyElementsOf(first.getContent());
+            }
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+    
+    private void seed(int documents) {
+        Random random = new Random(42);
+        NotificationStatus[] statuses = NotificationStatus.values();
+        LocalDateTime start = LocalDateTime.now().minusDays(90);
+        List<Notification> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < documents; i++) {
+            Notification notification = new Notification();
+            notification.setType(NotificationType.EMAIL);
+            notification.setRecipient("customer" + random.nextInt(RECIPIENTS) + "@example.com");
+            notification.setSubject("Order #" + i / 3 + " update");
+            notification.setMessage("Your order is on its way.");
+            notification.setOrderId(String.valueOf(i / 3));
+            notification.setStatus(statuses[random.nextInt(statuses.length)]);
+            notification.setCreatedAt(start.plusSeconds(i * 7L));
+            notification.setRetryCount(0);
+            batch.add(notification);
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+    
+    private void insert(List<Notification> batch) {
+        if (!batch.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class).insert(batch).execute();
+            batch.clear();
+        }
+    }
+}
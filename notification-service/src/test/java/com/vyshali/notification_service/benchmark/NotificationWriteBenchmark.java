@@ -0,0 +1,87 @@
+package com.vyshali.notification_service.benchmark;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.service.NotificationWriteBuffer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts/sec of one insert per notification against the write-behind buffer, with the same
+ * number of concurrent callers on both paths (as in an order-status storm, where every
+ * request thread writes its own notification).
+ */
+@SpringBootTest
+@ActiveProfiles("embedded-mongo")
+@Tag("benchmark")
+class NotificationWriteBenchmark {
+    
+    private static final int DOCUMENTS = 50_000;
+    private static final int WARMUP_DOCUMENTS = 5_000;
+    private static final int CALLERS = 64;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private NotificationWriteBuffer writeBuffer;
+    
+    @Test
+    void bufferedWritesOutperformPerDocumentInserts() throws Exception {
+        run(WARMUP_DOCUMENTS, mongoTemplate::insert);
+        run(WARMUP_DOCUMENTS, notification -> writeBuffer.write(notification).join());
+        mongoTemplate.dropCollection(Notification.class);
+        
+        long singleNanos = run(DOCUMENTS, mongoTemplate::insert);
+        long bufferedNanos = run(DOCUMENTS, notification -> writeBuffer.write(notification).join());
+        
+        assertThat(mongoTemplate.count(new Query(), Notification.class))
+                .isEqualTo(2L * DOCUMENTS);
+        
+        double singleRate = DOCUMENTS / (singleNanos / 1e9);
+        double bufferedRate = DOCUMENTS / (bufferedNanos / 1e9);
+        System.out.printf("per-document insert: %,d docs in %,d ms -> %,.0f inserts/sec%n", DOCUMENTS, singleNanos / 1_000_000, singleRate);
+        System.out.printf("write buffer:        %,d docs in %,d ms -> %,.0f inserts/sec (%.1fx)%n",
+                DOCUMENTS, bufferedNanos / 1_000_000, bufferedRate, bufferedRate / singleRate);
+    }
+    
+    private long run(int documents, Consumer<Notification> write) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CALLERS)) {
+            for (int c = 0; c < CALLERS; c++) {
+                callers.execute(() -> {
+                    for (int i = next.getAndIncrement(); i < documents; i = next.getAndIncrement()) {
+                        write.accept(notification(i));
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static Notification notification(int i) {
+        Notification notification = new Notification();
+        notification.setType(NotificationType.EMAIL);
+        notification.setRecipient("customer" + (i % 1000) + "@example.com");
+        notification.setSubject("Order #" + i + " is now SHIPPED");
+        notification.setMessage("Your order of 2 x Wireless Headphones is now SHIPPED.");
+        notification.setOrderId(String.valueOf(i));
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRetryCount(0);
+        return notification;
+    }
+}
@@ -0,0 +1,93 @@
+package com.vyshali.notification_service.config;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.vyshali.notification_service.domain.Notification;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The TTL index on {@code sentAt}: created with the configured expiry, and updated in place
+ * when the expiry changes
+ */
+class MongoIndexConfigTest {
+    
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final IndexOperations indexOps = mock(IndexOperations.class);
+    
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        when(mongoTemplate.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(Notification.class)).thenReturn(indexOps);
+        when(mongoTemplate.getCollectionName(Notification.class)).thenReturn("notifications");
+    }
+    
+    @Test
+    void createsTtlIndexOnSentNotifications() {
+        new MongoIndexConfig(mongoTemplate, Duration.ofDays(90)).ensureIndexes();
+        
+        verify(indexOps).createIndex(argThat(index -> isTtlIndex(index)
+                && index.getIndexOptions().getLong("expireAfterSeconds") == Duration.ofDays(90).toSeconds()
+                && index.getIndexOptions().get("partialFilterExpression", Document.class).getString("status").equals("SENT")));
+        verify(mongoTemplate, never()).executeCommand(any(Document.class));
+    }
+    
+    @Test
+    void changedExpiryIsAppliedWithCollMod() {
+        when(indexOps.createIndex(argThat(MongoIndexConfigTest::isTtlIndex))).thenThrow(commandFailure(INDEX_OPTIONS_CONFLICT));
+        
+        new MongoIndexConfig(mongoTemplate, Duration.ofDays(30)).ensureIndexes();
+        
+        verify(mongoTemplate).executeCommand(new Document("collMod", "notifications")
+                .append("index", new Document("name", MongoIndexConfig.SENT_TTL_INDEX)
+                        .append("expireAfterSeconds", Duration.ofDays(30).toSeconds())));
+    }
+    
+    @Test
+    void otherIndexErrorsAreNotSwallowed() {
+        // Unauthorized
+        when(indexOps.createIndex(argThat(MongoIndexConfigTest::isTtlIndex))).thenThrow(commandFailure(13));
+        MongoIndexConfig config = new MongoIndexConfig(mongoTemplate, Duration.ofDays(30));
+        
+        assertThatThrownBy(config::ensureIndexes).isInstanceOf(UncategorizedMongoDbException.class);
+        verify(mongoTemplate, never()).executeCommand(any(Document.class));
+    }
+    
+    private static boolean isTtlIndex(IndexDefinition index) {
+        return index != null && MongoIndexConfig.SENT_TTL_INDEX.equals(index.getIndexOptions().getString("name"));
+    }
+    
+    private static UncategorizedMongoDbException commandFailure(int code) {
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(code))
+                .append("errmsg", new BsonString("index command failed"));
+        return new UncategorizedMongoDbException("index command failed", new MongoCommandException(response, new ServerAddress()));
+    }
+}
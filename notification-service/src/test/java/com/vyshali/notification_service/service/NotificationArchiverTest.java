@@ -0,0 +1,182 @@
+package com.vyshali.notification_service.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.vyshali.notification_service.domain.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Partitioning, copy-then-delete and run limits of the archiver, with Mongo mocked
+ */
+class NotificationArchiverTest {
+    
+    private static final String LIVE = "notifications";
+    
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoDatabase database = mock(MongoDatabase.class);
+    private final Map<String, BulkOperations> partitions = new HashMap<>();
+    
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(Notification.class)).thenReturn(LIVE);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), anyString())).thenAnswer(invocation -> {
+            BulkOperations bulk = mock(BulkOperations.class);
+            when(bulk.insert(anyList())).thenReturn(bulk);
+            partitions.put(invocation.getArgument(1), bulk);
+            return bulk;
+        });
+    }
+    
+    @Test
+    void copiesEachNotificationIntoItsCreationMonthThenDeletesWhatIsStillFinished() {
+        Document january = finished(LocalDateTime.of(2026, 1, 31, 23, 0));
+        Document february = finished(LocalDateTime.of(2026, 2, 1, 1, 0));
+        Document alsoJanuary = finished(LocalDateTime.of(2026, 1, 2, 12, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(LIVE))).thenReturn(List.of(january, february, alsoJanuary));
+        when(mongoTemplate.collectionExists("notifications_archive_202601")).thenReturn(true);
+        // One of the three was re-queued between the read and the delete
+        when(mongoTemplate.remove(any(Query.class), eq(LIVE))).thenReturn(DeleteResult.acknowledged(2));
+        
+        long moved = archiver(1000, Duration.ofMinutes(1)).archive();
+        
+        assertThat(moved).isEqualTo(2);
+        assertThat(partitions).containsOnlyKeys("notifications_archive_202601", "notifications_archive_202602");
+        verify(partitions.get("notifications_archive_202601")).insert(List.of(january, alsoJanuary));
+        verify(partitions.get("notifications_archive_202602")).insert(List.of(february));
+        // Only the missing partition is created, with zstd compression
+        ArgumentCaptor<CreateCollectionOptions> options = ArgumentCaptor.forClass(CreateCollectionOptions.class);
+        verify(database).createCollection(eq("notifications_archive_202602"), options.capture());
+        verify(database, never()).createCollection(eq("notifications_archive_202601"), any(CreateCollectionOptions.class));
+        assertThat(options.getValue().getStorageEngineOptions().toString()).contains("block_compressor=zstd");
+        
+        ArgumentCaptor<Query> delete = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(delete.capture(), eq(LIVE));
+        Document criteria = delete.getValue().getQueryObject();
+        assertThat(criteria.get("_id", Document.class).getList("$in", Object.class))
+                .containsExactly(january.get("_id"), february.get("_id"), alsoJanuary.get("_id"));
+        assertThat(criteria.get("status", Document.class).getList("$in", String.class)).containsExactlyInAnyOrder("SENT", "FAILED");
+        // A short batch means nothing is left, so there is no second read
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq(LIVE));
+    }
+    
+    @Test
+    void readsOnlyFinishedNotificationsOlderThanTheCutoffInBatches() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(LIVE))).thenReturn(List.of());
+        
+        archiver(250, Duration.ofMinutes(1)).archive();
+        
+        ArgumentCaptor<Query> read = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(read.capture(), eq(Document.class), eq(LIVE));
+        assertThat(read.getValue().getLimit()).isEqualTo(250);
+        Document criteria = read.getValue().getQueryObject();
+        assertThat(criteria.get("status", Document.class).getList("$in", String.class)).containsExactlyInAnyOrder("SENT", "FAILED");
+        Date cutoff = criteria.get("createdAt", Document.class).getDate("$lt");
+        Date expected = Date.from(LocalDateTime.now().minusDays(30).atZone(ZoneId.systemDefault()).toInstant());
+        assertThat(cutoff).isCloseTo(expected, 5_000);
+        verify(mongoTemplate, never()).remove(any(Query.class), anyString());
+    }
+    
+    @Test
+    void copiesLeftByAnInterruptedRunAreIgnored() {
+        Document document = finished(LocalDateTime.of(2026, 3, 10, 8, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(LIVE))).thenReturn(List.of(document));
+        when(mongoTemplate.collectionExists(anyString())).thenReturn(true);
+        when(mongoTemplate.remove(any(Query.class), eq(LIVE))).thenReturn(DeleteResult.acknowledged(1));
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), anyString())).thenAnswer(invocation -> {
+            BulkOperations bulk = mock(BulkOperations.class);
+            when(bulk.insert(anyList())).thenReturn(bulk);
+            when(bulk.execute()).thenThrow(bulkFailure(11000));
+            return bulk;
+        });
+        
+        assertThat(archiver(1000, Duration.ofMinutes(1)).archive()).isEqualTo(1);
+    }
+    
+    @Test
+    void otherCopyErrorsLeaveTheLiveCollectionUntouched() {
+        Document document = finished(LocalDateTime.of(2026, 3, 10, 8, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(LIVE))).thenReturn(List.of(document));
+        when(mongoTemplate.collectionExists(anyString())).thenReturn(true);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), anyString())).thenAnswer(invocation -> {
+            BulkOperations bulk = mock(BulkOperations.class);
+            when(bulk.insert(anyList())).thenReturn(bulk);
+            // Document too large
+            when(bulk.execute()).thenThrow(bulkFailure(10334));
+            return bulk;
+        });
+        
+        assertThatThrownBy(() -> archiver(1000, Duration.ofMinutes(1)).archive()).isInstanceOf(BulkOperationException.class);
+        verify(mongoTemplate, never()).remove(any(Query.class), anyString());
+    }
+    
+    @Test
+    void stopsWhenTheRunTimeIsUsedUp() {
+        // A backlog that never runs dry: every read returns a full batch
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(LIVE)))
+                .thenAnswer(invocation -> List.of(finished(LocalDateTime.of(2026, 4, 1, 0, 0)), finished(LocalDateTime.of(2026, 4, 2, 0, 0))));
+        when(mongoTemplate.collectionExists(anyString())).thenReturn(true);
+        when(mongoTemplate.remove(any(Query.class), eq(LIVE))).thenReturn(DeleteResult.acknowledged(2));
+        
+        long start = System.nanoTime();
+        long moved = archiver(2, Duration.ofMillis(300)).archive();
+        
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(moved).isPositive().isEven();
+        verify(mongoTemplate, atLeast(2)).find(any(Query.class), eq(Document.class), eq(LIVE));
+    }
+    
+    private NotificationArchiver archiver(int batchSize, Duration maxRunTime) {
+        return new NotificationArchiver(mongoTemplate, new SimpleMeterRegistry(), true, Duration.ofDays(30),
+                batchSize, Duration.ofMillis(20), maxRunTime, Duration.ofDays(180));
+    }
+    
+    private static Document finished(LocalDateTime createdAt) {
+        return new Document("_id", new ObjectId())
+                .append("status", "SENT")
+                .append("createdAt", Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+    
+    private static BulkOperationException bulkFailure(int code) {
+        BulkWriteError error = new BulkWriteError(code, "write error", new BsonDocument(), 0);
+        return new BulkOperationException("write error", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+}
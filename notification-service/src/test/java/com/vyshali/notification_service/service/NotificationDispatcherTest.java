@@ -0,0 +1,168 @@
+package com.vyshali.notification_service.service;
+
+import com.vyshali.notification_service.domain.Notification;
+import com.vyshali.notification_service.domain.NotificationStatus;
+import com.vyshali.notification_service.domain.NotificationType;
+import com.vyshali.notification_service.repository.NotificationRepository;
+import com.vyshali.notification_service.sender.NotificationSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivery, retry and backoff rules of the dispatcher, with Mongo mocked out and a
+ * stub sender standing in for SMTP
+ */
+class NotificationDispatcherTest {
+    
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final NotificationWriteBuffer writeBuffer = mock(NotificationWriteBuffer.class);
+    private final NotificationRepository repository = mock(NotificationRepository.class);
+    private final StubEmailSender emailSender = new StubEmailSender();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        when(writeBuffer.writeAll(anyList())).thenAnswer(invocation -> invocation.<List<Notification>>getArgument(0).stream()
+                .map(CompletableFuture::completedFuture)
+                .toList());
+        when(repository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        dispatcher = new NotificationDispatcher(mongoTemplate, writeBuffer, repository, List.of(emailSender), meterRegistry,
+                3, 5, 10, Duration.ofMinutes(5), 100);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void enqueueReturnsBeforeSlowDeliveryFinishes() throws Exception {
+        emailSender.delay = Duration.ofMillis(500);
+        
+        long start = System.nanoTime();
+        Notification queued = dispatcher.enqueue(email());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertThat(elapsedMillis).isLessThan(100);
+        assertThat(queued.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(queued.getLeaseUntil()).isAfter(LocalDateTime.now());
+        
+        assertThat(emailSender.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitStatus(queued, NotificationStatus.SENT);
+        assertThat(queued.getSentAt()).isNotNull();
+        assertThat(queued.getLeaseUntil()).isNull();
+    }
+    
+    @Test
+    void failedAttemptIsRetriedWithExponentialBackoff() {
+        emailSender.failuresLeft.set(1);
+        Notification notification = email();
+        notification.setRetryCount(0);
+        
+        dispatcher.deliver(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.RETRY);
+        assertThat(notification.getRetryCount()).isEqualTo(1);
+        assertThat(notification.getLastError()).isEqualTo("SMTP unavailable");
+        assertThat(notification.getNextAttemptAt()).isBetween(LocalDateTime.now().plusSeconds(4), LocalDateTime.now().plusSeconds(6));
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(20));
+        
+        dispatcher.deliver(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.SENT);
+        assertThat(meterRegistry.counter("notifications.delivery", "type", "EMAIL", "outcome", "retry").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notifications.delivery", "type", "EMAIL", "outcome", "sent").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void notificationFailsAfterMaxAttempts() {
+        emailSender.failuresLeft.set(Integer.MAX_VALUE);
+        Notification notification = email();
+        notification.setRetryCount(0);
+        
+        for (int attempt = 0; attempt < 3; attempt++) {
+            dispatcher.deliver(notification);
+        }
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notification.getRetryCount()).isEqualTo(3);
+        assertThat(notification.getNextAttemptAt()).isNull();
+        assertThat(emailSender.attempts.get()).isEqualTo(3);
+    }
+    
+    @Test
+    void typeWithoutSenderFailsTheAttempt() {
+        Notification notification = email();
+        notification.setType(NotificationType.SMS);
+        notification.setRetryCount(0);
+        
+        dispatcher.deliver(notification);
+        
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.RETRY);
+        assertThat(notification.getLastError()).contains("No sender registered for SMS");
+    }
+    
+    private static Notification email() {
+        Notification notification = new Notification();
+        notification.setId("n-1");
+        notification.setType(NotificationType.EMAIL);
+        notification.setRecipient("customer@example.com");
+        notification.setSubject("Order #1 received");
+        notification.setMessage("Thank you for your order.");
+        return notification;
+    }
+    
+    private static void awaitStatus(Notification notification, NotificationStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (notification.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(notification.getStatus()).isEqualTo(status);
+    }
+    
+    /**
+     * Records attempts and fails the first {@code failuresLeft} of them
+     */
+    private static final class StubEmailSender implements NotificationSender {
+        
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final CountDownLatch sent = new CountDownLatch(1);
+        volatile Duration delay = Duration.ZERO;
+        
+        @Override
+        public NotificationType type() {
+            return NotificationType.EMAIL;
+        }
+        
+        @Override
+        public void send(Notification notification) throws Exception {
+            attempts.incrementAndGet();
+            Thread.sleep(delay);
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("SMTP unavailable");
+            }
+            sent.countDown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.vyshali.notification_service.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.vyshali.notification_service.domain.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batching and per-document completion of the write buffer, with Mongo bulk writes mocked
+ */
+class NotificationWriteBufferTest {
+    
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private NotificationWriteBuffer writeBuffer;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBuffer.shutdown();
+    }
+    
+    @Test
+    void concurrentWritesAreGroupedIntoBulkInserts() {
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Notification.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<List<?>>getArgument(0).size());
+            return bulkOperations;
+        });
+        writeBuffer = new NotificationWriteBuffer(mongoTemplate, new SimpleMeterRegistry(), 100, Duration.ofMillis(50), 1000);
+        
+        List<CompletableFuture<Notification>> writes = writeBuffer.writeAll(IntStream.range(0, 250).mapToObj(i -> new Notification()).toList());
+        
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+        assertThat(writes).allSatisfy(write -> assertThat(write.join().getId()).isNotNull());
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(250);
+        assertThat(batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(100));
+        assertThat(batchSizes.size()).isLessThanOrEqualTo(5);
+    }
+    
+    @Test
+    void onlyDocumentsWithWriteErrorsFail() {
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Notification.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("duplicate key", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()), List.of(duplicate), null, new ServerAddress(), Set.of())));
+        // Long delay: the three writes below always land in one batch
+        writeBuffer = new NotificationWriteBuffer(mongoTemplate, new SimpleMeterRegistry(), 3, Duration.ofSeconds(5), 10);
+        
+        List<CompletableFuture<Notification>> writes = writeBuffer.writeAll(List.of(new Notification(), new Notification(), new Notification()));
+        
+        assertThat(writes.get(0).join()).isNotNull();
+        assertThatThrownBy(() -> writes.get(1).join()).isInstanceOf(CompletionException.class).hasCauseInstanceOf(BulkOperationException.class);
+        assertThat(writes.get(2).join()).isNotNull();
+    }
+    
+    @Test
+    void failedFlushFailsEveryWriteInTheBatch() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Notification.class))).thenThrow(new IllegalStateException("connection refused"));
+        writeBuffer = new NotificationWriteBuffer(mongoTemplate, new SimpleMeterRegistry(), 10, Duration.ofMillis(1), 10);
+        
+        CompletableFuture<Notification> write = writeBuffer.write(new Notification());
+        
+        assertThatThrownBy(write::join).hasRootCauseMessage("connection refused");
+    }
+    
+    @Test
+    void writesRacingShutdownStillComplete() throws InterruptedException {
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Notification.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        writeBuffer = new NotificationWriteBuffer(mongoTemplate, new SimpleMeterRegistry(), 50, Duration.ofMillis(1), 100);
+        ConcurrentLinkedQueue<CompletableFuture<Notification>> writes = new ConcurrentLinkedQueue<>();
+        List<Thread> writers = IntStream.range(0, 4).mapToObj(i -> Thread.ofPlatform().start(() -> {
+            CompletableFuture<Notification> write;
+            do {
+                write = writeBuffer.write(new Notification());
+                writes.add(write);
+            } while (!write.isCompletedExceptionally());
+        })).toList();
+        
+        Thread.sleep(50);
+        writeBuffer.shutdown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        
+        // Each write was either flushed or failed; none is left waiting on the stopped flusher
+        CompletableFuture<Void> all = CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+        assertThat(all).failsWithin(5, TimeUnit.SECONDS);
+    }
+}
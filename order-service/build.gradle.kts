@@ -42,9 +42,16 @@ dependencies {
 	implementation("org.springframework.cloud:spring-cloud-starter-config")
 	implementation("org.springframework.cloud:spring-cloud-starter-bootstrap")
 
+	// Near-cache for product lookups
+	implementation("com.github.ben-manes.caffeine:caffeine")
+
 	// Database
 	runtimeOnly("org.postgresql:postgresql")
 
+	// Non-blocking read path (/api/v1/reactive/orders); writes stay on JPA
+	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
+	runtimeOnly("org.postgresql:r2dbc-postgresql")
+
 	// API Documentation
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.3.0")
 
@@ -58,6 +65,7 @@ dependencies {
 	// Testing
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("com.h2database:h2")
+	testRuntimeOnly("io.r2dbc:r2dbc-h2")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
@@ -67,8 +75,75 @@ dependencyManagement {
 	}
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Throughput comparisons tagged @Tag("benchmark"); run with ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmark-tagged tests against an in-memory H2 database"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	// e.g. ./gradlew benchmark -Dloadtest.concurrency=100,1000
+	System.getProperty("loadtest.concurrency")?.let { systemProperty("loadtest.concurrency", it) }
+	testLogging {
+		showStandardStreams = true
+	}
+}
+
+// JMH microbenchmarks in src/jmh/java; run with ./gradlew jmh (works with --offline once
+// dependencies are cached). Results, including the gc profiler's allocation rate
+// (gc.alloc.rate.norm, bytes per operation), go to build/reports/jmh/results.json.
+// Narrow the run with -Pjmh.include=<regex>, e.g. -Pjmh.include=OrderMapping
+val jmh: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations {
+	named(jmh.implementationConfigurationName) { extendsFrom(configurations.implementation.get()) }
+	named(jmh.runtimeOnlyConfigurationName) { extendsFrom(configurations.runtimeOnly.get()) }
+	named(jmh.compileOnlyConfigurationName) { extendsFrom(configurations.compileOnly.get()) }
+	named(jmh.annotationProcessorConfigurationName) { extendsFrom(configurations.annotationProcessor.get()) }
+}
+
+dependencies {
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+	description = "Runs the JMH microbenchmarks with the gc profiler"
+	group = "verification"
+	classpath = jmh.runtimeClasspath
+	mainClass.set("org.openjdk.jmh.Main")
+	val results = layout.buildDirectory.file("reports/jmh/results.json")
+	outputs.file(results)
+	outputs.upToDateWhen { false }
+	doFirst { results.get().asFile.parentFile.mkdirs() }
+	args(listOfNotNull(
+		providers.gradleProperty("jmh.include").orNull,
+		"-prof", "gc",
+		"-rf", "json",
+		"-rff", results.get().asFile.absolutePath
+	))
+}
+
+// Runs the service against in-memory H2 with Eureka and Config Server off, as the load-test
+// module does; pass Spring arguments with -PstandIn.args="--server.port=... ..."
+tasks.register<JavaExec>("standIn") {
+	description = "Runs the service against in-memory H2 instead of its real dependencies"
+	group = "application"
+	classpath = sourceSets.test.get().runtimeClasspath
+	mainClass.set("com.vyshali.order_service.OrderServiceApplication")
+	args("--spring.profiles.active=h2")
+	providers.gradleProperty("standIn.args").orNull?.let { extra -> args(extra.split(" ").filter { it.isNotBlank() }) }
 }
 
 tasks.bootJar {
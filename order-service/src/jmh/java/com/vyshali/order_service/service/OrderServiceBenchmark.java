@@ -0,0 +1,103 @@
+package com.vyshali.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the order endpoints that does not touch the database: mapping an
+ * order to its response, checking a status transition and serializing a page of responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @Param({"50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private List<OrderResponse> page;
+    private int transition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Configured as spring.jackson configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        order = order(1L);
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            page.add(OrderResponse.from(order(id)));
+        }
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return OrderResponse.from(order);
+    }
+
+    /**
+     * Every pair of statuses in turn, so allowed and rejected transitions are both measured
+     */
+    @Benchmark
+    public boolean canTransition() {
+        int next = transition++;
+        return OrderStateMachine.canTransition(
+                STATUSES[next % STATUSES.length], STATUSES[(next / STATUSES.length) % STATUSES.length]);
+    }
+
+    @Benchmark
+    public void checkAllowedTransition() {
+        OrderStateMachine.checkTransition(OrderStatus.CONFIRMED, OrderStatus.SHIPPED);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static Order order(long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId("CUST" + (id % 1000));
+        order.setProductId(id % 100);
+        order.setProductName("Product " + (id % 100));
+        order.setQuantity((int) (id % 10) + 1);
+        order.setUnitPrice(new BigDecimal("999.99"));
+        order.setTotalAmount(order.getUnitPrice().multiply(BigDecimal.valueOf(order.getQuantity())));
+        order.setStatus(STATUSES[(int) (id % STATUSES.length)]);
+        order.setOrderDate(LocalDateTime.of(2025, 10, 26, 10, 30).plusMinutes(id));
+        order.setUpdatedAt(order.getOrderDate());
+        order.setVersion(0L);
+        return order;
+    }
+}
@@ -0,0 +1,77 @@
+package com.vyshali.order_service.bootstrap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Brings the configuration snapshot the service booted from up to date with config-server,
+ * every {@code bootstrap-snapshot.poll-interval} starting right after startup. The request
+ * carries the snapshot's ETag, so an unchanged environment costs a 304. When the environment
+ * did change, the new snapshot is saved and the context refreshed, which rebinds
+ * {@code @ConfigurationProperties} and {@code @RefreshScope} beans; plain {@code @Value}
+ * fields keep their values until the next restart. While config-server is unreachable the
+ * service keeps running on the snapshot.
+ * <p>
+ * Also in product-service and notification-service; see {@link ConfigSnapshot}.
+ */
+@Component
+@Slf4j
+public class ConfigSnapshotReconciler {
+
+    private final Environment environment;
+    private final ObjectProvider<ContextRefresher> contextRefresher;
+    private final boolean enabled;
+
+    public ConfigSnapshotReconciler(Environment environment,
+                                    ObjectProvider<ContextRefresher> contextRefresher,
+                                    @Value("${bootstrap-snapshot.enabled:true}") boolean enabled) {
+        this.environment = environment;
+        this.contextRefresher = contextRefresher;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${bootstrap-snapshot.poll-interval:PT30S}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        ConfigSnapshot snapshot = ConfigSnapshot.of(environment);
+        Optional<ConfigSnapshot.Fetched> saved = snapshot.read();
+        ConfigSnapshot.Fetched fetched;
+        try {
+            fetched = snapshot.fetch(saved.map(ConfigSnapshot.Fetched::etag).orElse(null));
+        } catch (IOException ex) {
+            log.debug("Config-server unreachable, keeping configuration snapshot: {}", ex.toString());
+            return;
+        }
+        if (fetched == null) {
+            return;
+        }
+        // Compared by content too, since a config-server without ETags answers 200 every time
+        boolean changed = saved.isEmpty() || !saved.get().environment().equals(fetched.environment());
+        if (!changed && Objects.equals(saved.get().etag(), fetched.etag())) {
+            return;
+        }
+        try {
+            snapshot.write(fetched);
+        } catch (IOException ex) {
+            log.warn("Could not save configuration snapshot {}", snapshot.file(), ex);
+            return;
+        }
+        if (changed) {
+            ContextRefresher refresher = contextRefresher.getIfAvailable();
+            Set<String> keys = refresher != null ? refresher.refresh() : Set.of();
+            log.info("Configuration changed on config-server; refreshed {}", keys);
+        }
+    }
+}
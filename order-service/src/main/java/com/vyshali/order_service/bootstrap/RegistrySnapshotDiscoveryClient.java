@@ -0,0 +1,161 @@
+package com.vyshali.order_service.bootstrap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.EurekaDiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers service lookups from the last Eureka registry this service saw, until its own Eureka
+ * client has fetched the registry (see {@link BackgroundEurekaRegistration}). Ordered ahead of
+ * the Eureka and simple discovery clients; once Eureka is live it returns nothing, so lookups
+ * fall through to them. Every registry refresh after that is saved to
+ * {@code <bootstrap-snapshot.dir>/<application>-registry.json} for the next start.
+ * <p>
+ * Instances in the snapshot may have gone away; the load balancer ejects those that fail
+ * (see {@code LatencyAwareLoadBalancer}) until the live registry replaces them.
+ */
+@Component
+@Slf4j
+public class RegistrySnapshotDiscoveryClient implements DiscoveryClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, List<Instance>>> SNAPSHOT = new TypeReference<>() {
+    };
+
+    private final ObjectProvider<EurekaDiscoveryClient> eureka;
+    private final boolean enabled;
+    private final Path file;
+
+    private volatile Map<String, List<ServiceInstance>> snapshot = Map.of();
+    private volatile Map<String, List<Instance>> lastWritten = Map.of();
+    private volatile boolean live;
+
+    /**
+     * One saved instance; {@code ServiceInstance} implementations do not round-trip through JSON
+     */
+    record Instance(String instanceId, String host, int port, boolean secure, Map<String, String> metadata) {
+    }
+
+    public RegistrySnapshotDiscoveryClient(ObjectProvider<EurekaDiscoveryClient> eureka,
+                                           @Value("${bootstrap-snapshot.enabled:true}") boolean enabled,
+                                           @Value("${bootstrap-snapshot.dir:.snapshots}") String dir,
+                                           @Value("${spring.application.name}") String applicationName) {
+        this.eureka = eureka;
+        this.enabled = enabled;
+        this.file = Path.of(dir, applicationName + "-registry.json");
+        if (enabled) {
+            load();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Registry snapshot";
+    }
+
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return live ? List.of() : snapshot.getOrDefault(serviceId.toLowerCase(), List.of());
+    }
+
+    @Override
+    public List<String> getServices() {
+        return live ? List.of() : List.copyOf(snapshot.keySet());
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Save the registry after each fetch by the Eureka client, and stop serving the snapshot
+     * once that registry has anything in it
+     */
+    @EventListener({HeartbeatEvent.class, InstanceRegisteredEvent.class})
+    public void onRegistryFetched() {
+        EurekaDiscoveryClient client = eureka.getIfAvailable();
+        if (!enabled || client == null) {
+            return;
+        }
+        Map<String, List<Instance>> registry = new TreeMap<>();
+        for (String service : client.getServices()) {
+            List<Instance> instances = client.getInstances(service).stream()
+                    .map(instance -> new Instance(instance.getInstanceId(), instance.getHost(), instance.getPort(),
+                            instance.isSecure(), instance.getMetadata()))
+                    .toList();
+            if (!instances.isEmpty()) {
+                registry.put(service.toLowerCase(), instances);
+            }
+        }
+        if (registry.isEmpty()) {
+            return;
+        }
+        if (!live) {
+            live = true;
+            snapshot = Map.of();
+            log.info("Eureka registry fetched; no longer using the registry snapshot");
+        }
+        if (!registry.equals(lastWritten)) {
+            write(registry);
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Map<String, List<Instance>> saved = MAPPER.readValue(file.toFile(), SNAPSHOT);
+            Map<String, List<ServiceInstance>> instances = new TreeMap<>();
+            saved.forEach((service, list) -> instances.put(service, list.stream()
+                    .map(instance -> (ServiceInstance) new DefaultServiceInstance(instance.instanceId(), service,
+                            instance.host(), instance.port(), instance.secure(), instance.metadata()))
+                    .toList()));
+            snapshot = instances;
+            lastWritten = saved;
+            log.info("Using registry snapshot {} until Eureka is reachable", file);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable registry snapshot {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private void write(Map<String, List<Instance>> registry) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                MAPPER.writeValue(temp.toFile(), registry);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            lastWritten = registry;
+        } catch (IOException ex) {
+            log.warn("Could not save registry snapshot {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vyshali.order_service.bootstrap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.bootstrap.config.PropertySourceLocator;
+import org.springframework.core.env.CompositePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Supplies the remote configuration at startup (and on every refresh) from the local
+ * {@link ConfigSnapshot}, so the service boots without waiting for config-server. Only when
+ * there is no snapshot yet is config-server asked directly; {@link ConfigSnapshotReconciler}
+ * keeps the snapshot up to date afterwards.
+ * <p>
+ * Also in product-service and notification-service; see {@link ConfigSnapshot}.
+ */
+@Slf4j
+public class SnapshotPropertySourceLocator implements PropertySourceLocator {
+
+    @Override
+    public PropertySource<?> locate(Environment environment) {
+        if (!environment.getProperty("bootstrap-snapshot.enabled", Boolean.class, true)) {
+            return null;
+        }
+        ConfigSnapshot snapshot = ConfigSnapshot.of(environment);
+        Optional<ConfigSnapshot.Fetched> saved = snapshot.read();
+        if (saved.isPresent()) {
+            log.info("Using configuration from snapshot {}", snapshot.file());
+            return withVersion(ConfigSnapshot.toPropertySource(saved.get().environment()), saved.get());
+        }
+
+        ConfigSnapshot.Fetched fetched;
+        try {
+            fetched = snapshot.fetch(null);
+        } catch (IOException ex) {
+            if (environment.getProperty("spring.cloud.config.fail-fast", Boolean.class, false)) {
+                throw new IllegalStateException("No configuration snapshot and config-server is unreachable", ex);
+            }
+            log.warn("No configuration snapshot and config-server is unreachable: {}", ex.toString());
+            return null;
+        }
+        try {
+            snapshot.write(fetched);
+        } catch (IOException ex) {
+            log.warn("Could not save configuration snapshot {}", snapshot.file(), ex);
+        }
+        return withVersion(ConfigSnapshot.toPropertySource(fetched.environment()), fetched);
+    }
+
+    private static CompositePropertySource withVersion(CompositePropertySource composite, ConfigSnapshot.Fetched fetched) {
+        String version = fetched.environment().path("version").asText(null);
+        if (version != null) {
+            composite.addFirstPropertySource(new MapPropertySource("configClient", Map.of("config.client.version", version)));
+        }
+        return composite;
+    }
+}
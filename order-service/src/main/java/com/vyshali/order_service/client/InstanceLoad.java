@@ -0,0 +1,108 @@
+package com.vyshali.order_service.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * What one client knows about one service instance: requests in flight, a peak-sensitive
+ * moving average of response time, consecutive failures and, if it was ejected, until when.
+ * Every field is updated with atomics only, so picking an instance never blocks.
+ */
+final class InstanceLoad {
+
+    /** Cost of an instance with requests in flight but no response yet, per request */
+    static final double UNKNOWN_LATENCY_NANOS = 1e9;
+
+    private final long decayNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong ejectedUntil;
+    private final AtomicReference<Ewma> latency;
+
+    /** The latency average as of {@code stamp}; replaced as a whole so readers see a consistent pair */
+    private record Ewma(double nanos, long stamp) {
+    }
+
+    InstanceLoad(long decayNanos, long now) {
+        this.decayNanos = decayNanos;
+        this.latency = new AtomicReference<>(new Ewma(0, now));
+        this.ejectedUntil = new AtomicLong(now);
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Record a finished request. A response slower than the average replaces it outright, so
+     * one slow replica is noticed at once; faster ones pull it down exponentially, weighted by
+     * the time since the last sample.
+     *
+     * @return the number of consecutive failures, including this one
+     */
+    int completed(long rttNanos, boolean failed, long now) {
+        outstanding.decrementAndGet();
+        if (rttNanos >= 0) {
+            Ewma current;
+            Ewma next;
+            do {
+                current = latency.get();
+                double nanos = rttNanos > current.nanos() ? rttNanos : decayed(current, now, rttNanos);
+                next = new Ewma(nanos, Math.max(now, current.stamp()));
+            } while (!latency.compareAndSet(current, next));
+        }
+        if (!failed) {
+            consecutiveFailures.set(0);
+            return 0;
+        }
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * The latency average decayed towards zero for the time without samples, so an instance
+     * that was slow once is tried again after a while rather than starved forever
+     */
+    double latencyNanos(long now) {
+        return decayed(latency.get(), now, 0);
+    }
+
+    /**
+     * Peak-EWMA cost: expected latency times the queue a new request would join
+     */
+    double cost(long now) {
+        double nanos = latencyNanos(now);
+        int inFlight = outstanding.get();
+        if (nanos == 0 && inFlight > 0) {
+            nanos = UNKNOWN_LATENCY_NANOS;
+        }
+        return nanos * (inFlight + 1);
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntil.get() < 0;
+    }
+
+    /**
+     * Take the instance out of rotation until {@code until}; false if it already was.
+     * The failure count starts over so the instance comes back on probation.
+     */
+    boolean eject(long now, long until) {
+        long current = ejectedUntil.get();
+        if (now - current < 0 || !ejectedUntil.compareAndSet(current, until)) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        return true;
+    }
+
+    private double decayed(Ewma ewma, long now, double sample) {
+        long elapsed = Math.max(0, now - ewma.stamp());
+        double weight = Math.exp(-(double) elapsed / decayNanos);
+        return ewma.nanos() * weight + sample * (1 - weight);
+    }
+}
@@ -0,0 +1,253 @@
+package com.vyshali.order_service.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the instance of a service for each call by how it has been answering, not in turn.
+ * <ul>
+ *     <li>Two instances are drawn at random and the cheaper one wins ("power of two choices"),
+ *     which avoids herding every client onto the same instance. The cost is the requests in
+ *     flight, weighted by a peak-sensitive moving average of response time
+ *     ({@link Strategy#PEAK_EWMA}), or the requests in flight alone
+ *     ({@link Strategy#LEAST_OUTSTANDING}).</li>
+ *     <li>An instance that fails several times in a row, or whose average is several times
+ *     the fastest instance's, is ejected for a while; at most a set share of the instances
+ *     is ejected at once.</li>
+ * </ul>
+ * Requests in flight and response times are recorded through the {@link LoadBalancerLifecycle}
+ * callbacks of the load-balanced RestClient. Selection only reads and CASes atomics.
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * How instances are compared
+     */
+    public enum Strategy {
+        /** Requests in flight times the peak-EWMA response time */
+        PEAK_EWMA,
+        /** Requests in flight only */
+        LEAST_OUTSTANDING,
+        /** Spring Cloud's round robin, without latency tracking or ejection */
+        ROUND_ROBIN;
+
+        /**
+         * Parse {@code peak-ewma}, {@code least-outstanding} or {@code round-robin}
+         */
+        public static Strategy of(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Tuning, bound from {@code business.load-balancer.*}
+     *
+     * @param strategy        how instances are compared
+     * @param decay           how quickly old response times stop counting
+     * @param failures        consecutive failures that eject an instance
+     * @param latencyFactor   an instance this many times slower than the fastest is ejected
+     * @param minLatency      no instance is ejected for an average below this
+     * @param ejection        how long an ejected instance is left out
+     * @param maxEjectedRatio share of the instances that may be ejected at once
+     */
+    public record Settings(Strategy strategy, Duration decay, int failures, double latencyFactor,
+                           Duration minLatency, Duration ejection, double maxEjectedRatio) {
+    }
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final Settings settings;
+    private final long decayNanos;
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, Settings settings) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.settings = settings;
+        this.decayNanos = Math.max(1, settings.decay().toNanos());
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (loads.size() > 2 * instances.size() + 8) {
+            forgetDeparted(instances);
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> candidates = available(instances, now);
+        int size = candidates.size();
+        if (size == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        double costA = cost(load(a, now), now);
+        double costB = cost(load(b, now), now);
+        return new DefaultResponse(costA <= costB ? a : b);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            load(lbResponse.getServer(), System.nanoTime()).started();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long rtt = -1;
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() != 0) {
+            rtt = now - timed.getRequestStartTime();
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData data
+                && data.getHttpStatus() != null && data.getHttpStatus().is5xxServerError();
+
+        ServiceInstance instance = lbResponse.getServer();
+        String key = keyOf(instance);
+        InstanceLoad load = load(key, now);
+        int failures = load.completed(rtt, failed, now);
+        if (failures >= settings.failures()) {
+            eject(key, load, now, failures + " consecutive failures");
+        } else if (!failed && rtt >= 0) {
+            ejectIfSlow(key, load, now);
+        }
+    }
+
+    private double cost(InstanceLoad load, long now) {
+        return settings.strategy() == Strategy.LEAST_OUTSTANDING ? load.outstanding() : load.cost(now);
+    }
+
+    /**
+     * The instances not currently ejected, or all of them if none is left
+     */
+    private List<ServiceInstance> available(List<ServiceInstance> instances, long now) {
+        List<ServiceInstance> available = null;
+        for (int i = 0; i < instances.size(); i++) {
+            InstanceLoad load = loads.get(keyOf(instances.get(i)));
+            boolean ejected = load != null && load.isEjected(now);
+            if (ejected && available == null) {
+                available = new ArrayList<>(instances.subList(0, i));
+            } else if (!ejected && available != null) {
+                available.add(instances.get(i));
+            }
+        }
+        return available == null || available.isEmpty() ? instances : available;
+    }
+
+    private void ejectIfSlow(String key, InstanceLoad load, long now) {
+        double latency = load.latencyNanos(now);
+        if (latency < settings.minLatency().toNanos()) {
+            return;
+        }
+        double fastest = Double.MAX_VALUE;
+        for (InstanceLoad other : loads.values()) {
+            double otherLatency = other.latencyNanos(now);
+            if (other != load && otherLatency > 0 && !other.isEjected(now)) {
+                fastest = Math.min(fastest, otherLatency);
+            }
+        }
+        if (fastest != Double.MAX_VALUE && latency > settings.latencyFactor() * fastest) {
+            eject(key, load, now, String.format(Locale.ROOT, "average response time %.1f ms, fastest instance %.1f ms",
+                    latency / 1e6, fastest / 1e6));
+        }
+    }
+
+    private void eject(String key, InstanceLoad load, long now, String reason) {
+        int ejected = 0;
+        for (InstanceLoad other : loads.values()) {
+            if (other.isEjected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected + 1 > settings.maxEjectedRatio() * loads.size()) {
+            return;
+        }
+        if (load.eject(now, now + settings.ejection().toNanos())) {
+            log.warn("Ejecting {} instance {} for {}: {}", serviceId, key, settings.ejection(), reason);
+        }
+    }
+
+    private void forgetDeparted(List<ServiceInstance> instances) {
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            current.add(keyOf(instance));
+        }
+        loads.keySet().retainAll(current);
+    }
+
+    private InstanceLoad load(ServiceInstance instance, long now) {
+        return load(keyOf(instance), now);
+    }
+
+    private InstanceLoad load(String key, long now) {
+        InstanceLoad load = loads.get(key);
+        return load != null ? load : loads.computeIfAbsent(key, k -> new InstanceLoad(decayNanos, now));
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getHost() + ':' + instance.getPort();
+    }
+}
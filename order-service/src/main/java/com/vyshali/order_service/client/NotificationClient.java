@@ -0,0 +1,32 @@
+package com.vyshali.order_service.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * HTTP client for notification-service, resolved through the service registry
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationClient {
+
+    private final RestClient notificationRestClient;
+
+    /**
+     * Deliver already-serialized order events in one bulk request. Throws if
+     * notification-service does not accept the whole batch.
+     */
+    public void sendOrderEvents(List<String> payloads) {
+        String body = "{\"events\":[" + String.join(",", payloads) + "]}";
+        notificationRestClient.post()
+                .uri("/api/v1/notifications/order-events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,54 @@
+package com.vyshali.order_service.client;
+
+import com.vyshali.order_service.exception.ProductUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * HTTP client for product-service, resolved through the service registry.
+ * Callers should go through {@link com.vyshali.order_service.service.ProductCatalog},
+ * which caches and coalesces lookups.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductClient {
+
+    /** Largest id list product-service accepts on /api/v1/products/batch */
+    static final int MAX_IDS_PER_REQUEST = 100;
+
+    private final RestClient productRestClient;
+
+    /**
+     * Fetch the given products, at most {@link #MAX_IDS_PER_REQUEST} per request.
+     * Products that do not exist are left out.
+     */
+    public List<ProductDetails> getProducts(Collection<Long> ids) {
+        List<Long> remaining = List.copyOf(ids);
+        List<ProductDetails> products = new ArrayList<>(remaining.size());
+        for (int from = 0; from < remaining.size(); from += MAX_IDS_PER_REQUEST) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, remaining.size()));
+            log.debug("Fetching {} products from product-service", chunk.size());
+            try {
+                ProductDetails[] found = productRestClient.get()
+                        .uri(uri -> uri.path("/api/v1/products/batch").queryParam("ids", chunk).build())
+                        .retrieve()
+                        .body(ProductDetails[].class);
+                if (found != null) {
+                    products.addAll(Arrays.asList(found));
+                }
+            } catch (RestClientException ex) {
+                throw new ProductUnavailableException("Product service is unavailable: " + ex.getMessage(), ex);
+            }
+        }
+        return products;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vyshali.order_service.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields of a product-service product that order-service relies on
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetails {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+}
@@ -0,0 +1,59 @@
+package com.vyshali.order_service.config;
+
+import com.vyshali.order_service.client.LatencyAwareLoadBalancer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Instance selection for every service order-service calls through the load-balanced
+ * RestClients (see {@link RestClientConfig}). {@code business.load-balancer.strategy} picks
+ * {@code peak-ewma} (default), {@code least-outstanding} or Spring Cloud's {@code round-robin}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.PerServiceConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public LatencyAwareLoadBalancer.Settings loadBalancerSettings(
+            @Value("${business.load-balancer.strategy:peak-ewma}") String strategy,
+            @Value("${business.load-balancer.decay:PT1S}") Duration decay,
+            @Value("${business.load-balancer.ejection.failures:5}") int failures,
+            @Value("${business.load-balancer.ejection.latency-factor:5}") double latencyFactor,
+            @Value("${business.load-balancer.ejection.min-latency:PT0.1S}") Duration minLatency,
+            @Value("${business.load-balancer.ejection.duration:PT30S}") Duration ejection,
+            @Value("${business.load-balancer.ejection.max-ejected-percent:50}") double maxEjectedPercent) {
+        return new LatencyAwareLoadBalancer.Settings(LatencyAwareLoadBalancer.Strategy.of(strategy), decay,
+                failures, latencyFactor, minLatency, ejection, maxEjectedPercent / 100);
+    }
+
+    /**
+     * Registered in each service's own load-balancer context, so it is deliberately not a
+     * {@code @Configuration} picked up by component scanning
+     */
+    static class PerServiceConfiguration {
+
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+                Environment environment, LoadBalancerClientFactory loadBalancerClientFactory,
+                LatencyAwareLoadBalancer.Settings loadBalancerSettings) {
+            String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            ObjectProvider<ServiceInstanceListSupplier> instances =
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+            if (loadBalancerSettings.strategy() == LatencyAwareLoadBalancer.Strategy.ROUND_ROBIN) {
+                return new RoundRobinLoadBalancer(instances, serviceId);
+            }
+            return new LatencyAwareLoadBalancer(instances, serviceId, loadBalancerSettings);
+        }
+    }
+}
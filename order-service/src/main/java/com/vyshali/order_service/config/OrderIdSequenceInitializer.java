@@ -0,0 +1,47 @@
+package com.vyshali.order_service.config;
+
+import com.vyshali.order_service.domain.Order;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Moves {@code orders_seq} past ids issued by the former IDENTITY column.
+ * <p>
+ * Orders used to take their id from the column default. Hibernate now draws ids
+ * from {@code orders_seq} in blocks of {@link Order#ID_ALLOCATION_SIZE}, and on an
+ * existing database that sequence starts at 1. Runs once the schema has been
+ * updated and before the web server accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdSequenceInitializer {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequence() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM orders_seq", Long.class);
+        if (maxId != null && lastValue != null && lastValue < maxId) {
+            // The pooled optimizer hands out (nextval - allocationSize, nextval], so the next block starts at maxId + 1
+            jdbcTemplate.queryForObject("SELECT setval('orders_seq', ?)", Long.class, maxId);
+            log.info("Advanced orders_seq from {} to {} to follow existing order ids", lastValue, maxId);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.vyshali.order_service.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Creates the partial index that the expired-order scan runs on.
+ * <p>
+ * JPA cannot declare a partial index, so it is created here once the schema has been updated.
+ * It only holds PENDING orders, which are few next to the whole table, so finding the oldest
+ * ones stays cheap as the table grows. PostgreSQL only; elsewhere the scan uses
+ * {@code idx_orders_status_order_date_id}.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class PendingOrderIndexInitializer {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void createIndex() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_orders_pending_order_date "
+                + "ON orders (status, order_date) WHERE status = 'PENDING'");
+        log.debug("Ensured partial index idx_orders_pending_order_date");
+    }
+}
@@ -0,0 +1,49 @@
+package com.vyshali.order_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * RestClients for the services order-service calls. Base URLs name a service, not a host;
+ * the load-balanced builder resolves them to a registered instance per request.
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public RestClient.Builder loadBalancedRestClientBuilder() {
+        return RestClient.builder();
+    }
+
+    @Bean
+    public RestClient productRestClient(RestClient.Builder loadBalancedRestClientBuilder,
+                                        @Value("${business.product-lookup.base-url:http://product-service}") String baseUrl,
+                                        @Value("${business.product-lookup.timeout:PT2S}") Duration timeout) {
+        return build(loadBalancedRestClientBuilder, baseUrl, timeout);
+    }
+
+    @Bean
+    public RestClient notificationRestClient(RestClient.Builder loadBalancedRestClientBuilder,
+                                             @Value("${business.outbox.base-url:http://notification-service}") String baseUrl,
+                                             @Value("${business.outbox.timeout:PT5S}") Duration timeout) {
+        return build(loadBalancedRestClientBuilder, baseUrl, timeout);
+    }
+
+    private static RestClient build(RestClient.Builder builder, String baseUrl, Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        return builder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
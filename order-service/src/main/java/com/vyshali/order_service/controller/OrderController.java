@@ -1,9 +1,17 @@
 package com.vyshali.order_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateResponse;
+import com.vyshali.order_service.dto.OrderPageResponse;
 import com.vyshali.order_service.dto.OrderRequest;
 import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatsResponse;
 import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderTotals;
+import com.vyshali.order_service.service.OrderBatchService;
 import com.vyshali.order_service.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,10 +21,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -25,7 +41,11 @@ import java.util.List;
 @Tag(name = "Order Management", description = "APIs for managing customer orders")
 public class OrderController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     @Operation(summary = "Create a new order", description = "Creates a new customer order")
@@ -39,6 +59,27 @@ public class OrderController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create orders in bulk", description = "Creates orders from a JSON array, inserting them in JDBC batches and reporting errors per element")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see errors for rejected elements"),
+            @ApiResponse(responseCode = "400", description = "Body is not a JSON array")
+    })
+    public ResponseEntity<OrderBatchResponse> createOrdersBatch(InputStream body) throws IOException {
+        log.info("REST request to create orders in bulk from JSON array");
+        OrderBatchResponse response = orderBatchService.ingestJsonArray(body);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping(value = "/batch", consumes = NDJSON)
+    @Operation(summary = "Create orders in bulk from NDJSON", description = "Creates orders from newline-delimited JSON, inserting them in JDBC batches and reporting errors per line")
+    @ApiResponse(responseCode = "200", description = "Batch processed; see errors for rejected lines")
+    public ResponseEntity<OrderBatchResponse> createOrdersBatchNdjson(InputStream body) throws IOException {
+        log.info("REST request to create orders in bulk from NDJSON");
+        OrderBatchResponse response = orderBatchService.ingestNdjson(body);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Returns a single order by its ID")
     @ApiResponses(value = {
@@ -103,6 +144,20 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
     
+    @PatchMapping("/status")
+    @Operation(summary = "Update the status of many orders", description = "Moves up to 1000 orders to one status, reporting the orders that could not be moved")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request processed; see errors for orders left unchanged"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "409", description = "An order changed while the request was applied")
+    })
+    public ResponseEntity<OrderBulkStatusUpdateResponse> updateOrderStatuses(
+            @Valid @RequestBody OrderBulkStatusUpdateRequest request) {
+        log.info("REST request to update status for {} orders to {}", request.getIds().size(), request.getStatus());
+        OrderBulkStatusUpdateResponse response = orderService.updateOrderStatuses(request);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get orders by customer", description = "Returns all orders for a specific customer")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orders")
@@ -122,11 +177,123 @@ public class OrderController {
     }
     
     @GetMapping("/recent")
-    @Operation(summary = "Get recent orders", description = "Returns recent orders sorted by date")
+    @Operation(summary = "Get recent orders", description = "Returns the most recent orders sorted by date, up to the configured limit")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved orders")
-    public ResponseEntity<List<OrderResponse>> getRecentOrders() {
+    public ResponseEntity<List<OrderResponse>> getRecentOrders(@RequestParam(required = false) Integer limit) {
         log.info("REST request to get recent orders");
-        List<OrderResponse> orders = orderService.getRecentOrders();
+        List<OrderResponse> orders = orderService.getRecentOrders(limit);
         return ResponseEntity.ok(orders);
     }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get order statistics", description = "Returns order counts and revenue per status and per day, served from in-memory aggregates")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    public ResponseEntity<OrderStatsResponse> getOrderStats(@RequestParam(defaultValue = "30") int days) {
+        log.info("REST request to get order statistics for the last {} days", days);
+        OrderStatsResponse stats = orderService.getOrderStats(days);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/stats/customer/{customerId}")
+    @Operation(summary = "Get order statistics by customer", description = "Returns a customer's order count and revenue, served from in-memory aggregates")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    public ResponseEntity<OrderTotals> getCustomerOrderStats(@PathVariable String customerId) {
+        log.info("REST request to get order statistics for customer: {}", customerId);
+        OrderTotals totals = orderService.getCustomerOrderStats(customerId);
+        return ResponseEntity.ok(totals);
+    }
+    
+    @GetMapping("/page")
+    @Operation(summary = "Get orders page", description = "Returns one keyset page of orders, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<OrderPageResponse> getOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get orders page after cursor: {}", cursor);
+        OrderPageResponse page = orderService.getOrdersPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/stream", produces = NDJSON)
+    @Operation(summary = "Stream all orders", description = "Streams every order as newline-delimited JSON, newest first")
+    @ApiResponse(responseCode = "200", description = "Streaming orders")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.info("REST request to stream all orders");
+        return ndjson(orderService::streamAllOrders);
+    }
+    
+    @GetMapping("/customer/{customerId}/page")
+    @Operation(summary = "Get orders page by customer", description = "Returns one keyset page of a customer's orders, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<OrderPageResponse> getOrdersByCustomerPage(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get orders page for customer: {} after cursor: {}", customerId, cursor);
+        OrderPageResponse page = orderService.getOrdersByCustomerIdPage(customerId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/customer/{customerId}/stream", produces = NDJSON)
+    @Operation(summary = "Stream orders by customer", description = "Streams a customer's orders as newline-delimited JSON, newest first")
+    @ApiResponse(responseCode = "200", description = "Streaming orders")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByCustomer(@PathVariable String customerId) {
+        log.info("REST request to stream orders for customer: {}", customerId);
+        return ndjson(consumer -> orderService.streamOrdersByCustomerId(customerId, consumer));
+    }
+    
+    @GetMapping("/status/{status}/page")
+    @Operation(summary = "Get orders page by status", description = "Returns one keyset page of orders with a specific status, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<OrderPageResponse> getOrdersByStatusPage(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("REST request to get orders page with status: {} after cursor: {}", status, cursor);
+        OrderPageResponse page = orderService.getOrdersByStatusPage(status, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/status/{status}/stream", produces = NDJSON)
+    @Operation(summary = "Stream orders by status", description = "Streams orders with a specific status as newline-delimited JSON, newest first")
+    @ApiResponse(responseCode = "200", description = "Streaming orders")
+    public ResponseEntity<StreamingResponseBody> streamOrdersByStatus(@PathVariable OrderStatus status) {
+        log.info("REST request to stream orders with status: {}", status);
+        return ndjson(consumer -> orderService.streamOrdersByStatus(status, consumer));
+    }
+    
+    /**
+     * Write each order as one JSON line while the service walks its database cursor,
+     * so neither the rows nor the response body are ever held in memory as a whole
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<OrderResponse>> source) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                source.accept(order -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(order));
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
 }
@@ -0,0 +1,63 @@
+package com.vyshali.order_service.controller;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.service.ReactiveOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variants of the {@link OrderController} lookups. Handlers return as soon as
+ * the query is issued, releasing the request thread; the response is written when R2DBC
+ * delivers the rows. Lists are sent as one JSON array, or streamed row by row when the
+ * client accepts {@code application/x-ndjson}.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/orders")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Order Lookups (non-blocking)", description = "Read-only order lookups served through R2DBC")
+public class ReactiveOrderController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveOrderService reactiveOrderService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get order by ID", description = "Returns a single order by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    public Mono<OrderResponse> getOrderById(@PathVariable Long id) {
+        log.debug("REST request to get order with ID: {} (reactive)", id);
+        return reactiveOrderService.getOrderById(id);
+    }
+
+    @GetMapping(value = "/customer/{customerId}", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Get orders by customer", description = "Returns all orders for a specific customer, newest first")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved orders")
+    public Flux<OrderResponse> getOrdersByCustomer(@PathVariable String customerId) {
+        log.debug("REST request to get orders for customer: {} (reactive)", customerId);
+        return reactiveOrderService.getOrdersByCustomerId(customerId);
+    }
+
+    @GetMapping(value = "/status/{status}", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "Get orders by status", description = "Returns all orders with a specific status, newest first")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved orders")
+    public Flux<OrderResponse> getOrdersByStatus(@PathVariable OrderStatus status) {
+        log.debug("REST request to get orders with status: {} (reactive)", status);
+        return reactiveOrderService.getOrdersByStatus(status);
+    }
+}
@@ -4,19 +4,32 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id"),
+        @Index(name = "idx_orders_status_order_date_id", columnList = "status, order_date, id"),
+        @Index(name = "idx_orders_customer_order_date_id", columnList = "customer_id, order_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    /**
+     * Sequence-generated so Hibernate can batch inserts; the pooled optimizer
+     * reserves ID_ALLOCATION_SIZE ids per sequence call
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = Order.ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(name = "customer_id", nullable = false, length = 50)
@@ -37,7 +50,12 @@ public class Order {
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount;
     
+    /**
+     * A plain VARCHAR on every database, as on PostgreSQL; H2 would otherwise create a native
+     * ENUM column that the R2DBC read path cannot compare with a bound string
+     */
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false, length = 20)
     private OrderStatus status;
     
@@ -47,6 +65,14 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /**
+     * Optimistic lock: every update, including the conditional status UPDATE, bumps it.
+     * Defaulted in the DDL so existing rows can take the column.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         orderDate = LocalDateTime.now();
@@ -64,9 +90,10 @@ public class Order {
     }
     
     /**
-     * Calculate total amount based on quantity and unit price
+     * Calculate total amount based on quantity and unit price.
+     * Package-private for the JMH benchmarks in src/jmh.
      */
-    private void calculateTotalAmount() {
+    void calculateTotalAmount() {
         if (quantity != null && unitPrice != null) {
             totalAmount = unitPrice.multiply(BigDecimal.valueOf(quantity));
         }
@@ -0,0 +1,9 @@
+package com.vyshali.order_service.domain;
+
+/**
+ * Kinds of order events written to the outbox for notification-service
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED
+}
@@ -0,0 +1,19 @@
+package com.vyshali.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Why one line (NDJSON) or element (JSON array) of a batch was rejected. Lines are 1-based.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchError {
+
+    private int line;
+    private List<String> messages;
+}
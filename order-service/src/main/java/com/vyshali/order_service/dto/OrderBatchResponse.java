@@ -0,0 +1,20 @@
+package com.vyshali.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResponse {
+
+    private int received;
+    private int created;
+    private int failed;
+    private List<OrderBatchError> errors;
+}
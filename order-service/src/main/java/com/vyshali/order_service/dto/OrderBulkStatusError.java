@@ -0,0 +1,17 @@
+package com.vyshali.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Why one order of a bulk status update was left as it was
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkStatusError {
+
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.vyshali.order_service.dto;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkStatusUpdateResponse {
+
+    private OrderStatus status;
+    private int requested;
+    private int updated;
+    private int failed;
+    private List<OrderBulkStatusError> errors;
+}
@@ -0,0 +1,31 @@
+package com.vyshali.order_service.dto;
+
+import com.vyshali.order_service.domain.OrderEventType;
+import com.vyshali.order_service.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of an outbox event, as accepted by notification-service's order-events endpoint
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+
+    private String eventId;
+    private OrderEventType eventType;
+    private Long orderId;
+    private String customerId;
+    private OrderStatus status;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
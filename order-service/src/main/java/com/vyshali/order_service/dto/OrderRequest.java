@@ -5,8 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
+/**
+ * Product name and unit price are not taken from the client; they are resolved from product-service
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,17 +21,8 @@ public class OrderRequest {
     @Positive(message = "Product ID must be positive")
     private Long productId;
     
-    @NotBlank(message = "Product name is required")
-    @Size(min = 3, max = 200, message = "Product name must be between 3 and 200 characters")
-    private String productName;
-    
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     @Max(value = 1000, message = "Quantity cannot exceed 1000")
     private Integer quantity;
-    
-    @NotNull(message = "Unit price is required")
-    @DecimalMin(value = "0.01", message = "Unit price must be greater than 0")
-    @Digits(integer = 8, fraction = 2, message = "Unit price must have at most 8 integer digits and 2 decimal places")
-    private BigDecimal unitPrice;
 }
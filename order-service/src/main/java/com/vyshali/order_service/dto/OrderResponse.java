@@ -1,5 +1,6 @@
 package com.vyshali.order_service.dto;
 
+import com.vyshali.order_service.domain.Order;
 import com.vyshali.order_service.domain.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,4 +27,23 @@ public class OrderResponse {
     private String statusDescription;
     private LocalDateTime orderDate;
     private LocalDateTime updatedAt;
+    
+    /**
+     * The response for an order, shared by the blocking and reactive services
+     */
+    public static OrderResponse from(Order order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .customerId(order.getCustomerId())
+                .productId(order.getProductId())
+                .productName(order.getProductName())
+                .quantity(order.getQuantity())
+                .unitPrice(order.getUnitPrice())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .statusDescription(order.getStatus().getDescription())
+                .orderDate(order.getOrderDate())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,33 @@
+package com.vyshali.order_service.dto;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Order counts and revenue. Revenue excludes cancelled orders everywhere except in the
+ * CANCELLED entry of {@code byStatus}, which shows the value that was cancelled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatsResponse {
+
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private Map<OrderStatus, OrderTotals> byStatus;
+
+    /** Orders by the day they were placed, oldest first */
+    private Map<LocalDate, OrderTotals> byDay;
+
+    /** When the statistics were last rebuilt from the database */
+    private LocalDateTime seededAt;
+}
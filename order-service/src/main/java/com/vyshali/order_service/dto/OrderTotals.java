@@ -0,0 +1,19 @@
+package com.vyshali.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of orders and their revenue within one statistics group
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTotals {
+
+    private long orders;
+    private BigDecimal revenue;
+}
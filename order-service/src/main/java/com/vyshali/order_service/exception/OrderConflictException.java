@@ -0,0 +1,11 @@
+package com.vyshali.order_service.exception;
+
+/**
+ * The order was changed by a concurrent request between being read and being written
+ */
+public class OrderConflictException extends RuntimeException {
+    
+    public OrderConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.vyshali.order_service.exception;
+
+public class ProductUnavailableException extends RuntimeException {
+    
+    public ProductUnavailableException(String message) {
+        super(message);
+    }
+    
+    public ProductUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
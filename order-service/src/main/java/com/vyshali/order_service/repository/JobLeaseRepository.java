@@ -0,0 +1,45 @@
+package com.vyshali.order_service.repository;
+
+import com.vyshali.order_service.domain.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take or renew the lease if it has expired or is already held by {@code owner}.
+     * Returns 1 if the lease is now held by {@code owner}, 0 if another replica holds it.
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.leaseUntil <= :now OR l.owner = :owner)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    /**
+     * Create a job's lease row, held by {@code owner}. Fails with a duplicate key if another
+     * replica created it first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_lease (name, owner, lease_until) VALUES (:name, :owner, :until)", nativeQuery = true)
+    int create(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("until") LocalDateTime until);
+
+    /**
+     * Give the lease up early so another replica can take it on its next run
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = null, l.leaseUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
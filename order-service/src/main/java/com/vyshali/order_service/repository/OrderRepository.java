@@ -2,12 +2,23 @@ package com.vyshali.order_service.repository;
 
 import com.vyshali.order_service.domain.Order;
 import com.vyshali.order_service.domain.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -38,18 +49,152 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Long countByStatus(OrderStatus status);
     
     /**
-     * Find recent orders (last N orders)
+     * Find recent orders (last N orders), served as a top-N scan of the order_date index
      */
-    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC")
-    List<Order> findRecentOrders();
+    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findRecentOrders(Limit limit);
     
     /**
      * Find orders by customer ordered by date descending
      */
     List<Order> findByCustomerIdOrderByOrderDateDesc(String customerId);
     
+    /**
+     * Status of an order, without loading it
+     */
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+    
+    /**
+     * Move an order from {@code expected} to {@code target} status in one statement. Matches
+     * nothing if the order is no longer in {@code expected} or has been changed since it was
+     * read at {@code version}, so of several concurrent transitions exactly one succeeds and
+     * the caller knows the order's figures and new version exactly.
+     *
+     * @return 1 if the order was moved, 0 if it had already changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status = :expected AND o.version = :version")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expected") OrderStatus expected,
+                         @Param("version") Long version,
+                         @Param("target") OrderStatus target,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Set-based form of {@link #transitionStatus}: move every listed order still in
+     * {@code expected} to {@code target}. Returns how many rows were updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.status = :expected")
+    int transitionStatuses(@Param("ids") Collection<Long> ids,
+                           @Param("expected") OrderStatus expected,
+                           @Param("target") OrderStatus target,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Load and lock orders by ID, in ID order so concurrent callers lock rows in the same order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Lock the oldest PENDING orders placed before {@code cutoff}. Rows locked by another
+     * replica are skipped (lock timeout -2 is Hibernate's SKIP LOCKED). The status is a literal
+     * so PostgreSQL can use the partial index on pending orders.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM Order o WHERE o.status = com.vyshali.order_service.domain.OrderStatus.PENDING " +
+           "AND o.orderDate < :cutoff ORDER BY o.orderDate")
+    List<Order> lockExpiredPending(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
     /**
      * Check if customer has any pending orders
      */
     boolean existsByCustomerIdAndStatus(String customerId, OrderStatus status);
+    
+    /**
+     * Keyset page over all orders, newest first. A null cursor starts from the top.
+     */
+    @Query("SELECT o FROM Order o WHERE :cursorDate IS NULL " +
+           "OR o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findPage(@Param("cursorDate") LocalDateTime cursorDate,
+                         @Param("cursorId") Long cursorId,
+                         Limit limit);
+    
+    /**
+     * Keyset page over orders with a specific status, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND (:cursorDate IS NULL " +
+           "OR o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findPageByStatus(@Param("status") OrderStatus status,
+                                 @Param("cursorDate") LocalDateTime cursorDate,
+                                 @Param("cursorId") Long cursorId,
+                                 Limit limit);
+    
+    /**
+     * Keyset page over a customer's orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND (:cursorDate IS NULL " +
+           "OR o.orderDate < :cursorDate OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findPageByCustomerId(@Param("customerId") String customerId,
+                                     @Param("cursorDate") LocalDateTime cursorDate,
+                                     @Param("cursorId") Long cursorId,
+                                     Limit limit);
+    
+    /**
+     * Stream all orders, newest first. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    Stream<Order> streamAll();
+    
+    /**
+     * Stream orders with a specific status, newest first
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.orderDate DESC, o.id DESC")
+    Stream<Order> streamByStatus(@Param("status") OrderStatus status);
+    
+    /**
+     * Stream a customer's orders, newest first
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId ORDER BY o.orderDate DESC, o.id DESC")
+    Stream<Order> streamByCustomerId(@Param("customerId") String customerId);
+    
+    /**
+     * Order counts and amounts grouped by status, customer and order day, in one pass over
+     * the table. Seeds the in-memory order statistics; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.vyshali.order_service.repository.OrderStatsRow(" +
+           "o.status, o.customerId, CAST(o.orderDate AS LocalDate), COUNT(o), SUM(o.totalAmount)) " +
+           "FROM Order o GROUP BY o.status, o.customerId, CAST(o.orderDate AS LocalDate)")
+    Stream<OrderStatsRow> streamStatsRows();
+    
+    /**
+     * Current version of each of the given orders; orders that do not exist are left out
+     */
+    @Query("SELECT new com.vyshali.order_service.repository.OrderVersion(o.id, o.version) FROM Order o WHERE o.id IN :ids")
+    List<OrderVersion> findVersions(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.vyshali.order_service.repository;
+
+import com.vyshali.order_service.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One group of the order statistics seed query: orders of one customer, placed on one day,
+ * currently in one status
+ */
+public record OrderStatsRow(OrderStatus status, String customerId, LocalDate day, long orders, BigDecimal totalAmount) {
+}
@@ -0,0 +1,7 @@
+package com.vyshali.order_service.repository;
+
+/**
+ * An order's id and its current optimistic-lock version
+ */
+public record OrderVersion(Long id, Long version) {
+}
@@ -0,0 +1,72 @@
+package com.vyshali.order_service.repository;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only queries on the {@code orders} table through R2DBC. Rows are mapped to detached
+ * {@link Order} instances; nothing here touches the JPA persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveOrderRepository {
+
+    private static final String COLUMNS = "SELECT id, customer_id, product_id, product_name, quantity, unit_price, "
+            + "total_amount, status, order_date, updated_at FROM orders";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Find an order by ID, or complete empty
+     */
+    public Mono<Order> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::toOrder)
+                .one();
+    }
+
+    /**
+     * Find a customer's orders, newest first (served by idx_orders_customer_order_date_id)
+     */
+    public Flux<Order> findByCustomerId(String customerId) {
+        return databaseClient.sql(COLUMNS + " WHERE customer_id = :customerId ORDER BY order_date DESC, id DESC")
+                .bind("customerId", customerId)
+                .map(ReactiveOrderRepository::toOrder)
+                .all();
+    }
+
+    /**
+     * Find orders with a status, newest first (served by idx_orders_status_order_date_id)
+     */
+    public Flux<Order> findByStatus(OrderStatus status) {
+        return databaseClient.sql(COLUMNS + " WHERE status = :status ORDER BY order_date DESC, id DESC")
+                .bind("status", status.name())
+                .map(ReactiveOrderRepository::toOrder)
+                .all();
+    }
+
+    private static Order toOrder(Readable row) {
+        Order order = new Order();
+        order.setId(row.get("id", Long.class));
+        order.setCustomerId(row.get("customer_id", String.class));
+        order.setProductId(row.get("product_id", Long.class));
+        order.setProductName(row.get("product_name", String.class));
+        order.setQuantity(row.get("quantity", Integer.class));
+        order.setUnitPrice(row.get("unit_price", BigDecimal.class));
+        order.setTotalAmount(row.get("total_amount", BigDecimal.class));
+        order.setStatus(OrderStatus.valueOf(row.get("status", String.class)));
+        order.setOrderDate(row.get("order_date", LocalDateTime.class));
+        order.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return order;
+    }
+}
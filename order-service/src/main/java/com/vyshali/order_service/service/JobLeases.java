@@ -0,0 +1,84 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database leases that keep a scheduled job to one replica at a time.
+ * <p>
+ * A lease is a row in {@code job_lease} taken with a conditional UPDATE, so whichever
+ * replica's UPDATE matches first holds it until it releases it or the lease runs out.
+ * A replica that dies mid-run therefore blocks the job for at most one lease duration.
+ * Leases compare application clocks, so the duration must comfortably exceed clock skew.
+ */
+@Component
+@Slf4j
+public class JobLeases {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Identifies this replica as a lease owner */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    public JobLeases(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        // Leases commit on their own, whatever the caller is doing
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Take the lease on {@code job} for {@code duration}, or extend it if this replica already
+     * holds it
+     *
+     * @return whether this replica now holds the lease
+     */
+    public boolean tryAcquire(String job, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer acquired = transactionTemplate.execute(status ->
+                jobLeaseRepository.acquire(job, owner, now, now.plus(duration)));
+        if (acquired != null && acquired > 0) {
+            return true;
+        }
+        if (createIfAbsent(job, now, duration)) {
+            return true;
+        }
+        log.debug("Lease on {} is held by another replica", job);
+        return false;
+    }
+
+    /**
+     * Release the lease on {@code job} if this replica holds it
+     */
+    public void release(String job) {
+        transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.release(job, owner, LocalDateTime.now()));
+    }
+
+    /**
+     * First run of a job: the replica that inserts its row holds the lease
+     */
+    private boolean createIfAbsent(String job, LocalDateTime now, Duration duration) {
+        if (jobLeaseRepository.existsById(job)) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobLeaseRepository.create(job, owner, now.plus(duration)));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Another replica inserted it first
+            return false;
+        }
+    }
+}
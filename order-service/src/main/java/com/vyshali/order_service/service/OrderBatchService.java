@@ -0,0 +1,261 @@
+package com.vyshali.order_service.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vyshali.order_service.client.ProductDetails;
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderEventType;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBatchError;
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.exception.ProductUnavailableException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk order ingestion. Requests are parsed and validated one line at a time and
+ * inserted in chunks of CHUNK_SIZE rows, each chunk in its own transaction, so a
+ * 50k-line import never holds more than one chunk in memory. Within a chunk
+ * Hibernate groups the inserts into JDBC batches of {@code hibernate.jdbc.batch_size},
+ * and the chunk's product names and prices are resolved with one batch lookup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final RecentOrdersBuffer recentOrdersBuffer;
+    private final ProductCatalog productCatalog;
+    private final OrderOutbox orderOutbox;
+    private final OrderStatistics orderStatistics;
+
+    /**
+     * Ingest a JSON array of orders; element N is reported as line N
+     */
+    public OrderBatchResponse ingestJsonArray(InputStream body) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of orders");
+            }
+            int line = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unterminated JSON array after element " + line);
+                }
+                line++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    ingestion.accept(line, objectMapper.treeToValue(node, OrderRequest.class));
+                } catch (JsonProcessingException ex) {
+                    ingestion.reject(line, List.of("Malformed order: " + ex.getOriginalMessage()));
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON array: " + ex.getOriginalMessage(), ex);
+        }
+        return ingestion.finish();
+    }
+
+    /**
+     * Ingest newline-delimited JSON, one order per line; blank lines are skipped
+     */
+    public OrderBatchResponse ingestNdjson(InputStream body) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    ingestion.accept(line, objectMapper.readValue(text, OrderRequest.class));
+                } catch (JsonProcessingException ex) {
+                    ingestion.reject(line, List.of("Malformed JSON: " + ex.getOriginalMessage()));
+                }
+            }
+        }
+        return ingestion.finish();
+    }
+
+    /**
+     * Insert one chunk in a single transaction. If the database rejects it, fall back
+     * to one transaction per row so only the offending lines are reported.
+     */
+    private int insertChunk(List<Line> chunk, List<OrderBatchError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(chunk));
+            return chunk.size();
+        } catch (RuntimeException ex) {
+            log.warn("Batch chunk of {} orders failed, retrying row by row: {}", chunk.size(), ex.getMessage());
+        }
+
+        int created = 0;
+        for (Line line : chunk) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(line)));
+                created++;
+            } catch (RuntimeException ex) {
+                errors.add(new OrderBatchError(line.number(), List.of(rootMessage(ex))));
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Resolve the chunk's products with one batch lookup; lines for unknown products,
+     * or every line if product-service cannot be reached, are reported as errors
+     */
+    private List<Line> resolveProducts(List<Line> chunk, List<OrderBatchError> errors) {
+        Set<Long> productIds = chunk.stream().map(line -> line.request().getProductId()).collect(Collectors.toSet());
+        Map<Long, ProductDetails> products;
+        try {
+            products = productCatalog.getProducts(productIds);
+        } catch (ProductUnavailableException ex) {
+            for (Line line : chunk) {
+                errors.add(new OrderBatchError(line.number(), List.of(ex.getMessage())));
+            }
+            return List.of();
+        }
+
+        List<Line> resolved = new ArrayList<>(chunk.size());
+        for (Line line : chunk) {
+            ProductDetails product = products.get(line.request().getProductId());
+            if (product == null) {
+                errors.add(new OrderBatchError(line.number(), List.of("productId: product not found")));
+            } else {
+                resolved.add(new Line(line.number(), line.request(), product));
+            }
+        }
+        return resolved;
+    }
+
+    private void persist(List<Line> lines) {
+        List<Order> orders = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            Order order = toOrder(line.request(), line.product());
+            entityManager.persist(order);
+            orderOutbox.record(order, OrderEventType.ORDER_CREATED);
+            orders.add(order);
+        }
+        entityManager.flush();
+        orderStatistics.recordCreatedAfterCommit(orders);
+        if (recentOrdersBuffer.isEnabled()) {
+            for (Order order : orders) {
+                recentOrdersBuffer.recordCreatedAfterCommit(OrderResponse.from(order));
+            }
+        }
+        entityManager.clear();
+    }
+
+    private Order toOrder(OrderRequest request, ProductDetails product) {
+        Order order = new Order();
+        order.setCustomerId(request.getCustomerId());
+        order.setProductId(request.getProductId());
+        order.setProductName(product.getName());
+        order.setQuantity(request.getQuantity());
+        order.setUnitPrice(product.getPrice());
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * One accepted request; {@code product} is filled in once the chunk is resolved
+     */
+    private record Line(int number, OrderRequest request, ProductDetails product) {
+    }
+
+    /**
+     * Running state of one batch request
+     */
+    private class Ingestion {
+
+        private final List<Line> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<OrderBatchError> errors = new ArrayList<>();
+        private int received;
+        private int created;
+
+        void accept(int line, OrderRequest request) {
+            received++;
+            Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                errors.add(new OrderBatchError(line, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .toList()));
+                return;
+            }
+            chunk.add(new Line(line, request, null));
+            if (chunk.size() == CHUNK_SIZE) {
+                flushChunk();
+            }
+        }
+
+        void reject(int line, List<String> messages) {
+            received++;
+            errors.add(new OrderBatchError(line, messages));
+        }
+
+        OrderBatchResponse finish() {
+            flushChunk();
+            errors.sort(Comparator.comparingInt(OrderBatchError::getLine));
+            log.info("Batch ingestion finished: {} received, {} created, {} failed",
+                    received, created, errors.size());
+            return OrderBatchResponse.builder()
+                    .received(received)
+                    .created(created)
+                    .failed(errors.size())
+                    .errors(errors)
+                    .build();
+        }
+
+        private void flushChunk() {
+            if (!chunk.isEmpty()) {
+                List<Line> resolved = resolveProducts(chunk, errors);
+                if (!resolved.isEmpty()) {
+                    created += insertChunk(resolved, errors);
+                }
+                chunk.clear();
+            }
+        }
+    }
+}
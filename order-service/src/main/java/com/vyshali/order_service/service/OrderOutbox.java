@@ -0,0 +1,61 @@
+package com.vyshali.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderEventType;
+import com.vyshali.order_service.domain.OutboxEvent;
+import com.vyshali.order_service.dto.OrderEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Writes order events to the transactional outbox. Must be called inside the transaction
+ * that changes the order, so the event is committed exactly when the change is;
+ * {@link OutboxRelay} delivers it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderEventType eventType) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderEvent event = OrderEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .status(order.getStatus())
+                .productName(order.getProductName())
+                .quantity(order.getQuantity())
+                .totalAmount(order.getTotalAmount())
+                .occurredAt(now)
+                .build();
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventId(event.getEventId());
+        outboxEvent.setEventType(eventType);
+        outboxEvent.setOrderId(order.getId());
+        outboxEvent.setPayload(serialize(event));
+        outboxEvent.setCreatedAt(now);
+        entityManager.persist(outboxEvent);
+    }
+
+    private String serialize(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order event for order " + event.getOrderId(), ex);
+        }
+    }
+}
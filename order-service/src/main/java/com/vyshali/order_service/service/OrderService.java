@@ -1,11 +1,18 @@
 package com.vyshali.order_service.service;
 
 import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateResponse;
+import com.vyshali.order_service.dto.OrderPageResponse;
 import com.vyshali.order_service.dto.OrderRequest;
 import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatsResponse;
 import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderTotals;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
     
@@ -39,6 +46,16 @@ public interface OrderService {
      */
     OrderResponse updateOrderStatus(Long id, OrderStatusUpdateRequest request);
     
+    /**
+     * Move many orders to one status, reporting the orders that could not be moved
+     */
+    OrderBulkStatusUpdateResponse updateOrderStatuses(OrderBulkStatusUpdateRequest request);
+    
+    /**
+     * Cancel up to {@code limit} PENDING orders placed before {@code cutoff}, returning how many
+     */
+    int cancelExpiredOrders(LocalDateTime cutoff, int limit);
+    
     /**
      * Get orders by customer ID
      */
@@ -50,7 +67,47 @@ public interface OrderService {
     List<OrderResponse> getOrdersByStatus(OrderStatus status);
     
     /**
-     * Get recent orders
+     * Get the most recent orders, at most the configured limit
+     */
+    List<OrderResponse> getRecentOrders(Integer limit);
+    
+    /**
+     * Get one keyset page of all orders, newest first
+     */
+    OrderPageResponse getOrdersPage(String cursor, int size);
+    
+    /**
+     * Get one keyset page of orders by status, newest first
+     */
+    OrderPageResponse getOrdersByStatusPage(OrderStatus status, String cursor, int size);
+    
+    /**
+     * Get one keyset page of orders by customer ID, newest first
+     */
+    OrderPageResponse getOrdersByCustomerIdPage(String customerId, String cursor, int size);
+    
+    /**
+     * Stream all orders to the consumer one at a time, newest first
+     */
+    void streamAllOrders(Consumer<OrderResponse> consumer);
+    
+    /**
+     * Stream orders by status to the consumer one at a time, newest first
+     */
+    void streamOrdersByStatus(OrderStatus status, Consumer<OrderResponse> consumer);
+    
+    /**
+     * Stream orders by customer ID to the consumer one at a time, newest first
+     */
+    void streamOrdersByCustomerId(String customerId, Consumer<OrderResponse> consumer);
+    
+    /**
+     * Get order counts and revenue per status and per day for the last {@code days} days
+     */
+    OrderStatsResponse getOrderStats(int days);
+    
+    /**
+     * Get a customer's order count and revenue
      */
-    List<OrderResponse> getRecentOrders();
+    OrderTotals getCustomerOrderStats(String customerId);
 }
@@ -1,20 +1,37 @@
 package com.vyshali.order_service.service;
 
+import com.vyshali.order_service.client.ProductDetails;
 import com.vyshali.order_service.domain.Order;
 import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBulkStatusError;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateResponse;
+import com.vyshali.order_service.dto.OrderPageResponse;
 import com.vyshali.order_service.dto.OrderRequest;
 import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatsResponse;
 import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
-import com.vyshali.order_service.exception.InvalidOrderStatusException;
+import com.vyshali.order_service.dto.OrderTotals;
 import com.vyshali.order_service.exception.ResourceNotFoundException;
 import com.vyshali.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,24 +39,42 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_STATS_DAYS = 366;
+    
     private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final RecentOrdersBuffer recentOrdersBuffer;
+    private final ProductCatalog productCatalog;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderStatistics orderStatistics;
+    private final TransactionTemplate transactionTemplate;
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse createOrder(OrderRequest request) {
         log.info("Creating new order for customer: {}", request.getCustomerId());
         
-        Order order = new Order();
-        order.setCustomerId(request.getCustomerId());
-        order.setProductId(request.getProductId());
-        order.setProductName(request.getProductName());
-        order.setQuantity(request.getQuantity());
-        order.setUnitPrice(request.getUnitPrice());
-        order.setStatus(OrderStatus.PENDING);
-        
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        // Resolved before the transaction starts, so no pooled connection waits on product-service
+        ProductDetails product = productCatalog.getProduct(request.getProductId());
         
-        return mapToResponse(savedOrder);
+        return transactionTemplate.execute(status -> {
+            Order order = new Order();
+            order.setCustomerId(request.getCustomerId());
+            order.setProductId(request.getProductId());
+            order.setProductName(product.getName());
+            order.setQuantity(request.getQuantity());
+            order.setUnitPrice(product.getPrice());
+            order.setStatus(OrderStatus.PENDING);
+            
+            Order savedOrder = orderRepository.save(order);
+            orderStateMachine.created(savedOrder);
+            log.info("Order created successfully with ID: {}", savedOrder.getId());
+            
+            OrderResponse response = OrderResponse.from(savedOrder);
+            recentOrdersBuffer.recordCreatedAfterCommit(response);
+            return response;
+        });
     }
     
     @Override
@@ -50,7 +85,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
         
-        return mapToResponse(order);
+        return OrderResponse.from(order);
     }
     
     @Override
@@ -60,33 +95,45 @@ public class OrderServiceImpl implements OrderService {
         
         List<Order> orders = orderRepository.findAll();
         return orders.stream()
-                .map(this::mapToResponse)
+                .map(OrderResponse::from)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse updateOrder(Long id, OrderRequest request) {
         log.info("Updating order with ID: {}", id);
         
-        Order order = orderRepository.findById(id)
+        // A missing or no longer editable order is rejected before product-service is asked
+        OrderStatus currentStatus = orderRepository.findStatusById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+        OrderStateMachine.checkEditable(currentStatus);
         
-        // Check if order can be updated (not if it's already shipped or delivered)
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
-            throw new InvalidOrderStatusException(
-                    "Cannot update order in " + order.getStatus() + " status");
-        }
-        
-        order.setCustomerId(request.getCustomerId());
-        order.setProductId(request.getProductId());
-        order.setProductName(request.getProductName());
-        order.setQuantity(request.getQuantity());
-        order.setUnitPrice(request.getUnitPrice());
+        // Resolved before the transaction starts, so no pooled connection waits on product-service
+        ProductDetails product = productCatalog.getProduct(request.getProductId());
         
-        Order updatedOrder = orderRepository.save(order);
-        log.info("Order updated successfully with ID: {}", updatedOrder.getId());
-        
-        return mapToResponse(updatedOrder);
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+            
+            // Checked again: the order may have shipped while the product was looked up
+            OrderStateMachine.checkEditable(order.getStatus());
+            
+            OrderStatistics.Snapshot before = OrderStatistics.snapshot(order);
+            order.setCustomerId(request.getCustomerId());
+            order.setProductId(request.getProductId());
+            order.setProductName(product.getName());
+            order.setQuantity(request.getQuantity());
+            order.setUnitPrice(product.getPrice());
+            
+            Order updatedOrder = orderRepository.save(order);
+            orderStatistics.recordAfterCommit(before, updatedOrder);
+            log.info("Order updated successfully with ID: {}", updatedOrder.getId());
+            
+            OrderResponse response = OrderResponse.from(updatedOrder);
+            recentOrdersBuffer.recordUpdatedAfterCommit(response);
+            return response;
+        });
     }
     
     @Override
@@ -96,13 +143,14 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
         
-        // Check if order can be cancelled
-        if (order.getStatus() == OrderStatus.DELIVERED) {
-            throw new InvalidOrderStatusException("Cannot cancel order that has been delivered");
+        // Cancelling twice is a no-op; anything else follows the same rules as a status update
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            log.info("Order with ID: {} is already cancelled", id);
+            return;
         }
         
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        Order cancelledOrder = orderStateMachine.transition(order, OrderStatus.CANCELLED);
+        recentOrdersBuffer.recordUpdatedAfterCommit(OrderResponse.from(cancelledOrder));
         log.info("Order cancelled successfully with ID: {}", id);
     }
     
@@ -113,14 +161,74 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
         
-        // Validate status transition
-        validateStatusTransition(order.getStatus(), request.getStatus());
-        
-        order.setStatus(request.getStatus());
-        Order updatedOrder = orderRepository.save(order);
+        // Validates the transition and applies it only if the status is still the one read here
+        Order updatedOrder = orderStateMachine.transition(order, request.getStatus());
         log.info("Order status updated successfully for ID: {}", id);
         
-        return mapToResponse(updatedOrder);
+        OrderResponse response = OrderResponse.from(updatedOrder);
+        recentOrdersBuffer.recordUpdatedAfterCommit(response);
+        return response;
+    }
+    
+    /**
+     * Lock the orders, reject the ones the state machine does not allow to move, and move the
+     * rest with one UPDATE per source status. All or nothing for the allowed orders.
+     */
+    @Override
+    public OrderBulkStatusUpdateResponse updateOrderStatuses(OrderBulkStatusUpdateRequest request) {
+        OrderStatus target = request.getStatus();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        log.info("Updating status for {} orders to {}", ids.size(), target);
+        
+        List<Order> orders = orderRepository.findAllByIdForUpdate(ids);
+        List<OrderBulkStatusError> errors = new ArrayList<>();
+        List<Order> movable = new ArrayList<>(orders.size());
+        Set<Long> found = new HashSet<>();
+        for (Order order : orders) {
+            found.add(order.getId());
+            if (OrderStateMachine.canTransition(order.getStatus(), target)) {
+                movable.add(order);
+            } else {
+                errors.add(new OrderBulkStatusError(order.getId(), OrderStateMachine.rejectionOf(order.getStatus())));
+            }
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                errors.add(new OrderBulkStatusError(id, "Order not found with ID: " + id));
+            }
+        }
+        
+        orderStateMachine.transitionAll(movable, target);
+        for (Order order : movable) {
+            recentOrdersBuffer.recordUpdatedAfterCommit(OrderResponse.from(order));
+        }
+        log.info("Updated status of {} orders to {}, {} rejected", movable.size(), target, errors.size());
+        
+        return OrderBulkStatusUpdateResponse.builder()
+                .status(target)
+                .requested(ids.size())
+                .updated(movable.size())
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+    
+    /**
+     * One chunk of the expiry job: lock the chunk, then cancel it with one set-based UPDATE
+     */
+    @Override
+    public int cancelExpiredOrders(LocalDateTime cutoff, int limit) {
+        List<Order> expired = orderRepository.lockExpiredPending(cutoff, Limit.of(limit));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        
+        orderStateMachine.transitionAll(expired, OrderStatus.CANCELLED);
+        for (Order order : expired) {
+            recentOrdersBuffer.recordUpdatedAfterCommit(OrderResponse.from(order));
+        }
+        log.info("Cancelled {} PENDING orders placed before {}", expired.size(), cutoff);
+        return expired.size();
     }
     
     @Override
@@ -130,7 +238,7 @@ public class OrderServiceImpl implements OrderService {
         
         List<Order> orders = orderRepository.findByCustomerIdOrderByOrderDateDesc(customerId);
         return orders.stream()
-                .map(this::mapToResponse)
+                .map(OrderResponse::from)
                 .collect(Collectors.toList());
     }
     
@@ -141,70 +249,152 @@ public class OrderServiceImpl implements OrderService {
         
         List<Order> orders = orderRepository.findByStatus(status);
         return orders.stream()
-                .map(this::mapToResponse)
+                .map(OrderResponse::from)
                 .collect(Collectors.toList());
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public List<OrderResponse> getRecentOrders() {
-        log.info("Fetching recent orders");
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<OrderResponse> getRecentOrders(Integer limit) {
+        int max = recentOrdersBuffer.capacity();
+        int n = limit == null ? max : Math.max(1, Math.min(limit, max));
+        log.info("Fetching {} recent orders", n);
         
-        List<Order> orders = orderRepository.findRecentOrders();
-        return orders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        if (recentOrdersBuffer.isEnabled()) {
+            return recentOrdersBuffer.snapshot(n, () -> loadRecentOrders(max));
+        }
+        return loadRecentOrders(n);
     }
     
     /**
-     * Validate order status transition
+     * Only this fallback opens a transaction, so a buffer hit never borrows a pooled connection
      */
-    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
-        // Cannot change status from CANCELLED
-        if (currentStatus == OrderStatus.CANCELLED) {
-            throw new InvalidOrderStatusException("Cannot change status of cancelled order");
-        }
+    private List<OrderResponse> loadRecentOrders(int n) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(status -> orderRepository.findRecentOrders(Limit.of(n)).stream()
+                .map(OrderResponse::from)
+                .collect(Collectors.toList()));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersPage(String cursor, int size) {
+        log.info("Fetching orders page after cursor: {}", cursor);
         
-        // Cannot change status from DELIVERED
-        if (currentStatus == OrderStatus.DELIVERED) {
-            throw new InvalidOrderStatusException("Cannot change status of delivered order");
-        }
+        OrderCursor after = OrderCursor.decode(cursor);
+        int pageSize = clampPageSize(size);
+        List<Order> orders = orderRepository.findPage(
+                after == null ? null : after.orderDate(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1));
+        return toPage(orders, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersByStatusPage(OrderStatus status, String cursor, int size) {
+        log.info("Fetching orders page with status: {} after cursor: {}", status, cursor);
+        
+        OrderCursor after = OrderCursor.decode(cursor);
+        int pageSize = clampPageSize(size);
+        List<Order> orders = orderRepository.findPageByStatus(
+                status,
+                after == null ? null : after.orderDate(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1));
+        return toPage(orders, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersByCustomerIdPage(String customerId, String cursor, int size) {
+        log.info("Fetching orders page for customer: {} after cursor: {}", customerId, cursor);
         
-        // Validate logical transitions
-        if (currentStatus == OrderStatus.PENDING && 
-            newStatus != OrderStatus.CONFIRMED && newStatus != OrderStatus.CANCELLED) {
-            throw new InvalidOrderStatusException(
-                    "Order in PENDING status can only move to CONFIRMED or CANCELLED");
+        OrderCursor after = OrderCursor.decode(cursor);
+        int pageSize = clampPageSize(size);
+        List<Order> orders = orderRepository.findPageByCustomerId(
+                customerId,
+                after == null ? null : after.orderDate(),
+                after == null ? null : after.id(),
+                Limit.of(pageSize + 1));
+        return toPage(orders, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<OrderResponse> consumer) {
+        log.info("Streaming all orders");
+        
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            drain(orders, consumer);
         }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrdersByStatus(OrderStatus status, Consumer<OrderResponse> consumer) {
+        log.info("Streaming orders with status: {}", status);
         
-        if (currentStatus == OrderStatus.CONFIRMED && 
-            newStatus != OrderStatus.SHIPPED && newStatus != OrderStatus.CANCELLED) {
-            throw new InvalidOrderStatusException(
-                    "Order in CONFIRMED status can only move to SHIPPED or CANCELLED");
+        try (Stream<Order> orders = orderRepository.streamByStatus(status)) {
+            drain(orders, consumer);
         }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrdersByCustomerId(String customerId, Consumer<OrderResponse> consumer) {
+        log.info("Streaming orders for customer: {}", customerId);
         
-        if (currentStatus == OrderStatus.SHIPPED && newStatus != OrderStatus.DELIVERED) {
-            throw new InvalidOrderStatusException(
-                    "Order in SHIPPED status can only move to DELIVERED");
+        try (Stream<Order> orders = orderRepository.streamByCustomerId(customerId)) {
+            drain(orders, consumer);
         }
     }
     
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderStatsResponse getOrderStats(int days) {
+        log.info("Fetching order statistics for the last {} days", days);
+        
+        return orderStatistics.stats(Math.max(1, Math.min(days, MAX_STATS_DAYS)));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderTotals getCustomerOrderStats(String customerId) {
+        log.info("Fetching order statistics for customer: {}", customerId);
+        
+        return orderStatistics.customerStats(customerId);
+    }
+    
     /**
-     * Helper method to map Order entity to OrderResponse DTO
+     * Map each streamed row and detach it straight away so the persistence
+     * context stays empty no matter how many rows the cursor walks over
      */
-    private OrderResponse mapToResponse(Order order) {
-        return OrderResponse.builder()
-                .id(order.getId())
-                .customerId(order.getCustomerId())
-                .productId(order.getProductId())
-                .productName(order.getProductName())
-                .quantity(order.getQuantity())
-                .unitPrice(order.getUnitPrice())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .statusDescription(order.getStatus().getDescription())
-                .orderDate(order.getOrderDate())
-                .updatedAt(order.getUpdatedAt())
+    private void drain(Stream<Order> orders, Consumer<OrderResponse> consumer) {
+        orders.forEach(order -> {
+            consumer.accept(OrderResponse.from(order));
+            entityManager.detach(order);
+        });
+    }
+    
+    /**
+     * Trim the over-fetched row used to detect a next page and build the cursor
+     */
+    private OrderPageResponse toPage(List<Order> orders, int pageSize) {
+        boolean hasNext = orders.size() > pageSize;
+        List<Order> content = hasNext ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasNext ? OrderCursor.after(content.get(content.size() - 1)).encode() : null;
+        
+        return OrderPageResponse.builder()
+                .content(content.stream().map(OrderResponse::from).collect(Collectors.toList()))
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
                 .build();
     }
+    
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
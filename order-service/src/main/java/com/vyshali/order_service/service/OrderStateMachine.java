@@ -0,0 +1,201 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderEventType;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.exception.InvalidOrderStatusException;
+import com.vyshali.order_service.exception.OrderConflictException;
+import com.vyshali.order_service.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The order lifecycle, shared by every method that changes an order's status.
+ * <ul>
+ *     <li>Guards: a transition table with one bitmask of allowed targets per source status,
+ *     and a bitmask of statuses in which an order may still be edited. Checks are an array
+ *     lookup and a bit test; rejection messages are built once, up front.</li>
+ *     <li>Transitions are conditional UPDATEs on the source status (one per order, or one per
+ *     source status for a set of orders), so a concurrent change is a conflict, never a
+ *     lost update.</li>
+ *     <li>Entry actions run for every order that enters a status: the row's timestamp and
+ *     version, the outbox event and the statistics delta.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStateMachine {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    /** Bit {@code to.ordinal()} of {@code TARGETS[from.ordinal()]} is set when from → to is allowed */
+    private static final int[] TARGETS = new int[STATUSES.length];
+
+    /** Why each status cannot move to a target it does not allow */
+    private static final String[] REJECTIONS = new String[STATUSES.length];
+
+    /** Statuses in which customer, product and quantity may still be changed */
+    private static final int EDITABLE = bits(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+
+    /** Event written to the outbox when an order enters each status */
+    private static final Map<OrderStatus, OrderEventType> ENTRY_EVENTS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        allow(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+        for (OrderStatus status : STATUSES) {
+            REJECTIONS[status.ordinal()] = rejection(status);
+            ENTRY_EVENTS.put(status, status == OrderStatus.PENDING ? OrderEventType.ORDER_CREATED : OrderEventType.ORDER_STATUS_CHANGED);
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final OrderOutbox orderOutbox;
+    private final OrderStatistics orderStatistics;
+
+    /**
+     * Whether an order in {@code from} may move to {@code to}
+     */
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return (TARGETS[from.ordinal()] & bit(to)) != 0;
+    }
+
+    /**
+     * @throws InvalidOrderStatusException if an order in {@code from} may not move to {@code to}
+     */
+    public static void checkTransition(OrderStatus from, OrderStatus to) {
+        if (!canTransition(from, to)) {
+            throw new InvalidOrderStatusException(rejectionOf(from));
+        }
+    }
+
+    /**
+     * Why an order in {@code from} cannot move to a status it does not allow
+     */
+    public static String rejectionOf(OrderStatus from) {
+        return REJECTIONS[from.ordinal()];
+    }
+
+    /**
+     * @throws InvalidOrderStatusException if an order in {@code status} may no longer be edited
+     */
+    public static void checkEditable(OrderStatus status) {
+        if ((EDITABLE & bit(status)) == 0) {
+            throw new InvalidOrderStatusException("Cannot update order in " + status + " status");
+        }
+    }
+
+    /**
+     * Run the entry actions of a newly persisted order's initial status
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Order order) {
+        orderOutbox.record(order, ENTRY_EVENTS.get(order.getStatus()));
+        orderStatistics.recordAfterCommit(null, order);
+    }
+
+    /**
+     * Move one order to {@code target} with a conditional UPDATE on the status and version it
+     * was read with, then run the entry actions. The order is detached afterwards and reflects the row.
+     *
+     * @throws InvalidOrderStatusException if the transition is not allowed
+     * @throws OrderConflictException if the order changed since it was read
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Order transition(Order order, OrderStatus target) {
+        checkTransition(order.getStatus(), target);
+        OrderStatistics.Snapshot before = OrderStatistics.snapshot(order);
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.transitionStatus(order.getId(), order.getStatus(), order.getVersion(), target, now) == 0) {
+            throw new OrderConflictException("Order " + order.getId() + " was changed by another request since it was read");
+        }
+        entered(order, before, target, now);
+        return order;
+    }
+
+    /**
+     * Move a set of orders to {@code target} with one UPDATE per source status, then run the
+     * entry actions of each. Every order must be allowed to make the move (see
+     * {@link #canTransition}) and should be locked by the caller; if any has changed
+     * status since it was read, the whole set fails and the transaction must roll back.
+     *
+     * @throws OrderConflictException if an order's status changed since it was read
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transitionAll(List<Order> orders, OrderStatus target) {
+        Map<OrderStatus, List<Order>> bySource = new EnumMap<>(OrderStatus.class);
+        for (Order order : orders) {
+            checkTransition(order.getStatus(), target);
+            bySource.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(order);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<OrderStatus, List<Order>> group : bySource.entrySet()) {
+            List<Long> ids = group.getValue().stream().map(Order::getId).toList();
+            int moved = orderRepository.transitionStatuses(ids, group.getKey(), target, now);
+            if (moved != ids.size()) {
+                throw new OrderConflictException((ids.size() - moved) + " of the " + group.getKey()
+                        + " orders were changed by another request");
+            }
+        }
+        for (List<Order> group : bySource.values()) {
+            for (Order order : group) {
+                entered(order, OrderStatistics.snapshot(order), target, now);
+            }
+        }
+    }
+
+    /**
+     * Entry actions: bring the detached order in line with the updated row, then record the
+     * event and the statistics delta
+     */
+    private void entered(Order order, OrderStatistics.Snapshot before, OrderStatus target, LocalDateTime now) {
+        order.setStatus(target);
+        order.setUpdatedAt(now);
+        order.setVersion(order.getVersion() + 1);
+        orderOutbox.record(order, ENTRY_EVENTS.get(target));
+        orderStatistics.recordAfterCommit(before, order);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        TARGETS[from.ordinal()] = bits(targets);
+    }
+
+    private static String rejection(OrderStatus from) {
+        int targets = TARGETS[from.ordinal()];
+        if (targets == 0) {
+            return "Cannot change status of " + from.name().toLowerCase(Locale.ROOT) + " order";
+        }
+        StringJoiner allowed = new StringJoiner(" or ");
+        for (OrderStatus to : STATUSES) {
+            if ((targets & bit(to)) != 0) {
+                allowed.add(to.name());
+            }
+        }
+        return "Order in " + from + " status can only move to " + allowed;
+    }
+
+    private static int bits(OrderStatus... statuses) {
+        int bits = 0;
+        for (OrderStatus status : statuses) {
+            bits |= bit(status);
+        }
+        return bits;
+    }
+
+    private static int bit(OrderStatus status) {
+        return 1 << status.ordinal();
+    }
+}
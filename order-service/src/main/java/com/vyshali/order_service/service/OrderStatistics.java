@@ -0,0 +1,363 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderStatsResponse;
+import com.vyshali.order_service.dto.OrderTotals;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.repository.OrderStatsRow;
+import com.vyshali.order_service.repository.OrderVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory order counts and revenue by status, by order day and by customer, so
+ * {@code /api/v1/orders/stats} never scans the orders table.
+ * <ul>
+ *     <li>Seeded from one GROUP BY query in the background once the application is ready,
+ *     and rebuilt every {@code business.order-stats.reseed-interval}. A request that arrives
+ *     before the seed has finished waits for it, or runs it if the startup seed failed.</li>
+ *     <li>Every create, update and status change made by this instance is applied after
+ *     commit as a delta: the order's old figures are subtracted and its new ones added.</li>
+ *     <li>Deltas committed while a rebuild runs are logged and replayed onto its result,
+ *     except those whose order version the rebuild's snapshot already holds.</li>
+ *     <li>Counters are {@link LongAdder}s and revenue is kept in exact minor units (cents),
+ *     so concurrent writers do not contend on one cache line and sums never round.</li>
+ * </ul>
+ * Changes made by other replicas only show up after the next rebuild, which bounds how
+ * far the figures can drift.
+ */
+@Component
+@Slf4j
+public class OrderStatistics {
+
+    private static final int MONEY_SCALE = 2;
+
+    /** Bind-parameter limit per version lookup */
+    private static final int VERSION_LOOKUP_CHUNK = 1000;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /** Guards {@link #rebuildLog}; a lock because the last replay of a rebuild may query under it */
+    private final ReentrantLock logLock = new ReentrantLock();
+
+    private volatile Aggregates current;
+
+    /** Changes committed while a rebuild is reading the table; replayed onto its result */
+    private volatile List<Change> rebuildLog;
+
+    public OrderStatistics(OrderRepository orderRepository, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        // The GROUP BY and the version lookups of one rebuild must read the same snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * The order's figures before a change, to pass to {@link #recordAfterCommit}
+     */
+    public static Snapshot snapshot(Order order) {
+        // totalAmount is only recalculated on flush, so derive it the same way here
+        BigDecimal amount = order.getUnitPrice().multiply(BigDecimal.valueOf(order.getQuantity()));
+        return new Snapshot(order.getStatus(), order.getCustomerId(), order.getOrderDate().toLocalDate(), cents(amount));
+    }
+
+    /**
+     * Record a created ({@code before} null) or changed order once the surrounding transaction
+     * commits. Rolled-back changes never reach the statistics.
+     */
+    public void recordAfterCommit(Snapshot before, Order after) {
+        // Built on commit, when a flushed entity carries the version it was written with
+        afterCommit(() -> apply(Change.of(before, after)));
+    }
+
+    /**
+     * Record orders created in one transaction with a single commit callback
+     */
+    public void recordCreatedAfterCommit(List<Order> orders) {
+        afterCommit(() -> orders.forEach(order -> apply(Change.of(null, order))));
+    }
+
+    /**
+     * Current statistics with the last {@code days} days of per-day figures
+     */
+    public OrderStatsResponse stats(int days) {
+        Aggregates aggregates = seeded();
+        LocalDate from = LocalDate.now().minusDays(days - 1L);
+
+        Map<OrderStatus, OrderTotals> byStatus = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        long revenueCents = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            OrderTotals totals = aggregates.byStatus.get(status).toTotals();
+            byStatus.put(status, totals);
+            totalOrders += totals.getOrders();
+            if (status != OrderStatus.CANCELLED) {
+                revenueCents += aggregates.byStatus.get(status).revenueCents.sum();
+            }
+        }
+
+        Map<LocalDate, OrderTotals> byDay = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            Totals totals = aggregates.byDay.get(day);
+            if (totals != null) {
+                byDay.put(day, totals.toTotals());
+            }
+        }
+
+        return OrderStatsResponse.builder()
+                .totalOrders(totalOrders)
+                .totalRevenue(BigDecimal.valueOf(revenueCents, MONEY_SCALE))
+                .byStatus(byStatus)
+                .byDay(byDay)
+                .seededAt(aggregates.seededAt)
+                .build();
+    }
+
+    /**
+     * One customer's order count and revenue; zero for a customer without orders
+     */
+    public OrderTotals customerStats(String customerId) {
+        Totals totals = seeded().byCustomer.get(customerId);
+        return totals == null ? new OrderTotals(0, BigDecimal.ZERO.setScale(MONEY_SCALE)) : totals.toTotals();
+    }
+
+    private Aggregates seeded() {
+        Aggregates aggregates = current;
+        if (aggregates != null) {
+            return aggregates;
+        }
+        rebuildLock.lock();
+        try {
+            // The startup seed may have finished while this request waited for the lock
+            if (current == null) {
+                rebuildLocked();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        Thread.ofVirtual().name("order-stats-seed").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.error("Failed to seed order statistics; the first stats request will retry", ex);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the statistics from the database and swap them in
+     */
+    @Scheduled(fixedDelayString = "${business.order-stats.reseed-interval:PT10M}", initialDelayString = "${business.order-stats.reseed-interval:PT10M}")
+    public void rebuild() {
+        // A lock rather than synchronized: the query blocks, and a virtual thread blocked inside a monitor pins its carrier
+        rebuildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long start = System.nanoTime();
+        List<Change> pending = new ArrayList<>();
+        // Opened before the snapshot is taken, so every change the query may miss is logged. Some
+        // logged changes are already in the snapshot; replay() skips those by their version.
+        rebuildLog = pending;
+        Aggregates fresh = new Aggregates(LocalDateTime.now());
+        try {
+            snapshotTransaction.executeWithoutResult(status -> {
+                try (Stream<OrderStatsRow> rows = orderRepository.streamStatsRows()) {
+                    rows.forEach(fresh::add);
+                }
+                // Most of the log outside the lock, then whatever arrived meanwhile with writers held off
+                int replayed = replay(fresh, pending, 0);
+                logLock.lock();
+                try {
+                    replay(fresh, pending, replayed);
+                    current = fresh;
+                    rebuildLog = null;
+                } finally {
+                    logLock.unlock();
+                }
+            });
+        } catch (RuntimeException ex) {
+            rebuildLog = null;
+            throw ex;
+        }
+        log.info("Order statistics rebuilt: {} customers, {} days in {} ms",
+                fresh.byCustomer.size(), fresh.byDay.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Apply the logged changes from index {@code from} on that the rebuild's snapshot does not
+     * contain: those of orders it does not have, or has at an older version. Must run in the
+     * rebuild's transaction.
+     *
+     * @return the index up to which the log has been replayed
+     */
+    private int replay(Aggregates fresh, List<Change> pending, int from) {
+        List<Change> changes;
+        logLock.lock();
+        try {
+            changes = new ArrayList<>(pending.subList(from, pending.size()));
+        } finally {
+            logLock.unlock();
+        }
+        List<Long> ids = changes.stream().map(Change::orderId).distinct().toList();
+        Map<Long, Long> seen = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += VERSION_LOOKUP_CHUNK) {
+            for (OrderVersion version : orderRepository.findVersions(ids.subList(i, Math.min(ids.size(), i + VERSION_LOOKUP_CHUNK)))) {
+                seen.put(version.id(), version.version());
+            }
+        }
+        for (Change change : changes) {
+            Long version = seen.get(change.orderId());
+            if (version == null || version < change.version()) {
+                fresh.apply(change);
+            }
+        }
+        return from + changes.size();
+    }
+
+    void apply(Change change) {
+        if (rebuildLog == null) {
+            applyToCurrent(change);
+            return;
+        }
+        logLock.lock();
+        try {
+            List<Change> pending = rebuildLog;
+            if (pending != null) {
+                pending.add(change);
+            }
+            applyToCurrent(change);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private void applyToCurrent(Change change) {
+        Aggregates aggregates = current;
+        if (aggregates != null) {
+            aggregates.apply(change);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The figures of one order that the statistics depend on
+     */
+    public record Snapshot(OrderStatus status, String customerId, LocalDate day, long amountCents) {
+    }
+
+    /**
+     * An order's figures before and after one committed change, and the version it left the order at
+     */
+    record Change(Snapshot before, Snapshot after, Long orderId, long version) {
+
+        static Change of(Snapshot before, Order after) {
+            return new Change(before, snapshot(after), after.getId(), after.getVersion());
+        }
+    }
+
+    private static final class Totals {
+
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+
+        void add(long count, long cents) {
+            orders.add(count);
+            revenueCents.add(cents);
+        }
+
+        OrderTotals toTotals() {
+            return new OrderTotals(orders.sum(), BigDecimal.valueOf(revenueCents.sum(), MONEY_SCALE));
+        }
+    }
+
+    private static final class Aggregates {
+
+        private final LocalDateTime seededAt;
+        private final Map<OrderStatus, Totals> byStatus = new EnumMap<>(OrderStatus.class);
+        private final Map<LocalDate, Totals> byDay = new ConcurrentHashMap<>();
+        private final Map<String, Totals> byCustomer = new ConcurrentHashMap<>();
+
+        Aggregates(LocalDateTime seededAt) {
+            this.seededAt = seededAt;
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new Totals());
+            }
+        }
+
+        void add(OrderStatsRow row) {
+            add(row.status(), row.customerId(), row.day(), row.orders(), cents(row.totalAmount()));
+        }
+
+        void apply(Change change) {
+            Snapshot before = change.before();
+            Snapshot after = change.after();
+            if (before != null) {
+                add(before.status(), before.customerId(), before.day(), -1, -before.amountCents());
+            }
+            add(after.status(), after.customerId(), after.day(), 1, after.amountCents());
+        }
+
+        private void add(OrderStatus status, String customerId, LocalDate day, long orders, long cents) {
+            byStatus.get(status).add(orders, cents);
+            // Day and customer revenue leave out cancelled orders
+            long revenue = status == OrderStatus.CANCELLED ? 0 : cents;
+            byDay.computeIfAbsent(day, key -> new Totals()).add(orders, revenue);
+            byCustomer.computeIfAbsent(customerId, key -> new Totals()).add(orders, revenue);
+        }
+    }
+}
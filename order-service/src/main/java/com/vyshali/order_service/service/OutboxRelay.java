@@ -0,0 +1,132 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.client.NotificationClient;
+import com.vyshali.order_service.domain.OutboxEvent;
+import com.vyshali.order_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to notification-service in batches.
+ * <p>
+ * Each batch is locked, sent and deleted in one transaction, so an event is only removed
+ * after notification-service has accepted it. If the send fails the rows stay and are
+ * retried with exponential backoff; if the commit fails after a successful send the batch
+ * is sent again. Delivery is therefore at least once, and notification-service drops
+ * repeats by event ID.
+ * <p>
+ * Metrics: {@code outbox.relay.events} (relayed events), {@code outbox.relay.failures}
+ * (failed batches), {@code outbox.relay.batch} (send-and-delete latency per batch) and
+ * {@code outbox.relay.lag} (age of the oldest event in the last batch).
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationClient notificationClient;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration maxBackoff;
+
+    private final Counter relayedEvents;
+    private final Counter failedBatches;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private int consecutiveFailures;
+    private long retryAtMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       NotificationClient notificationClient,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${business.outbox.enabled:true}") boolean enabled,
+                       @Value("${business.outbox.batch-size:500}") int batchSize,
+                       @Value("${business.outbox.poll-interval:PT1S}") Duration pollInterval,
+                       @Value("${business.outbox.max-backoff:PT1M}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationClient = notificationClient;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxBackoff = maxBackoff;
+        this.relayedEvents = Counter.builder("outbox.relay.events")
+                .description("Order events delivered to notification-service")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that could not be delivered")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to deliver and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age in seconds of the oldest event in the last delivered batch")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relay every pending event, batch after batch, unless backing off after a failure
+     */
+    @Scheduled(fixedDelayString = "${business.outbox.poll-interval:PT1S}")
+    public void relay() {
+        if (!enabled || System.currentTimeMillis() < retryAtMillis) {
+            return;
+        }
+        try {
+            while (relayBatch() == batchSize) {
+                // Keep draining while full batches come back
+            }
+            consecutiveFailures = 0;
+        } catch (RuntimeException ex) {
+            failedBatches.increment();
+            consecutiveFailures++;
+            long backoff = Math.min(maxBackoff.toMillis(), pollInterval.toMillis() << Math.min(consecutiveFailures, 16));
+            retryAtMillis = System.currentTimeMillis() + backoff;
+            log.warn("Outbox relay failed ({} in a row), retrying in {} ms: {}", consecutiveFailures, backoff, ex.getMessage());
+        }
+    }
+
+    /**
+     * Deliver and delete the next batch of pending events
+     *
+     * @return the number of events delivered, 0 when the outbox is empty
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.lockNextBatch(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            batchTimer.record(() -> {
+                notificationClient.sendOrderEvents(events.stream().map(OutboxEvent::getPayload).toList());
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            });
+            lagMillis.set(Duration.between(events.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+            return events.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            relayedEvents.increment(count);
+            log.debug("Relayed {} order events", count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.vyshali.order_service.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cancels PENDING orders that were never confirmed.
+ * <p>
+ * An order expires once it has been PENDING for {@code business.order-timeout-minutes}, or
+ * {@code business.auto-cancel-pending-orders-days} if that is shorter. Each run cancels
+ * expired orders in chunks, each chunk locked and cancelled with one set-based UPDATE in its
+ * own transaction, through the same state machine as any other cancellation. Only the
+ * replica holding the {@value #JOB} lease runs; it renews the lease after every chunk.
+ * <p>
+ * Metrics: {@code order.expiry.cancelled} (orders cancelled per run) and
+ * {@code order.expiry.run} (duration of each run).
+ */
+@Component
+@Slf4j
+public class PendingOrderExpiry {
+
+    static final String JOB = "pending-order-expiry";
+
+    private final OrderService orderService;
+    private final JobLeases jobLeases;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final int chunkSize;
+    private final Duration lease;
+
+    private final DistributionSummary cancelledPerRun;
+    private final Timer runTimer;
+
+    public PendingOrderExpiry(OrderService orderService,
+                              JobLeases jobLeases,
+                              MeterRegistry meterRegistry,
+                              @Value("${business.auto-cancel.enabled:true}") boolean enabled,
+                              @Value("${business.order-timeout-minutes:30}") long timeoutMinutes,
+                              @Value("${business.auto-cancel-pending-orders-days:7}") long timeoutDays,
+                              @Value("${business.auto-cancel.chunk-size:500}") int chunkSize,
+                              @Value("${business.auto-cancel.lease:PT5M}") Duration lease) {
+        this.orderService = orderService;
+        this.jobLeases = jobLeases;
+        this.enabled = enabled;
+        this.timeout = Duration.ofMinutes(Math.min(timeoutMinutes, Duration.ofDays(timeoutDays).toMinutes()));
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.cancelledPerRun = DistributionSummary.builder("order.expiry.cancelled")
+                .description("Expired PENDING orders cancelled per run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("order.expiry.run")
+                .description("Time to cancel all expired PENDING orders")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${business.auto-cancel.interval:PT1M}")
+    public void run() {
+        if (!enabled || !jobLeases.tryAcquire(JOB, lease)) {
+            return;
+        }
+        try {
+            cancelExpired();
+        } catch (RuntimeException ex) {
+            log.warn("Cancelling expired orders failed, retrying on the next run: {}", ex.getMessage());
+        } finally {
+            jobLeases.release(JOB);
+        }
+    }
+
+    /**
+     * Cancel every order that has expired by now, chunk after chunk, while this replica still
+     * holds the lease
+     *
+     * @return the number of orders cancelled
+     */
+    public int cancelExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(timeout);
+        int cancelled = runTimer.record(() -> {
+            int total = 0;
+            int chunk;
+            do {
+                chunk = orderService.cancelExpiredOrders(cutoff, chunkSize);
+                total += chunk;
+            } while (chunk == chunkSize && jobLeases.tryAcquire(JOB, lease));
+            return total;
+        });
+        cancelledPerRun.record(cancelled);
+        if (cancelled > 0) {
+            log.info("Cancelled {} PENDING orders older than {}", cancelled, timeout);
+        }
+        return cancelled;
+    }
+}
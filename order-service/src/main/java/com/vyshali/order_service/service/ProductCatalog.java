@@ -0,0 +1,117 @@
+package com.vyshali.order_service.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.vyshali.order_service.client.ProductClient;
+import com.vyshali.order_service.client.ProductDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product name, price and stock as seen by order-service, served from a local near-cache
+ * in front of {@link ProductClient}.
+ * <ul>
+ *     <li>Hits are answered from memory; an entry older than {@code refresh-after} is
+ *     still returned while a background reload replaces it.</li>
+ *     <li>Concurrent misses for the same product share one in-flight load.</li>
+ *     <li>Multi-product lookups fetch every missing product in one batch request.</li>
+ *     <li>If product-service is down, entries keep being served until {@code expire-after}.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class ProductCatalog {
+
+    static final String CACHE_NAME = "product-lookup";
+
+    private final AsyncLoadingCache<Long, ProductDetails> cache;
+    /** Runs the cache's loads and refreshes; they block on HTTP, so not on the common fork-join pool */
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProductCatalog(ProductClient productClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${business.product-lookup.maximum-size:10000}") long maximumSize,
+                          @Value("${business.product-lookup.refresh-after:PT30S}") Duration refreshAfter,
+                          @Value("${business.product-lookup.expire-after:PT5M}") Duration expireAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .executor(loaders)
+                .recordStats()
+                .buildAsync(new ProductLoader(productClient));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Look up one product
+     *
+     * @throws IllegalArgumentException if product-service does not know the product
+     */
+    public ProductDetails getProduct(Long productId) {
+        ProductDetails product = join(cache.get(productId));
+        if (product == null) {
+            throw new IllegalArgumentException("Product not found with ID: " + productId);
+        }
+        return product;
+    }
+
+    /**
+     * Look up several products with at most one batch request for the ones not cached;
+     * unknown products are missing from the result
+     */
+    public Map<Long, ProductDetails> getProducts(Collection<Long> productIds) {
+        return join(cache.getAll(productIds));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Loads already running finish; new ones are rejected while the context closes
+        loaders.shutdown();
+        loaders.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record ProductLoader(ProductClient productClient) implements CacheLoader<Long, ProductDetails> {
+
+        @Override
+        public ProductDetails load(Long productId) {
+            List<ProductDetails> products = productClient.getProducts(List.of(productId));
+            return products.isEmpty() ? null : products.get(0);
+        }
+
+        @Override
+        public Map<Long, ProductDetails> loadAll(Set<? extends Long> productIds) {
+            return productClient.getProducts(List.copyOf(productIds)).stream()
+                    .collect(Collectors.toMap(ProductDetails::getId, Function.identity()));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterparts of the {@link OrderService} lookups, read through R2DBC
+ */
+public interface ReactiveOrderService {
+
+    /**
+     * Get order by ID, failing with ResourceNotFoundException if it does not exist
+     */
+    Mono<OrderResponse> getOrderById(Long id);
+
+    /**
+     * Get orders by customer ID, newest first
+     */
+    Flux<OrderResponse> getOrdersByCustomerId(String customerId);
+
+    /**
+     * Get orders by status, newest first
+     */
+    Flux<OrderResponse> getOrdersByStatus(OrderStatus status);
+}
@@ -0,0 +1,39 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.exception.ResourceNotFoundException;
+import com.vyshali.order_service.repository.ReactiveOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+    private final ReactiveOrderRepository reactiveOrderRepository;
+
+    @Override
+    public Mono<OrderResponse> getOrderById(Long id) {
+        log.debug("Fetching order with ID: {}", id);
+        return reactiveOrderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with ID: " + id)))
+                .map(OrderResponse::from);
+    }
+
+    @Override
+    public Flux<OrderResponse> getOrdersByCustomerId(String customerId) {
+        log.debug("Fetching orders for customer: {}", customerId);
+        return reactiveOrderRepository.findByCustomerId(customerId).map(OrderResponse::from);
+    }
+
+    @Override
+    public Flux<OrderResponse> getOrdersByStatus(OrderStatus status) {
+        log.debug("Fetching orders with status: {}", status);
+        return reactiveOrderRepository.findByStatus(status).map(OrderResponse::from);
+    }
+}
@@ -0,0 +1,168 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * In-process ring buffer holding the most recent orders, newest first, so that
+ * dashboard polling on /recent does not reach the database.
+ * <p>
+ * Only writes made by this instance are observed, so the buffer is disabled by
+ * default and should only be switched on when order-service runs as a single replica.
+ */
+@Component
+public class RecentOrdersBuffer {
+
+    private final boolean enabled;
+    private final OrderResponse[] ring;
+
+    /** Index of the slot the next order is written to */
+    private int head;
+    private int count;
+    private boolean seeded;
+
+    public RecentOrdersBuffer(
+            @Value("${business.recent-orders.limit:20}") int capacity,
+            @Value("${business.recent-orders.cache-enabled:false}") boolean enabled) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("business.recent-orders.limit must be at least 1");
+        }
+        this.enabled = enabled;
+        this.ring = new OrderResponse[capacity];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Return up to {@code limit} recent orders, loading the buffer from {@code loader}
+     * (newest first) the first time it is read
+     */
+    public List<OrderResponse> snapshot(int limit, Supplier<List<OrderResponse>> loader) {
+        synchronized (this) {
+            if (seeded) {
+                return copy(limit);
+            }
+        }
+        List<OrderResponse> initial = loader.get();
+        synchronized (this) {
+            if (!seeded) {
+                // Orders recorded while loading are newer than anything the loader returned
+                List<OrderResponse> recorded = copy(ring.length);
+                clear();
+                for (int i = Math.min(initial.size(), ring.length) - 1; i >= 0; i--) {
+                    push(initial.get(i));
+                }
+                for (int i = recorded.size() - 1; i >= 0; i--) {
+                    upsert(recorded.get(i));
+                }
+                seeded = true;
+            }
+            return copy(limit);
+        }
+    }
+
+    /**
+     * Record a newly created order once the surrounding transaction commits.
+     * Rolled-back changes never reach the buffer.
+     */
+    public void recordCreatedAfterCommit(OrderResponse order) {
+        afterCommit(() -> created(order));
+    }
+
+    /**
+     * Refresh an order that may be in the buffer once the surrounding transaction commits.
+     * Orders that already fell out of the buffer are ignored.
+     */
+    public void recordUpdatedAfterCommit(OrderResponse order) {
+        afterCommit(() -> updated(order));
+    }
+
+    synchronized void created(OrderResponse order) {
+        upsert(order);
+    }
+
+    synchronized void updated(OrderResponse order) {
+        int slot = indexOf(order.getId());
+        if (slot >= 0) {
+            ring[slot] = order;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Replace the entry for an order already in the buffer, otherwise insert it as newest
+     */
+    private void upsert(OrderResponse order) {
+        int slot = indexOf(order.getId());
+        if (slot >= 0) {
+            ring[slot] = order;
+        } else {
+            push(order);
+        }
+    }
+
+    private int indexOf(Long id) {
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(head - 1 - i, ring.length);
+            if (Objects.equals(ring[slot].getId(), id)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void push(OrderResponse order) {
+        ring[head] = order;
+        head = (head + 1) % ring.length;
+        count = Math.min(count + 1, ring.length);
+    }
+
+    private void clear() {
+        Arrays.fill(ring, null);
+        head = 0;
+        count = 0;
+    }
+
+    private List<OrderResponse> copy(int limit) {
+        int n = Math.min(limit, count);
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        List<OrderResponse> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(ring[Math.floorMod(head - 1 - i, ring.length)]);
+        }
+        return result;
+    }
+}
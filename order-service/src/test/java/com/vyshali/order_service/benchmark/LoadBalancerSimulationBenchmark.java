@@ -0,0 +1,138 @@
+package com.vyshali.order_service.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vyshali.order_service.client.LatencyAwareLoadBalancer;
+import com.vyshali.order_service.support.ClosedLoopLoad;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@value #REPLICAS} local stub replicas of a service, one of which answers in
+ * {@value #SLOW_MILLIS} ms instead of {@value #FAST_MILLIS} ms, called through each
+ * load-balancing strategy exactly as the load-balanced RestClient calls them: choose an
+ * instance, report the start, send, report the outcome. Reports throughput and p50/p99 per
+ * strategy; round robin keeps sending every {@value #REPLICAS}th request to the slow replica,
+ * the latency-aware strategies stop doing so, short of a probe after each 5 s ejection.
+ * Concurrency comes from {@code -Dloadtest.concurrency} (default {@value #DEFAULT_CONCURRENCY}).
+ */
+@Tag("benchmark")
+class LoadBalancerSimulationBenchmark {
+
+    private static final String SERVICE_ID = "product-service";
+    private static final String DEFAULT_CONCURRENCY = "32";
+    private static final int REPLICAS = 5;
+    private static final int FAST_MILLIS = 5;
+    private static final int SLOW_MILLIS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void latencyAwareStrategiesAvoidTheSlowReplica() throws Exception {
+        int concurrency = Integer.parseInt(System.getProperty("loadtest.concurrency", DEFAULT_CONCURRENCY).split(",")[0].trim());
+        List<HttpServer> servers = new ArrayList<>();
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            HttpServer server = stub(i == 0 ? SLOW_MILLIS : FAST_MILLIS);
+            servers.add(server);
+            instances.add(new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID, "localhost",
+                    server.getAddress().getPort(), false));
+        }
+        ObjectProvider<ServiceInstanceListSupplier> supplier =
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances.toArray(ServiceInstance[]::new));
+
+        try {
+            List<String> report = new ArrayList<>();
+            double[] p99 = new double[LatencyAwareLoadBalancer.Strategy.values().length];
+            for (LatencyAwareLoadBalancer.Strategy strategy : LatencyAwareLoadBalancer.Strategy.values()) {
+                ReactorServiceInstanceLoadBalancer balancer = strategy == LatencyAwareLoadBalancer.Strategy.ROUND_ROBIN
+                        ? new RoundRobinLoadBalancer(supplier, SERVICE_ID)
+                        : new LatencyAwareLoadBalancer(supplier, SERVICE_ID, settings(strategy));
+                ClosedLoopLoad.run(concurrency, WARMUP, (clientId, n) -> call(balancer));
+                ClosedLoopLoad.Result result = ClosedLoopLoad.run(concurrency, MEASURE, (clientId, n) -> call(balancer));
+                assertThat(result.completed()).isPositive();
+                p99[strategy.ordinal()] = result.p99Millis();
+                report.add(result.format(strategy.name().toLowerCase(Locale.ROOT).replace('_', '-')));
+            }
+            report.forEach(System.out::println);
+            assertThat(p99[LatencyAwareLoadBalancer.Strategy.PEAK_EWMA.ordinal()])
+                    .isLessThan(p99[LatencyAwareLoadBalancer.Strategy.ROUND_ROBIN.ordinal()]);
+        } finally {
+            servers.forEach(server -> server.stop(0));
+        }
+    }
+
+    private static LatencyAwareLoadBalancer.Settings settings(LatencyAwareLoadBalancer.Strategy strategy) {
+        return new LatencyAwareLoadBalancer.Settings(strategy, Duration.ofSeconds(2), 5, 5,
+                Duration.ofMillis(100), Duration.ofSeconds(5), 0.5);
+    }
+
+    private boolean call(ReactorServiceInstanceLoadBalancer balancer) throws Exception {
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> chosen = balancer.choose(request).block();
+        LatencyAwareLoadBalancer lifecycle = balancer instanceof LatencyAwareLoadBalancer aware ? aware : null;
+        if (lifecycle != null) {
+            lifecycle.onStartRequest(request, chosen);
+        }
+        try {
+            HttpRequest httpRequest = HttpRequest.newBuilder(chosen.getServer().getUri().resolve("/work"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            int status = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (lifecycle != null) {
+                lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen));
+            }
+            return status == 200;
+        } catch (IOException ex) {
+            if (lifecycle != null) {
+                lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, ex, request, chosen));
+            }
+            return false;
+        }
+    }
+
+    private static HttpServer stub(int latencyMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.createContext("/work", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,95 @@
+package com.vyshali.order_service.benchmark;
+
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.service.OrderBatchService;
+import com.vyshali.order_service.service.OrderService;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec of the single-create path (one request, one transaction, one INSERT per order)
+ * against the NDJSON batch path (chunked transactions, JDBC-batched INSERTs).
+ * Absolute numbers are for the in-memory H2 stand-in; the gap widens on PostgreSQL,
+ * where every single-create commit is a network round trip.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@Tag("benchmark")
+class OrderIngestionBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ROWS = 2_000;
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Test
+    void batchIngestionOutperformsSingleCreate() throws Exception {
+        singleCreate(WARMUP_ROWS);
+        batchCreate(WARMUP_ROWS);
+
+        long singleNanos = singleCreate(ROWS);
+        long batchNanos = batchCreate(ROWS);
+
+        double singleRate = ROWS / (singleNanos / 1e9);
+        double batchRate = ROWS / (batchNanos / 1e9);
+        System.out.printf("single-create: %,d rows in %,d ms -> %,.0f rows/sec%n", ROWS, singleNanos / 1_000_000, singleRate);
+        System.out.printf("batch (NDJSON): %,d rows in %,d ms -> %,.0f rows/sec (%.1fx)%n",
+                ROWS, batchNanos / 1_000_000, batchRate, batchRate / singleRate);
+        // Loose on purpose: only the direction is asserted, not a speedup this machine may not reach
+        assertThat(batchRate).as("batch rows/sec vs single-create rows/sec").isGreaterThan(singleRate);
+    }
+
+    private long singleCreate(int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            orderService.createOrder(request(i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long batchCreate(int rows) throws Exception {
+        StringBuilder ndjson = new StringBuilder(rows * 120);
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"customerId\":\"CUST").append(i % 1000)
+                    .append("\",\"productId\":").append(i % 500 + 1)
+                    .append(",\"quantity\":").append(i % 10 + 1)
+                    .append("}\n");
+        }
+        byte[] body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        OrderBatchResponse response = orderBatchService.ingestNdjson(new ByteArrayInputStream(body));
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(response.getCreated()).isEqualTo(rows);
+        assertThat(response.getFailed()).isZero();
+        return elapsed;
+    }
+
+    private OrderRequest request(int i) {
+        return new OrderRequest("CUST" + (i % 1000), (long) (i % 500 + 1), i % 10 + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.vyshali.order_service.benchmark;
+
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.service.OrderBatchService;
+import com.vyshali.order_service.support.ClosedLoopLoad;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Customer order history ({@value #ORDERS_PER_CUSTOMER} orders per response) through the
+ * blocking {@code /api/v1/orders/customer/{id}} and the R2DBC-backed
+ * {@code /api/v1/reactive/orders/customer/{id}}, with Tomcat held to
+ * {@value #REQUEST_THREADS} request threads. Reports throughput, latency and the peak JVM
+ * thread count for each.
+ * <p>
+ * The H2 stand-in's R2DBC driver runs queries on the subscribing thread, so against it the
+ * two paths mostly differ in framework overhead; the reactive path only stops holding
+ * request threads during the query against PostgreSQL, whose driver is non-blocking.
+ * Concurrency levels come from {@code -Dloadtest.concurrency} (default {@value #DEFAULT_CONCURRENCY}).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=" + ReactiveReadBenchmark.REQUEST_THREADS)
+@ActiveProfiles("h2")
+@Tag("benchmark")
+class ReactiveReadBenchmark {
+
+    static final int REQUEST_THREADS = 16;
+
+    private static final String DEFAULT_CONCURRENCY = "50,500";
+    private static final int CUSTOMERS = 200;
+    private static final int ORDERS_PER_CUSTOMER = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(15);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    void customerHistoryBlockingVersusReactive() throws Exception {
+        seed();
+        int[] levels = Arrays.stream(System.getProperty("loadtest.concurrency", DEFAULT_CONCURRENCY).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<String> report = new ArrayList<>();
+        for (boolean reactive : new boolean[]{false, true}) {
+            String base = "http://localhost:" + port + (reactive ? "/api/v1/reactive" : "/api/v1") + "/orders/customer/CUST";
+            String label = reactive ? "reactive" : "blocking";
+            ClosedLoopLoad.run(levels[0], WARMUP, (clientId, n) -> history(base, clientId + n));
+            for (int concurrency : levels) {
+                threads.resetPeakThreadCount();
+                ClosedLoopLoad.Result result = ClosedLoopLoad.run(concurrency, MEASURE,
+                        (clientId, n) -> history(base, clientId + n));
+                assertThat(result.completed()).isPositive();
+                report.add(result.format(label) + "  peak threads " + threads.getPeakThreadCount());
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private void seed() throws Exception {
+        StringBuilder ndjson = new StringBuilder(CUSTOMERS * ORDERS_PER_CUSTOMER * 64);
+        for (int i = 0; i < CUSTOMERS * ORDERS_PER_CUSTOMER; i++) {
+            ndjson.append("{\"customerId\":\"CUST").append(i % CUSTOMERS)
+                    .append("\",\"productId\":").append(i % 500 + 1)
+                    .append(",\"quantity\":").append(i % 10 + 1)
+                    .append("}\n");
+        }
+        OrderBatchResponse response = orderBatchService.ingestNdjson(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+        assertThat(response.getFailed()).isZero();
+    }
+
+    private boolean history(String base, int n) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + n % CUSTOMERS))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+}
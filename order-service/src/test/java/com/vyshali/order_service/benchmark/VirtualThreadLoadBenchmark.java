@@ -0,0 +1,94 @@
+package com.vyshali.order_service.benchmark;
+
+import com.vyshali.order_service.OrderServiceApplication;
+import com.vyshali.order_service.support.ClosedLoopLoad;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code POST /api/v1/orders} under closed-loop load, once on Tomcat's platform thread
+ * pool and once with {@code spring.threads.virtual.enabled}. Every create waits
+ * {@link #PRODUCT_LATENCY} on the stub product-service, so the platform pool saturates at
+ * about {@code 200 / latency} requests per second while virtual threads keep scaling.
+ * <p>
+ * Concurrency levels come from {@code -Dloadtest.concurrency} (default {@value #DEFAULT_CONCURRENCY}).
+ * Each client holds roughly three sockets (client, Tomcat, product lookup), so 10,000 clients
+ * need {@code ulimit -n} well above 30,000.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final String DEFAULT_CONCURRENCY = "200,1000,2500";
+    private static final Duration PRODUCT_LATENCY = Duration.ofMillis(100);
+    private static final Duration WARMUP = Duration.ofSeconds(20);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    void virtualThreadsScaleWithConcurrentBlockingRequests() throws Exception {
+        PRODUCTS.setLatency(PRODUCT_LATENCY);
+        int[] levels = Arrays.stream(System.getProperty("loadtest.concurrency", DEFAULT_CONCURRENCY).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                URI orders = URI.create("http://localhost:"
+                        + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/orders");
+                ClosedLoopLoad.run(levels[0], WARMUP, (clientId, n) -> create(orders, clientId, n));
+                for (int concurrency : levels) {
+                    ClosedLoopLoad.Result result = ClosedLoopLoad.run(concurrency, MEASURE,
+                            (clientId, n) -> create(orders, clientId, n));
+                    assertThat(result.completed()).isPositive();
+                    report.add(result.format(virtual ? "virtual" : "platform"));
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .profiles("h2")
+                // Arguments rather than default properties, which application.yml would override
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // Every create goes to product-service, as for a catalogue too large to cache
+                        "--business.product-lookup.maximum-size=0",
+                        "--spring.cloud.discovery.client.simple.instances.product-service[0].uri=" + PRODUCTS.baseUrl());
+    }
+
+    private boolean create(URI orders, int clientId, int n) throws Exception {
+        long productId = clientId * 1_000L + n % 1_000 + 1;
+        HttpRequest request = HttpRequest.newBuilder(orders)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"customerId\":\"LOAD\",\"productId\":" + productId + ",\"quantity\":1}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+    }
+}
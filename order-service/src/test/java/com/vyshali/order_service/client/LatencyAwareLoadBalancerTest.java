@@ -0,0 +1,88 @@
+package com.vyshali.order_service.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Instance selection and ejection, driven with synthetic response times.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final ServiceInstance FAST = instance(1);
+    private static final ServiceInstance OTHER_FAST = instance(2);
+    private static final ServiceInstance SLOW = instance(3);
+    private static final List<ServiceInstance> INSTANCES = List.of(FAST, OTHER_FAST, SLOW);
+
+    private final LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(
+            ServiceInstanceListSuppliers.toProvider("svc", INSTANCES.toArray(ServiceInstance[]::new)), "svc",
+            new LatencyAwareLoadBalancer.Settings(LatencyAwareLoadBalancer.Strategy.PEAK_EWMA, Duration.ofSeconds(10),
+                    3, 5, Duration.ofMillis(100), Duration.ofMinutes(1), 0.5));
+
+    @Test
+    void slowInstanceIsEjected() {
+        complete(FAST, Duration.ofMillis(5), true);
+        complete(OTHER_FAST, Duration.ofMillis(5), true);
+        complete(SLOW, Duration.ofMillis(500), true);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(balancer.choose(INSTANCES).getServer()).isNotEqualTo(SLOW);
+        }
+    }
+
+    @Test
+    void failingInstanceIsEjectedButNotTheMajority() {
+        for (ServiceInstance instance : INSTANCES) {
+            complete(instance, Duration.ofMillis(5), true);
+        }
+        for (int i = 0; i < 3; i++) {
+            complete(SLOW, Duration.ofMillis(5), false);
+            complete(FAST, Duration.ofMillis(5), false);
+        }
+
+        // One of three may be ejected at 50%; FAST reached the threshold second and stays in
+        for (int i = 0; i < 200; i++) {
+            assertThat(balancer.choose(INSTANCES).getServer()).isNotEqualTo(SLOW);
+            assertThat(balancer.choose(List.of(FAST, SLOW)).getServer()).isEqualTo(FAST);
+        }
+    }
+
+    @Test
+    void busyInstanceLosesToAnIdleOne() {
+        complete(FAST, Duration.ofMillis(5), true);
+        complete(OTHER_FAST, Duration.ofMillis(5), true);
+        for (int i = 0; i < 10; i++) {
+            balancer.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(FAST));
+        }
+
+        List<ServiceInstance> pair = List.of(FAST, OTHER_FAST);
+        for (int i = 0; i < 50; i++) {
+            assertThat(balancer.choose(pair).getServer()).isEqualTo(OTHER_FAST);
+        }
+    }
+
+    private void complete(ServiceInstance instance, Duration rtt, boolean success) {
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> chosen = new DefaultResponse(instance);
+        balancer.onStartRequest(request, chosen);
+        ((RequestDataContext) request.getContext()).setRequestStartTime(System.nanoTime() - rtt.toNanos());
+        balancer.onComplete(new CompletionContext<>(
+                success ? CompletionContext.Status.SUCCESS : CompletionContext.Status.FAILED, request, chosen));
+    }
+
+    private static ServiceInstance instance(int n) {
+        return new DefaultServiceInstance("svc-" + n, "svc", "host-" + n, 8080, false);
+    }
+}
@@ -0,0 +1,167 @@
+package com.vyshali.order_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.service.OrderService;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset pages walk every order exactly once, even when order dates tie, and end with a
+ * null cursor; the NDJSON stream returns the same orders in the same order.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class OrderPagingTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void pagesWalkEveryOrderOnceWhenOrderDatesTie() throws Exception {
+        List<Long> created = createOrders("CUST-PAGING", 7);
+        // Two groups of equal dates, so page boundaries fall inside a tie
+        LocalDateTime tied = LocalDateTime.of(2026, 1, 15, 12, 0);
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id IN (?, ?, ?, ?)", Timestamp.valueOf(tied),
+                created.get(0), created.get(1), created.get(2), created.get(3));
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id IN (?, ?, ?)", Timestamp.valueOf(tied.plusSeconds(1)),
+                created.get(4), created.get(5), created.get(6));
+
+        List<Long> paged = walk("/api/v1/orders/customer/CUST-PAGING/page", 3, 3);
+
+        // Newest date first, ties by id descending
+        List<Long> expected = new ArrayList<>(created.subList(4, 7).reversed());
+        expected.addAll(created.subList(0, 4).reversed());
+        assertThat(paged).isEqualTo(expected);
+        assertThat(stream("/api/v1/orders/customer/CUST-PAGING/stream")).isEqualTo(expected);
+    }
+
+    @Test
+    void unfilteredAndStatusPagesHaveNoDuplicatesOrGaps() throws Exception {
+        createOrders("CUST-PAGING-ALL", 5);
+        int total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+        int pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE status = 'PENDING'", Integer.class);
+
+        List<Long> all = walk("/api/v1/orders/page", 2, Integer.MAX_VALUE);
+        List<Long> pendingOnly = walk("/api/v1/orders/status/PENDING/page", 2, Integer.MAX_VALUE);
+
+        assertThat(all).hasSize(total).doesNotHaveDuplicates();
+        assertThat(pendingOnly).hasSize(pending).doesNotHaveDuplicates();
+        assertThat(stream("/api/v1/orders/stream")).isEqualTo(all);
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        createOrders("CUST-PAGING-LAST", 2);
+
+        mockMvc.perform(get("/api/v1/orders/customer/CUST-PAGING-LAST/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2026-01-15T12:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not a cursor!", noSeparator, badDate)) {
+            mockMvc.perform(get("/api/v1/orders/page").param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor: " + cursor));
+        }
+    }
+
+    private List<Long> createOrders(String customerId, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(new OrderRequest(customerId, 1L, 1)).getId());
+        }
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    /**
+     * Follow nextCursor to the end, checking each page's size on the way
+     */
+    private List<Long> walk(String path, int size, int expectedPages) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get(path).param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(order -> ids.add(order.get("id").asLong()));
+            assertThat(page.get("size").asInt()).isEqualTo(page.get("content").size()).isLessThanOrEqualTo(size);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertThat(page.get("hasNext").asBoolean()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+        if (expectedPages != Integer.MAX_VALUE) {
+            assertThat(pages).isEqualTo(expectedPages);
+        }
+        return ids;
+    }
+
+    private List<Long> stream(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                ids.add(objectMapper.readTree(line).get("id").asLong());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,111 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.dto.OrderBatchError;
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Per-line error reporting of the batch endpoints: every rejected line is reported with its
+ * number and reason, and the rest are still created.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderBatchServiceTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void rejectOneCustomerInTheDatabase() {
+        // Passes validation but fails the INSERT, like a constraint only the database knows about
+        jdbcTemplate.execute("ALTER TABLE orders ADD CONSTRAINT chk_batch_test CHECK (customer_id <> 'CUST-REJECTED')");
+    }
+
+    @AfterEach
+    void dropConstraint() {
+        jdbcTemplate.execute("ALTER TABLE orders DROP CONSTRAINT chk_batch_test");
+    }
+
+    @Test
+    void everyRejectedLineIsReportedAndTheRestAreCreated() throws IOException {
+        String ndjson = """
+                {"customerId":"CUST-NDJSON","productId":1,"quantity":2}
+                {"customerId":"CUST-NDJSON",
+                
+                {"customerId":"X","productId":1,"quantity":0}
+                {"customerId":"CUST-NDJSON","productId":%d,"quantity":1}
+                {"customerId":"CUST-REJECTED","productId":1,"quantity":1}
+                {"customerId":"CUST-NDJSON","productId":2,"quantity":3}
+                """.formatted(StubProductService.MAX_KNOWN_ID + 1);
+
+        OrderBatchResponse response = orderBatchService.ingestNdjson(body(ndjson));
+
+        assertThat(response.getReceived()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(OrderBatchError::getLine).containsExactly(2, 4, 5, 6);
+        assertThat(response.getErrors().get(0).getMessages()).singleElement().asString().startsWith("Malformed JSON");
+        assertThat(response.getErrors().get(1).getMessages()).containsExactly(
+                "customerId: Customer ID must be between 3 and 50 characters",
+                "quantity: Quantity must be at least 1");
+        assertThat(response.getErrors().get(2).getMessages()).containsExactly("productId: product not found");
+        // The chunk failed as a whole, and the row-by-row retry pinned it on line 6 alone
+        assertThat(response.getErrors().get(3).getMessages()).singleElement().asString().containsIgnoringCase("chk_batch_test");
+        assertThat(orderRepository.findByCustomerId("CUST-NDJSON")).hasSize(2);
+        assertThat(orderRepository.findByCustomerId("CUST-REJECTED")).isEmpty();
+    }
+
+    @Test
+    void jsonArrayElementsAreReportedAsLines() throws IOException {
+        String array = """
+                [{"customerId":"CUST-ARRAY","productId":1,"quantity":1},
+                 {"customerId":"CUST-ARRAY","productId":"one","quantity":1},
+                 {"customerId":"CUST-ARRAY","productId":1}]
+                """;
+
+        OrderBatchResponse response = orderBatchService.ingestJsonArray(body(array));
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(OrderBatchError::getLine).containsExactly(2, 3);
+        assertThat(response.getErrors().get(0).getMessages()).singleElement().asString().startsWith("Malformed order");
+        assertThat(response.getErrors().get(1).getMessages()).containsExactly("quantity: Quantity is required");
+        assertThatThrownBy(() -> orderBatchService.ingestJsonArray(body("{}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Request body must be a JSON array of orders");
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
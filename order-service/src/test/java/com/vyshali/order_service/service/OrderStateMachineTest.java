@@ -0,0 +1,106 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBulkStatusError;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderBulkStatusUpdateResponse;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.exception.InvalidOrderStatusException;
+import com.vyshali.order_service.exception.ResourceNotFoundException;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The transition table allows exactly the documented lifecycle, and a bulk update moves
+ * every allowed order while reporting the rest.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderStateMachineTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void tableAllowsOnlyTheDocumentedTransitions() {
+        Set<String> allowed = Set.of(
+                "PENDING->CONFIRMED", "PENDING->CANCELLED",
+                "CONFIRMED->SHIPPED", "CONFIRMED->CANCELLED",
+                "SHIPPED->DELIVERED");
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertThat(OrderStateMachine.canTransition(from, to))
+                        .as(from + "->" + to)
+                        .isEqualTo(allowed.contains(from + "->" + to));
+            }
+        }
+        assertThat(OrderStateMachine.rejectionOf(OrderStatus.PENDING))
+                .isEqualTo("Order in PENDING status can only move to CONFIRMED or CANCELLED");
+        assertThat(OrderStateMachine.rejectionOf(OrderStatus.DELIVERED))
+                .isEqualTo("Cannot change status of delivered order");
+    }
+
+    @Test
+    void bulkUpdateMovesAllowedOrdersAndReportsTheRest() {
+        Long pending = orderService.createOrder(new OrderRequest("CUST-BULK", 1L, 1)).getId();
+        Long confirmed = orderService.createOrder(new OrderRequest("CUST-BULK", 2L, 1)).getId();
+        orderService.updateOrderStatus(confirmed, new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+        Long delivered = orderService.createOrder(new OrderRequest("CUST-BULK", 3L, 1)).getId();
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED)) {
+            orderService.updateOrderStatus(delivered, new OrderStatusUpdateRequest(status));
+        }
+        Long missing = Long.MAX_VALUE;
+
+        OrderBulkStatusUpdateResponse response = orderService.updateOrderStatuses(
+                new OrderBulkStatusUpdateRequest(List.of(pending, confirmed, delivered, missing, pending), OrderStatus.CANCELLED));
+
+        assertThat(response.getRequested()).isEqualTo(4);
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(OrderBulkStatusError::getId).containsExactlyInAnyOrder(delivered, missing);
+        assertThat(orderRepository.findAllById(List.of(pending, confirmed)))
+                .extracting(Order::getStatus)
+                .containsOnly(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findById(delivered).orElseThrow().getStatus()).isEqualTo(OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void missingOrShippedOrderIsRejectedBeforeTheProductLookup() {
+        Long shipped = orderService.createOrder(new OrderRequest("CUST-EDIT", 1L, 1)).getId();
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.SHIPPED)) {
+            orderService.updateOrderStatus(shipped, new OrderStatusUpdateRequest(status));
+        }
+        int lookups = PRODUCTS.requestCount();
+
+        // An unknown product would fail the lookup, so only the order's own error can surface
+        OrderRequest unknownProduct = new OrderRequest("CUST-EDIT", StubProductService.MAX_KNOWN_ID + 1, 1);
+        assertThatThrownBy(() -> orderService.updateOrder(Long.MAX_VALUE, unknownProduct))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> orderService.updateOrder(shipped, unknownProduct))
+                .isInstanceOf(InvalidOrderStatusException.class);
+        assertThat(PRODUCTS.requestCount()).isEqualTo(lookups);
+    }
+}
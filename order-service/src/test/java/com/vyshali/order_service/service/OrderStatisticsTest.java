@@ -0,0 +1,160 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatsResponse;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.dto.OrderTotals;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.support.StubProductService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Incrementally maintained order statistics agree with a fresh GROUP BY over the table
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderStatisticsTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatistics orderStatistics;
+
+    /** Runs around the next seed query only: before it, and after it has opened its rows */
+    private static final AtomicReference<Runnable[]> SEED_QUERY_HOOK = new AtomicReference<>();
+
+    @TestConfiguration
+    static class SeedQueryInterception {
+
+        @Bean
+        static BeanPostProcessor seedQueryHook() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof OrderRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory factory = new ProxyFactory();
+                    factory.setTarget(bean);
+                    factory.addInterface(OrderRepository.class);
+                    factory.addAdvice((MethodInterceptor) invocation -> {
+                        Runnable[] hook = invocation.getMethod().getName().equals("streamStatsRows") ? SEED_QUERY_HOOK.getAndSet(null) : null;
+                        if (hook == null) {
+                            return invocation.proceed();
+                        }
+                        hook[0].run();
+                        Object rows = invocation.proceed();
+                        hook[1].run();
+                        return rows;
+                    });
+                    return factory.getProxy();
+                }
+            };
+        }
+    }
+
+    @AfterEach
+    void clearHook() {
+        SEED_QUERY_HOOK.set(null);
+    }
+
+    @Test
+    void createsAndTransitionsUpdateStatisticsIncrementally() throws Exception {
+        OrderStatsResponse before = orderService.getOrderStats(1);
+
+        // Stub products cost 19.99
+        OrderResponse first = orderService.createOrder(new OrderRequest("STATS-1", 1L, 2));
+        OrderResponse second = orderService.createOrder(new OrderRequest("STATS-1", 2L, 1));
+        orderService.createOrder(new OrderRequest("STATS-2", 3L, 3));
+        orderService.updateOrderStatus(first.getId(), new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+        orderService.cancelOrder(second.getId());
+        orderService.updateOrder(first.getId(), new OrderRequest("STATS-1", 1L, 5));
+        orderBatchService.ingestNdjson(new ByteArrayInputStream(
+                "{\"customerId\":\"STATS-2\",\"productId\":4,\"quantity\":1}\n".getBytes(StandardCharsets.UTF_8)));
+
+        OrderStatsResponse after = orderService.getOrderStats(1);
+        assertThat(after.getTotalOrders() - before.getTotalOrders()).isEqualTo(4);
+        assertThat(after.getTotalRevenue().subtract(before.getTotalRevenue())).isEqualByComparingTo("179.91");
+        assertThat(delta(before, after, OrderStatus.CONFIRMED)).isEqualTo(1);
+        assertThat(delta(before, after, OrderStatus.CANCELLED)).isEqualTo(1);
+        assertThat(delta(before, after, OrderStatus.PENDING)).isEqualTo(2);
+
+        OrderTotals today = after.getByDay().get(LocalDate.now());
+        assertThat(today.getOrders()).isGreaterThanOrEqualTo(4);
+        assertThat(orderService.getCustomerOrderStats("STATS-1")).isEqualTo(new OrderTotals(2, new BigDecimal("99.95")));
+        assertThat(orderService.getCustomerOrderStats("STATS-2")).isEqualTo(new OrderTotals(2, new BigDecimal("79.96")));
+        assertThat(orderService.getCustomerOrderStats("NOBODY")).isEqualTo(new OrderTotals(0, new BigDecimal("0.00")));
+
+        // The incremental figures match what a rebuild from the table finds
+        orderStatistics.rebuild();
+        OrderStatsResponse rebuilt = orderService.getOrderStats(1);
+        assertThat(rebuilt.getTotalOrders()).isEqualTo(after.getTotalOrders());
+        assertThat(rebuilt.getTotalRevenue()).isEqualByComparingTo(after.getTotalRevenue());
+        assertThat(rebuilt.getByStatus()).isEqualTo(after.getByStatus());
+        assertThat(rebuilt.getByDay()).isEqualTo(after.getByDay());
+        assertThat(orderService.getCustomerOrderStats("STATS-1")).isEqualTo(new OrderTotals(2, new BigDecimal("99.95")));
+    }
+
+    @Test
+    void ordersCommittedDuringRebuildAreCountedOnce() throws Exception {
+        orderStatistics.rebuild();
+        OrderStatsResponse before = orderService.getOrderStats(1);
+
+        // One order commits just before the seed query runs, one while its rows are being read;
+        // both are logged, and each must end up in the rebuilt figures exactly once
+        SEED_QUERY_HOOK.set(new Runnable[] {() -> createOnAnotherThread("REBUILD-1"), () -> createOnAnotherThread("REBUILD-2")});
+        orderStatistics.rebuild();
+
+        OrderStatsResponse after = orderService.getOrderStats(1);
+        assertThat(after.getTotalOrders() - before.getTotalOrders()).isEqualTo(2);
+        assertThat(orderService.getCustomerOrderStats("REBUILD-1")).isEqualTo(new OrderTotals(1, new BigDecimal("19.99")));
+        assertThat(orderService.getCustomerOrderStats("REBUILD-2")).isEqualTo(new OrderTotals(1, new BigDecimal("19.99")));
+
+        orderStatistics.rebuild();
+        assertThat(orderService.getOrderStats(1).getByStatus()).isEqualTo(after.getByStatus());
+    }
+
+    /**
+     * Create and commit an order outside the rebuild's transaction, which runs on this thread
+     */
+    private void createOnAnotherThread(String customerId) {
+        CompletableFuture.runAsync(() -> orderService.createOrder(new OrderRequest(customerId, 1L, 1))).join();
+    }
+
+    private static long delta(OrderStatsResponse before, OrderStatsResponse after, OrderStatus status) {
+        return after.getByStatus().get(status).getOrders() - before.getByStatus().get(status).getOrders();
+    }
+}
@@ -0,0 +1,109 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderEventType;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.exception.InvalidOrderStatusException;
+import com.vyshali.order_service.exception.OrderConflictException;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.repository.OutboxEventRepository;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of threads racing to move the same order out of CONFIRMED: exactly one
+ * transition wins, and every other request is rejected rather than overwriting it.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderStatusConcurrencyTest {
+
+    private static final int THREADS = 300;
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void concurrentTransitionsFromTheSameStatusHaveOneWinner() throws Exception {
+        OrderResponse order = orderService.createOrder(new OrderRequest("CUST-RACE", 1L, 1));
+        orderService.updateOrderStatus(order.getId(), new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+        long versionBefore = orderRepository.findById(order.getId()).orElseThrow().getVersion();
+
+        Map<OrderStatus, AtomicInteger> won = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // CONFIRMED may go to either; once one wins, the other is no longer a valid move
+            OrderStatus target = i % 2 == 0 ? OrderStatus.SHIPPED : OrderStatus.CANCELLED;
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.updateOrderStatus(order.getId(), new OrderStatusUpdateRequest(target));
+                    won.computeIfAbsent(target, key -> new AtomicInteger()).incrementAndGet();
+                } catch (OrderConflictException ex) {
+                    conflicts.incrementAndGet();
+                } catch (InvalidOrderStatusException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            // Anything other than a conflict or a rejected transition fails the test here
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(won).hasSize(1);
+        OrderStatus winner = won.keySet().iterator().next();
+        assertThat(won.get(winner).get()).isEqualTo(1);
+        assertThat(conflicts.get() + rejected.get()).isEqualTo(THREADS - 1);
+
+        Order stored = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(winner);
+        assertThat(stored.getVersion()).isEqualTo(versionBefore + 1);
+        // One event for the confirmation, one for the winning transition, none for the losers
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getOrderId().equals(order.getId())
+                        && event.getEventType() == OrderEventType.ORDER_STATUS_CHANGED)
+                .hasSize(2);
+    }
+}
@@ -0,0 +1,122 @@
+package com.vyshali.order_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderBatchResponse;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.repository.OutboxEventRepository;
+import com.vyshali.order_service.support.StubNotificationService;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Order changes are written to the outbox with the order and relayed to a stub
+ * notification-service in batches, surviving delivery failures.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OutboxRelayTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+    private static final StubNotificationService NOTIFICATIONS = StubNotificationService.start();
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+        NOTIFICATIONS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void drainOutbox() {
+        while (outboxRelay.relayBatch() > 0) {
+            // Start every test from an empty outbox
+        }
+        NOTIFICATIONS.clear();
+    }
+
+    @AfterEach
+    void restoreNotifications() {
+        NOTIFICATIONS.setAvailable(true);
+    }
+
+    @Test
+    void orderCreationAndStatusChangeAreRelayed() {
+        OrderResponse order = orderService.createOrder(new OrderRequest("CUST-1", 1L, 2));
+        orderService.updateOrderStatus(order.getId(), new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+
+        List<JsonNode> events = NOTIFICATIONS.events();
+        assertThat(events).extracting(event -> event.get("eventType").asText())
+                .containsExactly("ORDER_CREATED", "ORDER_STATUS_CHANGED");
+        assertThat(events).extracting(event -> event.get("status").asText())
+                .containsExactly("PENDING", "CONFIRMED");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.get("orderId").asLong()).isEqualTo(order.getId());
+            assertThat(event.get("eventId").asText()).isNotBlank();
+        });
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void failedDeliveryKeepsEventsForTheNextAttempt() {
+        orderService.createOrder(new OrderRequest("CUST-2", 2L, 1));
+        NOTIFICATIONS.setAvailable(false);
+
+        assertThatThrownBy(() -> outboxRelay.relayBatch()).isInstanceOf(RuntimeException.class);
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+        NOTIFICATIONS.setAvailable(true);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        assertThat(NOTIFICATIONS.events()).hasSize(1);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void batchIngestedOrdersAreRelayedInBatches() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            ndjson.append("{\"customerId\":\"CUST-").append(i).append("\",\"productId\":").append(i % 50 + 1).append(",\"quantity\":1}\n");
+        }
+        OrderBatchResponse response = orderBatchService.ingestNdjson(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+        assertThat(response.getCreated()).isEqualTo(1_200);
+
+        assertThat(outboxRelay.relayBatch()).isEqualTo(500);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(500);
+        assertThat(outboxRelay.relayBatch()).isEqualTo(200);
+        assertThat(outboxRelay.relayBatch()).isZero();
+
+        assertThat(NOTIFICATIONS.events()).extracting(event -> event.get("eventId").asText())
+                .doesNotHaveDuplicates()
+                .hasSize(1_200);
+    }
+}
@@ -0,0 +1,99 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.Order;
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.repository.JobLeaseRepository;
+import com.vyshali.order_service.repository.OrderRepository;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expired PENDING orders are cancelled in chunks while everything else is left alone, and
+ * the job lease is held by one replica at a time.
+ */
+@SpringBootTest(properties = "business.auto-cancel.chunk-size=3")
+@ActiveProfiles("h2")
+class PendingOrderExpiryTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PendingOrderExpiry pendingOrderExpiry;
+
+    @Autowired
+    private JobLeases jobLeases;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelsOnlyExpiredPendingOrders() {
+        List<Long> expired = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expired.add(placeOrder(Duration.ofHours(1)));
+        }
+        Long fresh = placeOrder(Duration.ofMinutes(5));
+        Long confirmed = placeOrder(Duration.ofHours(1));
+        orderService.updateOrderStatus(confirmed, new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+
+        assertThat(pendingOrderExpiry.cancelExpired()).isEqualTo(7);
+
+        assertThat(orderRepository.findAllById(expired)).extracting(Order::getStatus).containsOnly(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findById(fresh).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(orderRepository.findById(confirmed).orElseThrow().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(pendingOrderExpiry.cancelExpired()).isZero();
+    }
+
+    @Test
+    void leaseIsHeldByOneReplicaAtATime() {
+        JobLeases otherReplica = new JobLeases(jobLeaseRepository, transactionManager);
+
+        assertThat(jobLeases.tryAcquire("lease-test", Duration.ofMinutes(5))).isTrue();
+        assertThat(otherReplica.tryAcquire("lease-test", Duration.ofMinutes(5))).isFalse();
+        // Renewing a held lease succeeds
+        assertThat(jobLeases.tryAcquire("lease-test", Duration.ofMinutes(5))).isTrue();
+
+        jobLeases.release("lease-test");
+        assertThat(otherReplica.tryAcquire("lease-test", Duration.ofMinutes(5))).isTrue();
+        assertThat(jobLeases.tryAcquire("lease-test", Duration.ofMinutes(5))).isFalse();
+    }
+
+    private Long placeOrder(Duration age) {
+        Long id = orderService.createOrder(new OrderRequest("CUST-EXPIRY", 1L, 1)).getId();
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?", LocalDateTime.now().minus(age), id);
+        return id;
+    }
+}
@@ -0,0 +1,112 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.client.ProductDetails;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Product lookups against a stub product-service. Each test uses its own product ids,
+ * since the near-cache is shared by the whole context.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductCatalogTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private OrderService orderService;
+
+    @AfterEach
+    void resetLatency() {
+        PRODUCTS.setLatency(Duration.ZERO);
+    }
+
+    @Test
+    void concurrentLookupsOfOneProductShareOneRequest() throws Exception {
+        PRODUCTS.setLatency(Duration.ofMillis(200));
+        int before = PRODUCTS.requestCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ProductDetails>> lookups = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return productCatalog.getProduct(101L);
+                }));
+            }
+            start.countDown();
+            for (Future<ProductDetails> lookup : lookups) {
+                assertThat(lookup.get().getName()).isEqualTo("Product 101");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(PRODUCTS.requestCount() - before).isEqualTo(1);
+    }
+
+    @Test
+    void multiProductLookupFetchesMissingProductsInBatches() {
+        List<Long> ids = LongStream.rangeClosed(1_001, 1_250).boxed().toList();
+        productCatalog.getProduct(1_001L);
+        int before = PRODUCTS.requestCount();
+
+        Map<Long, ProductDetails> products = productCatalog.getProducts(ids);
+
+        assertThat(products).hasSize(250);
+        // 249 uncached ids at 100 per request
+        assertThat(PRODUCTS.requestCount() - before).isEqualTo(3);
+
+        productCatalog.getProducts(ids);
+        assertThat(PRODUCTS.requestCount() - before).isEqualTo(3);
+    }
+
+    @Test
+    void createOrderTakesNameAndPriceFromProductService() {
+        OrderResponse order = orderService.createOrder(new OrderRequest("CUST-1", 201L, 2));
+
+        assertThat(order.getProductName()).isEqualTo("Product 201");
+        assertThat(order.getUnitPrice()).isEqualByComparingTo(new BigDecimal("19.99"));
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("39.98"));
+    }
+
+    @Test
+    void unknownProductIsRejected() {
+        assertThatThrownBy(() -> orderService.createOrder(new OrderRequest("CUST-1", StubProductService.MAX_KNOWN_ID + 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Product not found");
+    }
+}
@@ -0,0 +1,65 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderRequest;
+import com.vyshali.order_service.dto.OrderResponse;
+import com.vyshali.order_service.dto.OrderStatusUpdateRequest;
+import com.vyshali.order_service.exception.ResourceNotFoundException;
+import com.vyshali.order_service.support.StubProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The R2DBC read path sees the orders written through JPA, exactly as the blocking lookups do.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ReactiveOrderServiceTest {
+
+    private static final StubProductService PRODUCTS = StubProductService.start();
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        PRODUCTS.register(registry);
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+
+    @Test
+    void lookupsMatchTheBlockingService() {
+        OrderResponse first = orderService.createOrder(new OrderRequest("CUST-R1", 1L, 2));
+        OrderResponse second = orderService.createOrder(new OrderRequest("CUST-R1", 2L, 3));
+        orderService.updateOrderStatus(second.getId(), new OrderStatusUpdateRequest(OrderStatus.CONFIRMED));
+
+        assertThat(reactiveOrderService.getOrderById(first.getId()).block())
+                .isEqualTo(orderService.getOrderById(first.getId()));
+
+        List<OrderResponse> history = reactiveOrderService.getOrdersByCustomerId("CUST-R1").collectList().block();
+        assertThat(history).containsExactlyInAnyOrderElementsOf(orderService.getOrdersByCustomerId("CUST-R1"));
+        assertThat(history).extracting(OrderResponse::getId).containsExactly(second.getId(), first.getId());
+
+        assertThat(reactiveOrderService.getOrdersByStatus(OrderStatus.CONFIRMED).collectList().block())
+                .extracting(OrderResponse::getId)
+                .contains(second.getId())
+                .doesNotContain(first.getId());
+    }
+
+    @Test
+    void missingOrderFailsWithNotFound() {
+        assertThatThrownBy(() -> reactiveOrderService.getOrderById(Long.MAX_VALUE).block())
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
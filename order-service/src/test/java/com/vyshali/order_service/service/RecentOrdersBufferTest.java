@@ -0,0 +1,93 @@
+package com.vyshali.order_service.service;
+
+import com.vyshali.order_service.domain.OrderStatus;
+import com.vyshali.order_service.dto.OrderResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeding, merging, eviction and in-place updates of the recent-orders ring buffer
+ */
+class RecentOrdersBufferTest {
+
+    private final RecentOrdersBuffer buffer = new RecentOrdersBuffer(3, true);
+
+    @Test
+    void seedsFromTheLoaderOnFirstReadOnly() {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<OrderResponse> first = buffer.snapshot(3, () -> {
+            loads.incrementAndGet();
+            return List.of(order(2), order(1));
+        });
+        List<OrderResponse> second = buffer.snapshot(3, List::of);
+
+        assertThat(ids(first)).containsExactly(2L, 1L);
+        assertThat(ids(second)).containsExactly(2L, 1L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void ordersRecordedDuringTheSeedLoadAreMergedAsNewest() {
+        List<OrderResponse> seeded = buffer.snapshot(3, () -> {
+            // Committed while the loader's query ran: one new order, one the query also returned
+            buffer.created(order(5));
+            buffer.created(order(4, OrderStatus.CONFIRMED));
+            return List.of(order(4), order(3));
+        });
+
+        assertThat(ids(seeded)).containsExactly(5L, 4L, 3L);
+        assertThat(seeded.get(1).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void oldestOrderIsEvictedAtCapacity() {
+        buffer.snapshot(3, List::of);
+
+        for (long id = 1; id <= 4; id++) {
+            buffer.created(order(id));
+        }
+
+        assertThat(ids(buffer.snapshot(10, List::of))).containsExactly(4L, 3L, 2L);
+        assertThat(ids(buffer.snapshot(2, List::of))).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void updatesReplaceEntriesInPlaceAndIgnoreEvictedOrders() {
+        buffer.snapshot(3, () -> List.of(order(3), order(2), order(1)));
+
+        buffer.updated(order(2, OrderStatus.CANCELLED));
+        buffer.updated(order(99, OrderStatus.CANCELLED));
+        buffer.recordUpdatedAfterCommit(order(1, OrderStatus.SHIPPED));
+
+        List<OrderResponse> recent = buffer.snapshot(3, List::of);
+        assertThat(ids(recent)).containsExactly(3L, 2L, 1L);
+        assertThat(recent).extracting(OrderResponse::getStatus)
+                .containsExactly(OrderStatus.PENDING, OrderStatus.CANCELLED, OrderStatus.SHIPPED);
+    }
+
+    @Test
+    void disabledBufferRecordsNothing() {
+        RecentOrdersBuffer disabled = new RecentOrdersBuffer(3, false);
+
+        disabled.recordCreatedAfterCommit(order(1));
+
+        assertThat(disabled.snapshot(3, List::of)).isEmpty();
+    }
+
+    private static OrderResponse order(long id) {
+        return order(id, OrderStatus.PENDING);
+    }
+
+    private static OrderResponse order(long id, OrderStatus status) {
+        return OrderResponse.builder().id(id).status(status).build();
+    }
+
+    private static List<Long> ids(List<OrderResponse> orders) {
+        return orders.stream().map(OrderResponse::getId).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.vyshali.order_service.support;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for the benchmarks: a fixed number of virtual-thread clients,
+ * each sending its next request as soon as the previous one answers.
+ */
+public final class ClosedLoopLoad {
+
+    private ClosedLoopLoad() {
+    }
+
+    /**
+     * One request by one client; returns false if the response was not the expected one
+     */
+    @FunctionalInterface
+    public interface Call {
+        boolean send(int client, int iteration) throws Exception;
+    }
+
+    /**
+     * Keep {@code concurrency} clients busy for {@code duration}
+     */
+    public static Result run(int concurrency, Duration duration, Call call) throws InterruptedException {
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        for (int c = 0; c < concurrency; c++) {
+            int client = c;
+            Thread.ofVirtual().start(() -> {
+                long[] own = new long[1024];
+                int n = 0;
+                int iteration = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        if (!send(call, client, iteration++)) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == own.length) {
+                            own = Arrays.copyOf(own, n * 2);
+                        }
+                        own[n++] = System.nanoTime() - sent;
+                    }
+                } finally {
+                    latencies[client] = own;
+                    counts[client] = n;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(concurrency, total, errors.get(), total / (elapsed / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static boolean send(Call call, int client, int iteration) {
+        try {
+            return call.send(client, iteration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000;
+    }
+
+    public record Result(int concurrency, int completed, long errors, double throughput, long p50Millis, long p99Millis) {
+
+        public String format(String label) {
+            return String.format("%-10s %,7d clients: %,8.0f req/s  p50 %,6d ms  p99 %,6d ms  errors %,d",
+                    label, concurrency, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.vyshali.order_service.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for notification-service's {@code POST /api/v1/notifications/order-events}.
+ * Records every event it accepts, or answers 503 while {@link #setAvailable} is false.
+ * Registered as the only {@code notification-service} instance via simple discovery.
+ */
+public final class StubNotificationService {
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> events = new CopyOnWriteArrayList<>();
+    private volatile boolean available = true;
+
+    private StubNotificationService(HttpServer server) {
+        this.server = server;
+    }
+
+    public static StubNotificationService start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            StubNotificationService stub = new StubNotificationService(server);
+            server.createContext("/api/v1/notifications/order-events", stub::handleOrderEvents);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return stub;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start stub notification-service", ex);
+        }
+    }
+
+    /**
+     * Point the load-balanced notification client at this stub
+     */
+    public void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.notification-service[0].uri",
+                () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    /**
+     * Events accepted so far, in arrival order
+     */
+    public List<JsonNode> events() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    private void handleOrderEvents(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode request = objectMapper.readTree(body);
+            if (!available) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            request.get("events").forEach(events::add);
+            exchange.sendResponseHeaders(200, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.vyshali.order_service.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for product-service's {@code GET /api/v1/products/batch}. Every id up to
+ * {@link #MAX_KNOWN_ID} exists as "Product {id}" at 19.99; larger ids are unknown.
+ * Registered as the only {@code product-service} instance via simple discovery.
+ */
+public final class StubProductService {
+
+    public static final long MAX_KNOWN_ID = 1_000_000;
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+
+    private StubProductService(HttpServer server) {
+        this.server = server;
+    }
+
+    public static StubProductService start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+            StubProductService stub = new StubProductService(server);
+            server.createContext("/api/v1/products/batch", stub::handleBatch);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return stub;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start stub product-service", ex);
+        }
+    }
+
+    /**
+     * Point the load-balanced product client at this stub
+     */
+    public void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.product-service[0].uri", this::baseUrl);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Number of batch requests served so far
+     */
+    public int requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Delay every response, standing in for a network round trip
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> products = new ArrayList<>();
+        String query = exchange.getRequestURI().getQuery();
+        for (String param : query == null ? new String[0] : query.split("&")) {
+            if (param.startsWith("ids=")) {
+                for (String value : param.substring(4).split(",")) {
+                    long id = Long.parseLong(value);
+                    if (id <= MAX_KNOWN_ID) {
+                        products.add("{\"id\":" + id + ",\"name\":\"Product " + id + "\",\"price\":19.99,\"stockQuantity\":1000}");
+                    }
+                }
+            }
+        }
+
+        byte[] body = ("[" + String.join(",", products) + "]").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
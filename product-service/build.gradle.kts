@@ -35,6 +35,10 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-actuator")
 
+	// Caching - Caffeine (W-TinyLFU eviction) behind Spring's cache abstraction
+	implementation("org.springframework.boot:spring-boot-starter-cache")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+
 	// Spring Cloud - Service Discovery
 	implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
 
@@ -67,8 +71,75 @@ dependencyManagement {
 	}
 }
 
-tasks.withType<Test> {
-	useJUnitPlatform()
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Latency comparisons tagged @Tag("benchmark"); run with ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmark-tagged tests against an in-memory H2 database"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	maxHeapSize = "4g"
+	systemProperty("benchmark.products", providers.gradleProperty("benchmark.products").getOrElse("1000000"))
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+}
+
+// JMH microbenchmarks in src/jmh/java; run with ./gradlew jmh (works with --offline once
+// dependencies are cached). Results, including the gc profiler's allocation rate
+// (gc.alloc.rate.norm, bytes per operation), go to build/reports/jmh/results.json.
+// Narrow the run with -Pjmh.include=<regex>, e.g. -Pjmh.include=OrderMapping
+val jmh: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations {
+	named(jmh.implementationConfigurationName) { extendsFrom(configurations.implementation.get()) }
+	named(jmh.runtimeOnlyConfigurationName) { extendsFrom(configurations.runtimeOnly.get()) }
+	named(jmh.compileOnlyConfigurationName) { extendsFrom(configurations.compileOnly.get()) }
+	named(jmh.annotationProcessorConfigurationName) { extendsFrom(configurations.annotationProcessor.get()) }
+}
+
+dependencies {
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+	description = "Runs the JMH microbenchmarks with the gc profiler"
+	group = "verification"
+	classpath = jmh.runtimeClasspath
+	mainClass.set("org.openjdk.jmh.Main")
+	val results = layout.buildDirectory.file("reports/jmh/results.json")
+	outputs.file(results)
+	outputs.upToDateWhen { false }
+	doFirst { results.get().asFile.parentFile.mkdirs() }
+	args(listOfNotNull(
+		providers.gradleProperty("jmh.include").orNull,
+		"-prof", "gc",
+		"-rf", "json",
+		"-rff", results.get().asFile.absolutePath
+	))
+}
+
+// Runs the service against in-memory H2 with Eureka and Config Server off, as the load-test
+// module does; pass Spring arguments with -PstandIn.args="--server.port=... ..."
+tasks.register<JavaExec>("standIn") {
+	description = "Runs the service against in-memory H2 instead of its real dependencies"
+	group = "application"
+	classpath = sourceSets.test.get().runtimeClasspath
+	mainClass.set("com.vyshali.product_service.ProductServiceApplication")
+	args("--spring.profiles.active=h2")
+	providers.gradleProperty("standIn.args").orNull?.let { extra -> args(extra.split(" ").filter { it.isNotBlank() }) }
 }
 
 tasks.bootJar {
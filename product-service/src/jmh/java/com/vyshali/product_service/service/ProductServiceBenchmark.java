@@ -0,0 +1,83 @@
+package com.vyshali.product_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vyshali.product_service.domain.Product;
+import com.vyshali.product_service.dto.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the product endpoints that does not touch the database: mapping a
+ * product to its response and serializing a page of responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"50"})
+    private int pageSize;
+
+    private ProductServiceImpl productService;
+    private ObjectMapper objectMapper;
+    private Product product;
+    private List<ProductResponse> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only the pure mapping is measured, so none of the collaborators are needed
+        productService = new ProductServiceImpl(null, null, null);
+        // Configured as spring.jackson configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        product = product(1L);
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            page.add(productService.mapToResponse(product(id)));
+        }
+    }
+
+    @Benchmark
+    public ProductResponse mapToResponse() {
+        return productService.mapToResponse(product);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Description of product " + id + ", long enough to be typical of the catalog");
+        product.setPrice(new BigDecimal("999.99"));
+        product.setStockQuantity((int) (id % 500));
+        product.setCreatedAt(LocalDateTime.of(2025, 10, 26, 10, 30).plusMinutes(id));
+        product.setUpdatedAt(product.getCreatedAt());
+        return product;
+    }
+}
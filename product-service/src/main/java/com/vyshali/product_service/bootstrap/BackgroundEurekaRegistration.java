@@ -0,0 +1,110 @@
+package com.vyshali.product_service.bootstrap;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.HealthCheckHandler;
+import com.netflix.discovery.EurekaClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.client.discovery.event.InstancePreRegisteredEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.CloudEurekaInstanceConfig;
+import org.springframework.cloud.netflix.eureka.serviceregistry.EurekaRegistration;
+import org.springframework.cloud.netflix.eureka.serviceregistry.EurekaServiceRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers with Eureka the way auto-registration would, but on a background thread, so the
+ * service is ready to serve as soon as its web server is up. Creating the Eureka client
+ * fetches the whole registry, which takes up to the client's timeouts when Eureka is slow or
+ * down. Requires {@code spring.cloud.service-registry.auto-registration.enabled=false}, and
+ * does nothing when the Eureka client is disabled.
+ * <p>
+ * Also in order-service and notification-service; see {@link ConfigSnapshot}.
+ */
+@Component
+@Slf4j
+public class BackgroundEurekaRegistration implements SmartLifecycle {
+
+    private final ObjectProvider<EurekaServiceRegistry> serviceRegistry;
+    private final ObjectProvider<EurekaClient> eurekaClient;
+    private final ObjectProvider<CloudEurekaInstanceConfig> instanceConfig;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final ObjectProvider<HealthCheckHandler> healthCheckHandler;
+    private final ApplicationEventPublisher publisher;
+
+    private volatile EurekaRegistration registration;
+    private volatile boolean registered;
+    private volatile boolean running;
+
+    public BackgroundEurekaRegistration(ObjectProvider<EurekaServiceRegistry> serviceRegistry,
+                                        ObjectProvider<EurekaClient> eurekaClient,
+                                        ObjectProvider<CloudEurekaInstanceConfig> instanceConfig,
+                                        ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                        ObjectProvider<HealthCheckHandler> healthCheckHandler,
+                                        ApplicationEventPublisher publisher) {
+        this.serviceRegistry = serviceRegistry;
+        this.eurekaClient = eurekaClient;
+        this.instanceConfig = instanceConfig;
+        this.applicationInfoManager = applicationInfoManager;
+        this.healthCheckHandler = healthCheckHandler;
+        this.publisher = publisher;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        // The management server, if separate, has a namespace and is not what clients call
+        if (event.getApplicationContext().getServerNamespace() != null || registration != null) {
+            return;
+        }
+        EurekaServiceRegistry registry = serviceRegistry.getIfAvailable();
+        CloudEurekaInstanceConfig config = instanceConfig.getIfAvailable();
+        if (registry == null || config == null) {
+            return;
+        }
+        EurekaRegistration eurekaRegistration = EurekaRegistration.builder(config)
+                .with(applicationInfoManager.getObject())
+                .with(eurekaClient.getObject())
+                .with(healthCheckHandler)
+                .build();
+        if (eurekaRegistration.getNonSecurePort() == 0) {
+            eurekaRegistration.setNonSecurePort(event.getWebServer().getPort());
+        }
+        registration = eurekaRegistration;
+        Thread.ofPlatform().name("eureka-registration").daemon().start(() -> register(registry, eurekaRegistration));
+    }
+
+    private void register(EurekaServiceRegistry registry, EurekaRegistration eurekaRegistration) {
+        try {
+            publisher.publishEvent(new InstancePreRegisteredEvent(this, eurekaRegistration));
+            registry.register(eurekaRegistration);
+            registered = true;
+            publisher.publishEvent(new InstanceRegisteredEvent<>(this, eurekaRegistration.getInstanceConfig()));
+        } catch (RuntimeException ex) {
+            log.error("Could not register {} with Eureka", eurekaRegistration.getServiceId(), ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        EurekaServiceRegistry registry = serviceRegistry.getIfAvailable();
+        if (registered && registry != null) {
+            registry.deregister(registration);
+            registered = false;
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
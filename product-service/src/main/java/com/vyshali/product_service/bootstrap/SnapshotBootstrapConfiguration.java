@@ -0,0 +1,17 @@
+package com.vyshali.product_service.bootstrap;
+
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Bootstrap-context configuration (listed in {@code META-INF/spring.factories}, and deliberately
+ * not a {@code @Configuration} so component scanning leaves it out of the application context).
+ * <p>
+ * Also in order-service and notification-service; see {@link ConfigSnapshot}.
+ */
+public class SnapshotBootstrapConfiguration {
+
+    @Bean
+    public SnapshotPropertySourceLocator snapshotPropertySourceLocator() {
+        return new SnapshotPropertySourceLocator();
+    }
+}
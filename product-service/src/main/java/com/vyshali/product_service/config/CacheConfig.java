@@ -0,0 +1,20 @@
+package com.vyshali.product_service.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the Caffeine-backed product cache configured under {@code spring.cache}.
+ * <p>
+ * The caching advice is ordered outside the transaction advice: a cache hit returns
+ * without opening a transaction or borrowing a connection, and evictions run after
+ * the update or delete has committed, so a read that starts after the commit never
+ * re-caches the old row.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+}
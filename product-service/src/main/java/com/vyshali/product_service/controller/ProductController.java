@@ -1,7 +1,10 @@
 package com.vyshali.product_service.controller;
 
+import com.vyshali.product_service.dto.BatchStockReservationRequest;
 import com.vyshali.product_service.dto.ProductRequest;
 import com.vyshali.product_service.dto.ProductResponse;
+import com.vyshali.product_service.dto.StockReservationRequest;
+import com.vyshali.product_service.service.ProductETags;
 import com.vyshali.product_service.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +13,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -23,8 +32,14 @@ import java.util.List;
 @Tag(name = "Product Management", description = "APIs for managing products in the catalog")
 public class ProductController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final ProductService productService;
 
+    /** How long clients and shared caches may reuse a catalog response before revalidating it */
+    @Value("${business.http-cache.max-age:PT5S}")
+    private Duration cacheMaxAge;
+
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product in the catalog")
     @ApiResponses(value = {@ApiResponse(responseCode = "201", description = "Product created successfully"), @ApiResponse(responseCode = "400", description = "Invalid input")})
@@ -36,20 +51,39 @@ public class ProductController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Returns a single product by its ID")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Product found"), @ApiResponse(responseCode = "404", description = "Product not found")})
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Product found"), @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag in If-None-Match"), @ApiResponse(responseCode = "404", description = "Product not found")})
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("REST request to get product with ID: {}", id);
+        if (ifNoneMatch != null) {
+            String eTag = productService.getProductETag(id);
+            if (matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+        }
         ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(ProductETags.of(response.getId(), response.getUpdatedAt())).cacheControl(cacheControl()).body(response);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Returns the products with the given IDs (at most 100); unknown IDs are left out")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Products found"), @ApiResponse(responseCode = "400", description = "Too many IDs")})
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam List<Long> ids) {
+        log.debug("REST request to get {} products by ID", ids.size());
+        List<ProductResponse> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
     }
 
     @GetMapping
     @Operation(summary = "Get all products", description = "Returns a list of all products")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successfully retrieved list"), @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag in If-None-Match")})
+    public ResponseEntity<List<ProductResponse>> getAllProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("REST request to get all products");
+        String eTag = productService.getCatalogETag();
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
         List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl()).body(products);
     }
 
     @PutMapping("/{id}")
@@ -70,21 +104,71 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/reservations")
+    @Operation(summary = "Reserve stock", description = "Atomically takes the given quantity off the product's stock")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Stock reserved"), @ApiResponse(responseCode = "404", description = "Product not found"), @ApiResponse(responseCode = "409", description = "Insufficient stock"), @ApiResponse(responseCode = "400", description = "Invalid input")})
+    public ResponseEntity<Void> reserveStock(@PathVariable Long id, @Valid @RequestBody StockReservationRequest request) {
+        log.debug("REST request to reserve {} units of product with ID: {}", request.getQuantity(), id);
+        productService.reserveStock(id, request.getQuantity());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/reservations")
+    @Operation(summary = "Reserve stock for several products", description = "Reserves every item or, if any product is missing or short, none of them")
+    @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Stock reserved"), @ApiResponse(responseCode = "404", description = "Product not found"), @ApiResponse(responseCode = "409", description = "Insufficient stock"), @ApiResponse(responseCode = "400", description = "Invalid input")})
+    public ResponseEntity<Void> reserveStock(@Valid @RequestBody BatchStockReservationRequest request) {
+        log.debug("REST request to reserve stock for {} items", request.getItems().size());
+        productService.reserveStock(request.getItems());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search products", description = "Search products by name or description")
-    @ApiResponse(responseCode = "200", description = "Search completed successfully")
-    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam(required = false, defaultValue = "") String term) {
+    @Operation(summary = "Search products", description = "Ranked, paginated search over product name and description; total matches in the X-Total-Count header")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Search completed successfully"), @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag in If-None-Match")})
+    public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam(required = false, defaultValue = "") String term, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("REST request to search products with term: {}", term);
-        List<ProductResponse> products = productService.searchProducts(term);
-        return ResponseEntity.ok(products);
+        String eTag = productService.getCatalogETag();
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        Page<ProductResponse> products = productService.searchProducts(term, page, size);
+        return ResponseEntity.ok().header(TOTAL_COUNT_HEADER, String.valueOf(products.getTotalElements())).eTag(eTag).cacheControl(cacheControl()).body(products.getContent());
     }
 
     @GetMapping("/in-stock")
     @Operation(summary = "Get products in stock", description = "Returns all products with quantity > 0")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
-    public ResponseEntity<List<ProductResponse>> getProductsInStock() {
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successfully retrieved products"), @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag in If-None-Match")})
+    public ResponseEntity<List<ProductResponse>> getProductsInStock(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("REST request to get products in stock");
+        String eTag = productService.getCatalogETag();
+        if (matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
         List<ProductResponse> products = productService.getProductsInStock();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl()).body(products);
+    }
+
+    /**
+     * Whether the client's If-None-Match names the current ETag (weak comparison, as RFC 9110 asks for GET).
+     * False when the resource has no ETag, so a missing product still gets its 404.
+     */
+    private boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl()).build();
+    }
+
+    /**
+     * Public, so the gateway and CDNs may share catalog responses; with a zero max-age every reuse is revalidated
+     */
+    private CacheControl cacheControl() {
+        CacheControl cacheControl = cacheMaxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(cacheMaxAge);
+        return cacheControl.cachePublic();
     }
 }
@@ -0,0 +1,8 @@
+package com.vyshali.product_service.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.vyshali.product_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the aggregate the catalog ETag is derived from
+ */
+public interface CatalogVersion {
+
+    Long getCount();
+
+    LocalDateTime getLastUpdatedAt();
+}
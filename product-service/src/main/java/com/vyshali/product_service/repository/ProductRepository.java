@@ -1,12 +1,21 @@
 package com.vyshali.product_service.repository;
 
 import com.vyshali.product_service.domain.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -28,8 +37,46 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findAllInStock();
 
     /**
-     * Custom query to search products by name or description
+     * Last update time of one product, for its ETag without loading the entity
+     */
+    @Query("SELECT p.updatedAt FROM Product p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Number of products and the latest update among them. Inserts and updates move the
+     * latest update, deletes the count, so the pair changes with every write to the catalog.
+     * A full scan; only used until the search indexer holds the same pair in memory.
+     */
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdatedAt FROM Product p")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Atomically take {@code quantity} units off a product's stock if at least that many are left.
+     * A single conditional UPDATE, so the row lock is held only for the statement and the commit.
+     *
+     * @return 1 if the stock was reserved, 0 if the product is missing or has too little stock
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    /**
+     * Custom query to search products by name or description. Full table scan; only
+     * used while the in-memory search index is still being built.
      */
     @Query("SELECT p FROM Product p WHERE " + "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " + "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Product> searchProducts(@Param("searchTerm") String searchTerm);
+    Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    /**
+     * Stream the searchable fields of every product. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.updatedAt AS updatedAt FROM Product p")
+    Stream<ProductSearchFields> streamSearchFields();
+
+    /**
+     * Searchable fields of products created or updated after the given time
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.updatedAt AS updatedAt FROM Product p WHERE p.updatedAt > :since")
+    List<ProductSearchFields> findSearchFieldsUpdatedSince(@Param("since") LocalDateTime since);
 }
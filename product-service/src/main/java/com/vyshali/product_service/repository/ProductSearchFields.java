@@ -0,0 +1,18 @@
+package com.vyshali.product_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the product columns covered by the search index, plus {@code updated_at} for
+ * the catalog version the indexer keeps
+ */
+public interface ProductSearchFields {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,449 @@
+package com.vyshali.product_service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description.
+ * <p>
+ * Text is split into case-folded alphanumeric terms. Each term has two sorted
+ * posting lists of product ids, one per field. A query term matches indexed terms
+ * in three ways, best first: exactly, as a prefix, or (three or more characters)
+ * anywhere inside the term, found through a trigram-to-term map. A product must
+ * match every query term. It is scored by match quality times inverse document
+ * frequency, with name hits weighted above description hits.
+ * <p>
+ * Reads share a read lock. Writes replace the affected posting arrays under the
+ * write lock, which suits a catalog that changes far less often than it is searched.
+ * Bulk loads go through {@link Builder}, which sorts each posting list once.
+ */
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.6f;
+    private static final float INFIX_MATCH = 0.3f;
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+    /** Best score first, ties by id so pages are stable */
+    private static final Comparator<Map.Entry<Long, Float>> RANKING = Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Ids of one result page, best match first, plus the total number of matches
+     */
+    public record Result(List<Long> ids, long total) {
+
+        static final Result EMPTY = new Result(Collections.emptyList(), 0);
+    }
+
+    private static final class Postings {
+        final String term;
+        long[] name = EMPTY;
+        long[] description = EMPTY;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        boolean isEmpty() {
+            return name.length == 0 && description.length == 0;
+        }
+    }
+
+    /**
+     * Forward entry used to find a product's postings when it is re-indexed or removed
+     */
+    private record Document(Postings[] name, Postings[] description) {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a product, or re-index it if it is already present. Re-indexing a product
+     * whose terms have not changed is a no-op.
+     */
+    public void put(long id, String name, String description) {
+        String[] nameTerms = Tokenizer.terms(name);
+        String[] descriptionTerms = Tokenizer.terms(description);
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.get(id);
+            if (existing != null && sameTerms(existing.name(), nameTerms) && sameTerms(existing.description(), descriptionTerms)) {
+                return;
+            }
+            removeLocked(id);
+            Postings[] namePostings = new Postings[nameTerms.length];
+            for (int i = 0; i < nameTerms.length; i++) {
+                namePostings[i] = postingsFor(nameTerms[i]);
+                namePostings[i].name = insert(namePostings[i].name, id);
+            }
+            Postings[] descriptionPostings = new Postings[descriptionTerms.length];
+            for (int i = 0; i < descriptionTerms.length; i++) {
+                descriptionPostings[i] = postingsFor(descriptionTerms[i]);
+                descriptionPostings[i].description = insert(descriptionPostings[i].description, id);
+            }
+            documents.put(id, new Document(namePostings, descriptionPostings));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the product is indexed with exactly these terms, so that {@link #put} would be a no-op
+     */
+    public boolean isCurrent(long id, String name, String description) {
+        String[] nameTerms = Tokenizer.terms(name);
+        String[] descriptionTerms = Tokenizer.terms(description);
+        lock.readLock().lock();
+        try {
+            Document existing = documents.get(id);
+            return existing != null && sameTerms(existing.name(), nameTerms) && sameTerms(existing.description(), descriptionTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search for products matching every term of {@code query}.
+     * A query without any terms matches nothing.
+     */
+    public Result search(String query, int offset, int limit) {
+        String[] queryTerms = Tokenizer.terms(query);
+        if (queryTerms.length == 0) {
+            return Result.EMPTY;
+        }
+
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = match(queryTerm);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return Result.EMPTY;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int from = Math.max(offset, 0);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), scores.size());
+        if (from >= to) {
+            return new Result(Collections.emptyList(), scores.size());
+        }
+        return new Result(topRanked(scores, to).subList(from, to), scores.size());
+    }
+
+    /**
+     * The {@code n} best-ranked ids, best first. A bounded heap keeps this O(matches log n),
+     * where a short prefix can match most of the catalog and a page is only a few entries.
+     */
+    private static List<Long> topRanked(Map<Long, Float> scores, int n) {
+        // Worst of the kept entries at the head, so it is the one a better match replaces
+        PriorityQueue<Map.Entry<Long, Float>> kept = new PriorityQueue<>(n, RANKING.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (kept.size() < n) {
+                kept.add(entry);
+            } else if (RANKING.compare(entry, kept.peek()) < 0) {
+                kept.poll();
+                kept.add(entry);
+            }
+        }
+        Long[] ids = new Long[kept.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = kept.poll().getKey();
+        }
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * Best score per product for one query term over all indexed terms it matches
+     */
+    private Map<Long, Float> match(String queryTerm) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Postings exact = terms.get(queryTerm);
+        if (exact != null) {
+            accumulate(scores, exact, EXACT_MATCH);
+        }
+        for (Postings postings : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+            accumulate(scores, postings, PREFIX_MATCH);
+        }
+        if (queryTerm.length() >= GRAM) {
+            for (String term : infixCandidates(queryTerm)) {
+                if (!term.startsWith(queryTerm) && term.contains(queryTerm)) {
+                    accumulate(scores, terms.get(term), INFIX_MATCH);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Indexed terms that share every trigram of the query term, a superset of the terms containing it
+     */
+    private Set<String> infixCandidates(String queryTerm) {
+        List<Set<String>> sets = new ArrayList<>();
+        Set<String> smallest = null;
+        for (String gram : grams(queryTerm)) {
+            Set<String> containing = trigrams.get(gram);
+            if (containing == null) {
+                return Collections.emptySet();
+            }
+            sets.add(containing);
+            if (smallest == null || containing.size() < smallest.size()) {
+                smallest = containing;
+            }
+        }
+        if (smallest == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> candidates = new HashSet<>();
+        for (String term : smallest) {
+            boolean inAll = true;
+            for (Set<String> set : sets) {
+                if (set != smallest && !set.contains(term)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                candidates.add(term);
+            }
+        }
+        return candidates;
+    }
+
+    private void accumulate(Map<Long, Float> scores, Postings postings, float quality) {
+        double idf = Math.log(1.0 + (double) documents.size() / (postings.name.length + postings.description.length));
+        float nameScore = (float) (quality * idf * NAME_WEIGHT);
+        float descriptionScore = (float) (quality * idf * DESCRIPTION_WEIGHT);
+
+        for (long id : postings.name) {
+            float score = nameScore + (Arrays.binarySearch(postings.description, id) >= 0 ? descriptionScore : 0f);
+            scores.merge(id, score, Math::max);
+        }
+        for (long id : postings.description) {
+            if (Arrays.binarySearch(postings.name, id) < 0) {
+                scores.merge(id, descriptionScore, Math::max);
+            }
+        }
+    }
+
+    private static Map<Long, Float> intersect(Map<Long, Float> a, Map<Long, Float> b) {
+        Map<Long, Float> smaller = a.size() <= b.size() ? a : b;
+        Map<Long, Float> larger = smaller == a ? b : a;
+        Map<Long, Float> both = new HashMap<>(smaller.size() * 2);
+        for (Map.Entry<Long, Float> entry : smaller.entrySet()) {
+            Float other = larger.get(entry.getKey());
+            if (other != null) {
+                both.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return both;
+    }
+
+    private static boolean sameTerms(Postings[] postings, String[] terms) {
+        if (postings.length != terms.length) {
+            return false;
+        }
+        for (int i = 0; i < terms.length; i++) {
+            if (!postings[i].term.equals(terms[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeLocked(long id) {
+        Document old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (Postings postings : old.name()) {
+            postings.name = delete(postings.name, id);
+            dropIfEmpty(postings);
+        }
+        for (Postings postings : old.description()) {
+            postings.description = delete(postings.description, id);
+            dropIfEmpty(postings);
+        }
+    }
+
+    private Postings postingsFor(String term) {
+        Postings postings = terms.get(term);
+        if (postings == null) {
+            postings = new Postings(term);
+            terms.put(term, postings);
+            for (String gram : grams(term)) {
+                trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+        return postings;
+    }
+
+    private void dropIfEmpty(Postings postings) {
+        if (!postings.isEmpty() || terms.get(postings.term) != postings) {
+            return;
+        }
+        terms.remove(postings.term);
+        for (String gram : grams(postings.term)) {
+            Set<String> containing = trigrams.get(gram);
+            if (containing != null) {
+                containing.remove(postings.term);
+                if (containing.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String term) {
+        if (term.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        int insertion = -at - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertion);
+        copy[insertion] = id;
+        System.arraycopy(ids, insertion, copy, insertion + 1, ids.length - insertion);
+        return copy;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    /**
+     * Collects products and builds an index with each posting list sorted once,
+     * instead of one array copy per {@link #put}
+     */
+    public static final class Builder {
+
+        private final Map<String, GrowableIds> nameIds = new HashMap<>();
+        private final Map<String, GrowableIds> descriptionIds = new HashMap<>();
+        private final Map<Long, String[][]> documentTerms = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(long id, String name, String description) {
+            String[] nameTerms = Tokenizer.terms(name);
+            String[] descriptionTerms = Tokenizer.terms(description);
+            if (documentTerms.put(id, new String[][] {nameTerms, descriptionTerms}) != null) {
+                throw new IllegalArgumentException("Product " + id + " added twice");
+            }
+            for (String term : nameTerms) {
+                nameIds.computeIfAbsent(term, t -> new GrowableIds()).add(id);
+            }
+            for (String term : descriptionTerms) {
+                descriptionIds.computeIfAbsent(term, t -> new GrowableIds()).add(id);
+            }
+            return this;
+        }
+
+        public ProductSearchIndex build() {
+            ProductSearchIndex index = new ProductSearchIndex();
+            nameIds.forEach((term, ids) -> index.postingsFor(term).name = ids.sorted());
+            descriptionIds.forEach((term, ids) -> index.postingsFor(term).description = ids.sorted());
+            documentTerms.forEach((id, fields) -> {
+                Postings[] name = new Postings[fields[0].length];
+                for (int i = 0; i < name.length; i++) {
+                    name[i] = index.terms.get(fields[0][i]);
+                }
+                Postings[] description = new Postings[fields[1].length];
+                for (int i = 0; i < description.length; i++) {
+                    description[i] = index.terms.get(fields[1][i]);
+                }
+                index.documents.put(id, new Document(name, description));
+            });
+            return index;
+        }
+    }
+
+    private static final class GrowableIds {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] sorted() {
+            long[] result = Arrays.copyOf(ids, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.vyshali.product_service.search;
+
+import com.vyshali.product_service.domain.Product;
+import com.vyshali.product_service.repository.CatalogVersion;
+import com.vyshali.product_service.repository.ProductRepository;
+import com.vyshali.product_service.repository.ProductSearchFields;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Owns the live {@link ProductSearchIndex} and keeps it in step with the database.
+ * <ul>
+ *     <li>Built in the background once the application is ready; until then
+ *     {@link #search} returns null and callers fall back to the database.</li>
+ *     <li>Changes made through this instance are applied after commit.</li>
+ *     <li>Changes made by other replicas are picked up by polling {@code updated_at}.
+ *     Deletes made elsewhere are caught by the periodic full rebuild. Until then,
+ *     callers drop ids that no longer load.</li>
+ *     <li>Alongside the index it keeps the {@link #catalogVersion catalog version}, so catalog
+ *     ETags need no query against the table.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class ProductSearchIndexer {
+
+    /** Re-read a little before the last sync to tolerate clock skew between replicas */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    /** Above this many changed products a sync falls back to a full rebuild */
+    private static final int REBUILD_THRESHOLD = 10_000;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile ProductSearchIndex index;
+    private volatile LocalDateTime syncedUpTo;
+    /** Latest {@code updated_at} read by a build or sync, or written through this instance */
+    private final AtomicReference<LocalDateTime> lastUpdatedAt = new AtomicReference<>();
+
+    public ProductSearchIndexer(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Search the index, or return null while it has not been built yet
+     */
+    public ProductSearchIndex.Result search(String query, int offset, int limit) {
+        ProductSearchIndex current = index;
+        return current == null ? null : current.search(query, offset, limit);
+    }
+
+    /**
+     * Product count and latest update as of the index, or null while it has not been built yet.
+     * Changes made on other replicas show up with the next sync; deletes made there, with the
+     * next rebuild.
+     */
+    public CatalogVersion catalogVersion() {
+        ProductSearchIndex current = index;
+        return current == null ? null : new IndexedCatalogVersion((long) current.size(), lastUpdatedAt.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofVirtual().name("product-search-index-build").start(this::rebuild);
+    }
+
+    /**
+     * Build a fresh index from the database and swap it in
+     */
+    @Scheduled(fixedDelayString = "${business.search.rebuild-interval:PT1H}", initialDelayString = "${business.search.rebuild-interval:PT1H}")
+    public void rebuild() {
+        // A lock rather than synchronized: the build blocks on JDBC, and a virtual thread
+        // blocked inside a monitor pins its carrier thread
+        lock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        ProductSearchIndex.Builder builder = ProductSearchIndex.builder();
+        AtomicReference<LocalDateTime> latest = new AtomicReference<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductSearchFields> rows = productRepository.streamSearchFields()) {
+                    rows.forEach(row -> {
+                        builder.add(row.getId(), row.getName(), row.getDescription());
+                        latest.accumulateAndGet(row.getUpdatedAt(), ProductSearchIndexer::later);
+                    });
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to build product search index", ex);
+            return;
+        }
+
+        ProductSearchIndex built = builder.build();
+        index = built;
+        lastUpdatedAt.set(latest.get());
+        syncedUpTo = startedAt;
+        log.info("Product search index built: {} products, {} terms in {} ms", built.size(), built.termCount(), (System.nanoTime() - start) / 1_000_000);
+
+        // Catch up with anything written while the index was being built. Rows the build
+        // already saw are no-ops, so this must not fall back to another rebuild.
+        syncChanges(false);
+    }
+
+    /**
+     * Re-index products changed since the last sync, including those changed by other replicas
+     */
+    @Scheduled(fixedDelayString = "${business.search.sync-interval:PT30S}")
+    public void sync() {
+        lock.lock();
+        try {
+            syncChanges(true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncChanges(boolean rebuildOnBulkChange) {
+        ProductSearchIndex current = index;
+        if (current == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Stock and price updates also touch updated_at; only rows whose text changed need re-indexing
+        List<ProductSearchFields> updated = productRepository.findSearchFieldsUpdatedSince(syncedUpTo.minus(SYNC_OVERLAP));
+        List<ProductSearchFields> changed = updated.stream().filter(row -> !current.isCurrent(row.getId(), row.getName(), row.getDescription())).toList();
+        if (rebuildOnBulkChange && changed.size() > REBUILD_THRESHOLD) {
+            // A bulk import is cheaper to absorb with one sorted build than with per-product array copies
+            log.info("{} products changed since last sync, rebuilding search index", changed.size());
+            rebuildLocked();
+            return;
+        }
+        for (ProductSearchFields row : changed) {
+            current.put(row.getId(), row.getName(), row.getDescription());
+        }
+        // Moved only once the index holds the changes, so a search tagged with the new version includes them
+        updated.forEach(row -> lastUpdatedAt.accumulateAndGet(row.getUpdatedAt(), ProductSearchIndexer::later));
+        syncedUpTo = now;
+        if (!changed.isEmpty()) {
+            log.debug("Re-indexed {} changed products", changed.size());
+        }
+    }
+
+    /**
+     * Index a created or updated product once the surrounding transaction commits
+     */
+    public void indexAfterCommit(Product product) {
+        long id = product.getId();
+        String name = product.getName();
+        String description = product.getDescription();
+        afterCommit(() -> {
+            ProductSearchIndex current = index;
+            if (current != null) {
+                current.put(id, name, description);
+            }
+            // Read here: updated_at is set when the entity is flushed, after this was registered
+            lastUpdatedAt.accumulateAndGet(product.getUpdatedAt(), ProductSearchIndexer::later);
+        });
+    }
+
+    /**
+     * Move the catalog version for a change that leaves the indexed text alone, such as a
+     * stock reservation, once the surrounding transaction commits
+     */
+    public void updatedAfterCommit(LocalDateTime updatedAt) {
+        afterCommit(() -> lastUpdatedAt.accumulateAndGet(updatedAt, ProductSearchIndexer::later));
+    }
+
+    /**
+     * Drop a deleted product once the surrounding transaction commits
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            ProductSearchIndex current = index;
+            if (current != null) {
+                current.remove(id);
+            }
+        });
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private record IndexedCatalogVersion(Long count, LocalDateTime lastUpdatedAt) implements CatalogVersion {
+
+        @Override
+        public Long getCount() {
+            return count;
+        }
+
+        @Override
+        public LocalDateTime getLastUpdatedAt() {
+            return lastUpdatedAt;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.vyshali.product_service.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into distinct, lower-cased runs of letters and digits
+ */
+final class Tokenizer {
+
+    private static final String[] NONE = new String[0];
+
+    private Tokenizer() {
+    }
+
+    static String[] terms(String text) {
+        if (text == null || text.isEmpty()) {
+            return NONE;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms.toArray(NONE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.vyshali.product_service.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong ETag values for one product and for the catalog as a whole. Every write to a
+ * product row moves its {@code updated_at}, so the tags change whenever the JSON would.
+ */
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    public static String of(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + epochMicros(updatedAt) + "\"";
+    }
+
+    public static String ofCatalog(long count, LocalDateTime lastUpdatedAt) {
+        return "\"catalog-" + count + "-" + epochMicros(lastUpdatedAt) + "\"";
+    }
+
+    /**
+     * Microseconds, the precision PostgreSQL keeps, so a row reads back with the tag it was written with.
+     * Rounded rather than truncated, as the database does when it stores a nanosecond timestamp.
+     */
+    private static long epochMicros(LocalDateTime time) {
+        return time == null ? 0 : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (time.getNano() + 500) / 1_000;
+    }
+}
@@ -2,7 +2,10 @@ package com.vyshali.product_service.service;
 
 import com.vyshali.product_service.dto.ProductRequest;
 import com.vyshali.product_service.dto.ProductResponse;
+import com.vyshali.product_service.dto.StockReservationItem;
+import org.springframework.data.domain.Page;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
@@ -17,6 +20,23 @@ public interface ProductService {
      */
     ProductResponse getProductById(Long id);
 
+    /**
+     * ETag of a product without loading it, or null if it does not exist
+     */
+    String getProductETag(Long id);
+
+    /**
+     * ETag of the catalog as a whole, shared by the list and search endpoints. Taken from the
+     * search index's catalog version once it is built, so it follows writes on other replicas
+     * only as closely as the index does.
+     */
+    String getCatalogETag();
+
+    /**
+     * Get the products with the given IDs; IDs that do not exist are left out
+     */
+    List<ProductResponse> getProductsByIds(Collection<Long> ids);
+
     /**
      * Get all products
      */
@@ -33,9 +53,19 @@ public interface ProductService {
     void deleteProduct(Long id);
 
     /**
-     * Search products by name
+     * Atomically reserve stock of one product
+     */
+    void reserveStock(Long id, int quantity);
+
+    /**
+     * Atomically reserve stock of several products; either every item is reserved or none is
+     */
+    void reserveStock(List<StockReservationItem> items);
+
+    /**
+     * Search products by name or description, best matches first
      */
-    List<ProductResponse> searchProducts(String searchTerm);
+    Page<ProductResponse> searchProducts(String searchTerm, int page, int size);
 
     /**
      * Get products in stock
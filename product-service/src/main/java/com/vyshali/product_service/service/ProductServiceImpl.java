@@ -1,16 +1,41 @@
 package com.vyshali.product_service.service;
 
+import com.vyshali.product_service.config.CacheConfig;
 import com.vyshali.product_service.domain.Product;
 import com.vyshali.product_service.dto.ProductRequest;
 import com.vyshali.product_service.dto.ProductResponse;
+import com.vyshali.product_service.dto.StockReservationItem;
+import com.vyshali.product_service.exception.InsufficientStockException;
 import com.vyshali.product_service.exception.ResourceNotFoundException;
+import com.vyshali.product_service.repository.CatalogVersion;
 import com.vyshali.product_service.repository.ProductRepository;
+import com.vyshali.product_service.search.ProductSearchIndex;
+import com.vyshali.product_service.search.ProductSearchIndexer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,7 +44,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_IDS_PER_LOOKUP = 100;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndexer productSearchIndexer;
+    private final CacheManager cacheManager;
+
+    @Value("${business.max-products-per-page:50}")
+    private int maxProductsPerPage;
 
     @Override
     public ProductResponse createProduct(ProductRequest request) {
@@ -33,12 +65,14 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
+        productSearchIndexer.indexAfterCommit(savedProduct);
 
         return mapToResponse(savedProduct);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse getProductById(Long id) {
         log.info("Fetching product with ID: {}", id);
 
@@ -47,6 +81,41 @@ public class ProductServiceImpl implements ProductService {
         return mapToResponse(product);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getProductETag(Long id) {
+        // Like a getProductById cache hit, a cached product is answered without borrowing a connection
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        ProductResponse cached = cache == null ? null : cache.get(id, ProductResponse.class);
+        if (cached != null) {
+            return ProductETags.of(id, cached.getUpdatedAt());
+        }
+        return productRepository.findUpdatedAtById(id).map(updatedAt -> ProductETags.of(id, updatedAt)).orElse(null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getCatalogETag() {
+        // Held in memory once the search index is built; the table is only scanned before that
+        CatalogVersion version = productSearchIndexer.catalogVersion();
+        if (version == null) {
+            version = productRepository.findCatalogVersion();
+        }
+        return ProductETags.ofCatalog(version.getCount(), version.getLastUpdatedAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(Collection<Long> ids) {
+        log.debug("Fetching {} products by ID", ids.size());
+
+        if (ids.size() > MAX_IDS_PER_LOOKUP) {
+            throw new IllegalArgumentException("At most " + MAX_IDS_PER_LOOKUP + " product IDs can be fetched at once");
+        }
+        List<Product> products = productRepository.findAllById(ids);
+        return products.stream().map(this::mapToResponse).collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
@@ -57,6 +126,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         log.info("Updating product with ID: {}", id);
 
@@ -69,11 +139,13 @@ public class ProductServiceImpl implements ProductService {
 
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
+        productSearchIndexer.indexAfterCommit(updatedProduct);
 
         return mapToResponse(updatedProduct);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
 
@@ -83,15 +155,62 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.deleteById(id);
         log.info("Product deleted successfully with ID: {}", id);
+        productSearchIndexer.removeAfterCommit(id);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public void reserveStock(Long id, int quantity) {
+        log.debug("Reserving {} units of product ID: {}", quantity, id);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (productRepository.reserveStock(id, quantity, now) == 0) {
+            throw reservationFailure(id, quantity);
+        }
+        productSearchIndexer.updatedAfterCommit(now);
+    }
+
+    @Override
+    public void reserveStock(List<StockReservationItem> items) {
+        log.debug("Reserving stock for {} items", items.size());
+
+        // Merge repeated products and update rows in id order, so concurrent batches lock in the same order and cannot deadlock
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationItem item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue(), now) == 0) {
+                // Rolls back the reservations already made in this batch
+                throw reservationFailure(entry.getKey(), entry.getValue());
+            }
+        }
+        evictAfterCommit(quantities.keySet());
+        productSearchIndexer.updatedAfterCommit(now);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> searchProducts(String searchTerm) {
+    public Page<ProductResponse> searchProducts(String searchTerm, int page, int size) {
         log.info("Searching products with term: {}", searchTerm);
 
-        List<Product> products = productRepository.searchProducts(searchTerm);
-        return products.stream().map(this::mapToResponse).collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, maxProductsPerPage)));
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return productRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))).map(this::mapToResponse);
+        }
+
+        ProductSearchIndex.Result result = productSearchIndexer.search(searchTerm, (int) pageable.getOffset(), pageable.getPageSize());
+        if (result == null) {
+            log.debug("Search index not built yet, falling back to database scan");
+            return productRepository.searchProducts(searchTerm, pageable).map(this::mapToResponse);
+        }
+
+        // Load only the ranked page by primary key and keep the index order; ids deleted by another replica are dropped
+        Map<Long, Product> products = productRepository.findAllById(result.ids()).stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponse> content = result.ids().stream().map(products::get).filter(Objects::nonNull).map(this::mapToResponse).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, result.total());
     }
 
     @Override
@@ -104,9 +223,36 @@ public class ProductServiceImpl implements ProductService {
     }
 
     /**
-     * Helper method to map Product entity to ProductResponse DTO
+     * Tell a missing product apart from one that is out of stock after a reservation matched no row
+     */
+    private RuntimeException reservationFailure(Long id, int quantity) {
+        if (!productRepository.existsById(id)) {
+            return new ResourceNotFoundException("Product not found with ID: " + id);
+        }
+        return new InsufficientStockException("Insufficient stock for product ID " + id + ": requested " + quantity);
+    }
+
+    /**
+     * Evict cached products once the surrounding transaction commits, so a concurrent read cannot re-cache the old stock
+     */
+    private void evictAfterCommit(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(cache::evict);
+            }
+        });
+    }
+
+    /**
+     * Helper method to map Product entity to ProductResponse DTO.
+     * Package-private for the JMH benchmarks in src/jmh.
      */
-    private ProductResponse mapToResponse(Product product) {
+    ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder().id(product.getId()).name(product.getName()).description(product.getDescription()).price(product.getPrice()).stockQuantity(product.getStockQuantity()).createdAt(product.getCreatedAt()).updatedAt(product.getUpdatedAt()).build();
     }
 }
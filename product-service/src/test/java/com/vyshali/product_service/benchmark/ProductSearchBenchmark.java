@@ -0,0 +1,115 @@
+package com.vyshali.product_service.benchmark;
+
+import com.vyshali.product_service.repository.ProductRepository;
+import com.vyshali.product_service.search.ProductSearchIndexer;
+import com.vyshali.product_service.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search latency of the in-memory index against the {@code LOWER(...) LIKE '%term%'} scan
+ * over a synthetic catalog (1M products by default, -Pbenchmark.products=N to change).
+ * Both paths return the first page of 20 plus the total match count.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@Tag("benchmark")
+class ProductSearchBenchmark {
+
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Vandelay", "Stark", "Wayne", "Wonka", "Cyberdyne"};
+    private static final String[] ADJECTIVES = {"Wireless", "Portable", "Ergonomic", "Smart", "Compact", "Premium", "Rugged", "Ultra", "Classic", "Digital"};
+    private static final String[] NOUNS = {"Headphones", "Keyboard", "Monitor", "Speaker", "Charger", "Backpack", "Camera", "Blender", "Lamp", "Router", "Watch", "Drone"};
+    private static final String[] WORDS = {"battery", "bluetooth", "cable", "durable", "lightweight", "waterproof", "stainless", "steel", "aluminium", "noise", "cancelling", "travel", "office", "gaming", "outdoor", "kitchen", "charging", "fast", "display", "warranty"};
+    private static final String[] QUERIES = {"headphones", "wire", "ireless", "smart watch", "x1234", "waterproof travel backpack", "w", "sm"};
+    private static final int RUNS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndexer productSearchIndexer;
+
+    @Test
+    void indexSearchIsFasterThanLikeScan() {
+        int products = Integer.getInteger("benchmark.products", 1_000_000);
+        seed(products);
+
+        long buildStart = System.nanoTime();
+        productSearchIndexer.rebuild();
+        System.out.printf("catalog: %,d products, index built in %,d ms%n", products, (System.nanoTime() - buildStart) / 1_000_000);
+
+        System.out.printf("%-28s %12s %12s %12s%n", "query", "LIKE (ms)", "index (ms)", "matches");
+        for (String query : QUERIES) {
+            long likeTotal = productRepository.searchProducts(query, PageRequest.of(0, 20)).getTotalElements();
+            long indexTotal = productService.searchProducts(query, 0, 20).getTotalElements();
+
+            double likeMillis = median(() -> productRepository.searchProducts(query, PageRequest.of(0, 20)));
+            double indexMillis = median(() -> productService.searchProducts(query, 0, 20));
+            System.out.printf("%-28s %12.2f %12.3f %12s%n", query, likeMillis, indexMillis, indexTotal + " / " + likeTotal);
+
+            // Term matching is at least as broad as a single-substring LIKE for one-word queries;
+            // below three characters it matches prefixes only, so one- and two-letter queries are narrower
+            if (!query.contains(" ") && query.length() >= 3) {
+                assertThat(indexTotal).isGreaterThanOrEqualTo(likeTotal);
+            }
+        }
+    }
+
+    private void seed(int products) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < products; i++) {
+            String name = pick(random, BRANDS) + " " + pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " X" + random.nextInt(10_000);
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 12; w++) {
+                description.append(pick(random, WORDS)).append(' ');
+            }
+            batch.add(new Object[] {name, description.toString().trim(), "19.99", random.nextInt(500), now, now});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, stock_quantity, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double median(Runnable query) {
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
@@ -0,0 +1,103 @@
+package com.vyshali.product_service.bootstrap;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.core.env.PropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Booting from the saved environment, and catching up with config-server afterwards, against
+ * a stub config-server. Copied in product-service and notification-service, like the classes it tests.
+ */
+class ConfigSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private HttpServer configServer;
+    private volatile String greeting = "hello";
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void startConfigServer() throws IOException {
+        configServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        configServer.createContext("/product-service/default", exchange -> {
+            String etag = "W/\"" + greeting + "\"";
+            String sent = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(String.valueOf(sent));
+            if (etag.equals(sent)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = ("{\"name\":\"product-service\",\"version\":\"abc\",\"propertySources\":[{\"name\":\"product-service.yml\","
+                        + "\"source\":{\"greeting\":\"" + greeting + "\",\"business.limit\":5}}]}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        configServer.start();
+        environment = new MockEnvironment()
+                .withProperty("spring.application.name", "product-service")
+                .withProperty("spring.cloud.config.uri", "http://localhost:" + configServer.getAddress().getPort())
+                .withProperty("bootstrap-snapshot.dir", dir.toString());
+    }
+
+    @AfterEach
+    void stopConfigServer() {
+        configServer.stop(0);
+    }
+
+    @Test
+    void bootsFromTheSnapshotOnceConfigServerIsGone() {
+        PropertySource<?> fetched = new SnapshotPropertySourceLocator().locate(environment);
+        assertThat(fetched.getProperty("greeting")).isEqualTo("hello");
+        assertThat(fetched.getProperty("business.limit")).isEqualTo(5);
+        assertThat(fetched.getProperty("config.client.version")).isEqualTo("abc");
+
+        configServer.stop(0);
+        PropertySource<?> saved = new SnapshotPropertySourceLocator().locate(environment);
+        assertThat(saved.getProperty("greeting")).isEqualTo("hello");
+        assertThat(ConfigSnapshot.of(environment).file()).isRegularFile();
+    }
+
+    @Test
+    void reconcilerRefreshesOnlyWhenTheEnvironmentChanged() {
+        ContextRefresher refresher = mock(ContextRefresher.class);
+        when(refresher.refresh()).thenReturn(Set.of("greeting"));
+        ConfigSnapshotReconciler reconciler = new ConfigSnapshotReconciler(environment,
+                new StaticListableBeanFactory(Map.of("contextRefresher", refresher)).getBeanProvider(ContextRefresher.class),
+                true);
+        new SnapshotPropertySourceLocator().locate(environment);
+
+        reconciler.reconcile();
+        assertThat(ifNoneMatch).last().isEqualTo("W/\"hello\"");
+        verify(refresher, never()).refresh();
+
+        greeting = "goodbye";
+        reconciler.reconcile();
+        verify(refresher).refresh();
+        assertThat(new SnapshotPropertySourceLocator().locate(environment).getProperty("greeting")).isEqualTo("goodbye");
+    }
+}
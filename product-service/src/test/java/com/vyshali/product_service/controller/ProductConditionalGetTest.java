@@ -0,0 +1,153 @@
+package com.vyshali.product_service.controller;
+
+import com.vyshali.product_service.dto.ProductRequest;
+import com.vyshali.product_service.repository.CatalogVersion;
+import com.vyshali.product_service.repository.ProductRepository;
+import com.vyshali.product_service.search.ProductSearchIndexer;
+import com.vyshali.product_service.service.ProductETags;
+import com.vyshali.product_service.service.ProductService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog reads are tagged, answered with 304 while the tag still matches, and re-sent once a
+ * product is updated, reserved or deleted. Once the search index is built, the catalog tag
+ * comes from memory and still matches the table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndexer productSearchIndexer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private static final AtomicInteger CATALOG_VERSION_QUERIES = new AtomicInteger();
+
+    @TestConfiguration
+    static class CatalogVersionQueryCounting {
+
+        @Bean
+        static BeanPostProcessor countCatalogVersionQueries() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof ProductRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory factory = new ProxyFactory(bean);
+                    factory.addAdvice((MethodInterceptor) invocation -> {
+                        if (invocation.getMethod().getName().equals("findCatalogVersion")) {
+                            CATALOG_VERSION_QUERIES.incrementAndGet();
+                        }
+                        return invocation.proceed();
+                    });
+                    return factory.getProxy();
+                }
+            };
+        }
+    }
+
+    @Test
+    void productIsNotResentUntilItChanges() throws Exception {
+        Long id = productService.createProduct(request("Kettle", 10)).getId();
+
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        productService.updateProduct(id, request("Kettle", 7));
+
+        String updated = mockMvc.perform(get("/api/v1/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updated).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void catalogIsNotResentUntilAnyProductChanges() throws Exception {
+        Long id = productService.createProduct(request("Teapot", 10)).getId();
+        String eTag = catalogETag();
+
+        mockMvc.perform(get("/api/v1/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/products/in-stock").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        productService.reserveStock(id, 1);
+        String reserved = catalogETag();
+        assertThat(reserved).isNotEqualTo(eTag);
+
+        productService.deleteProduct(id);
+        assertThat(catalogETag()).isNotEqualTo(reserved);
+    }
+
+    @Test
+    void builtIndexTagsTheCatalogWithoutQueryingTheTable() throws Exception {
+        productSearchIndexer.rebuild();
+        Long id = productService.createProduct(request("Ladle", 10)).getId();
+        int queries = CATALOG_VERSION_QUERIES.get();
+
+        String eTag = catalogETag();
+        mockMvc.perform(get("/api/v1/products/search").param("term", "lad").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        productService.reserveStock(id, 1);
+        String reserved = catalogETag();
+        int queriesWhileBuilt = CATALOG_VERSION_QUERIES.get() - queries;
+        CatalogVersion table = productRepository.findCatalogVersion();
+        productService.deleteProduct(id);
+
+        assertThat(queriesWhileBuilt).isZero();
+        assertThat(reserved).isNotEqualTo(eTag).isEqualTo(ProductETags.ofCatalog(table.getCount(), table.getLastUpdatedAt()));
+        assertThat(catalogETag()).isNotEqualTo(reserved);
+    }
+
+    private String catalogETag() throws Exception {
+        return mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static ProductRequest request(String name, int stock) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setDescription(name + " for the conditional GET test");
+        request.setPrice(new BigDecimal("19.99"));
+        request.setStockQuantity(stock);
+        return request;
+    }
+}
@@ -0,0 +1,151 @@
+package com.vyshali.product_service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matching, ranking and maintenance of the in-memory search index
+ */
+class ProductSearchIndexTest {
+
+    @Test
+    void nameHitsRankAboveDescriptionHits() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Teapot", "Pairs with any kettle");
+        index.put(2, "Steel kettle", "Boils water fast");
+        index.put(3, "Mug", "Ceramic");
+
+        assertThat(index.search("kettle", 0, 10)).isEqualTo(new ProductSearchIndex.Result(List.of(2L, 1L), 2));
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixAboveInfix() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Superkettle", null);
+        index.put(2, "Kettlebell", null);
+        index.put(3, "Kettle", null);
+        index.put(4, "Toaster", null);
+
+        assertThat(index.search("KETTLE", 0, 10).ids()).containsExactly(3L, 2L, 1L);
+        // Too short for trigrams: prefixes only
+        assertThat(index.search("ke", 0, 10).ids()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("ettl", 0, 10).ids()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Steel kettle", null);
+        index.put(2, "Copper kettle", null);
+        index.put(3, "Steel pan", null);
+
+        assertThat(index.search("steel kett", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("steel toaster", 0, 10)).isEqualTo(new ProductSearchIndex.Result(List.of(), 0));
+        assertThat(index.search("  ,. ", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Steel kettle", "Whistling");
+        index.put(1, "Copper pan", "Whistling");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("kettle", 0, 10).total()).isZero();
+        // Trigrams of the dropped terms are gone too
+        assertThat(index.search("ettl", 0, 10).total()).isZero();
+        assertThat(index.search("copper", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("whistling", 0, 10).ids()).containsExactly(1L);
+        assertThat(index.isCurrent(1, "Copper pan", "Whistling")).isTrue();
+        assertThat(index.isCurrent(1, "Steel kettle", "Whistling")).isFalse();
+    }
+
+    @Test
+    void removedProductsNoLongerMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Steel kettle", null);
+        index.put(2, "Glass kettle", null);
+
+        index.remove(1);
+        index.remove(42);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("kettle", 0, 10).ids()).containsExactly(2L);
+        assertThat(index.search("steel", 0, 10).total()).isZero();
+        assertThat(index.termCount()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesAreSlicesOfOneRanking() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Kettle " + id, null);
+        }
+
+        // Equal scores are ordered by id
+        assertThat(index.search("kettle", 0, 2)).isEqualTo(new ProductSearchIndex.Result(List.of(1L, 2L), 5));
+        assertThat(index.search("kettle", 2, 2)).isEqualTo(new ProductSearchIndex.Result(List.of(3L, 4L), 5));
+        assertThat(index.search("kettle", 4, 2)).isEqualTo(new ProductSearchIndex.Result(List.of(5L), 5));
+        assertThat(index.search("kettle", 10, 2)).isEqualTo(new ProductSearchIndex.Result(List.of(), 5));
+        assertThat(index.search("kettle", -1, 0)).isEqualTo(new ProductSearchIndex.Result(List.of(), 5));
+    }
+
+    @Test
+    void shortPrefixPagesMatchOneFullRanking() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 300; id++) {
+            // Name hits outrank description hits, and rarer terms outrank common ones
+            if (id % 3 == 0) {
+                index.put(id, "Lamp", "kettle stand");
+            } else {
+                index.put(id, id % 7 == 0 ? "Kiln " + id : "Kettle " + id, null);
+            }
+        }
+
+        List<Long> all = index.search("k", 0, 300).ids();
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < 300; offset += 7) {
+            paged.addAll(index.search("k", offset, 7).ids());
+        }
+
+        assertThat(index.search("k", 0, 7).total()).isEqualTo(300);
+        assertThat(paged).isEqualTo(all).doesNotHaveDuplicates().hasSize(300);
+        assertThat(all.subList(0, 28)).allMatch(id -> id % 7 == 0 && id % 3 != 0).isSorted();
+        assertThat(all.subList(200, 300)).allMatch(id -> id % 3 == 0).isSorted();
+    }
+
+    @Test
+    void builtIndexAnswersLikeOneBuiltByPut() {
+        String[][] catalog = {
+                {"Steel kettle", "Boils water fast"},
+                {"Teapot", "Pairs with any kettle"},
+                {"Kettlebell", "Cast iron, 12 kg"},
+                {"Superkettle 2000", "Steel body, fast boil"},
+                {"Cast iron pan", null},
+                {"Water filter", "Fits any kettle or jug"},
+        };
+        ProductSearchIndex.Builder builder = ProductSearchIndex.builder();
+        ProductSearchIndex incremental = new ProductSearchIndex();
+        for (int i = 0; i < catalog.length; i++) {
+            builder.add(i + 1, catalog[i][0], catalog[i][1]);
+            incremental.put(i + 1, catalog[i][0], catalog[i][1]);
+        }
+        ProductSearchIndex built = builder.build();
+
+        assertThat(built.size()).isEqualTo(incremental.size());
+        assertThat(built.termCount()).isEqualTo(incremental.termCount());
+        for (String query : List.of("kettle", "ket", "ettl", "steel fast", "cast iron", "water", "any", "boil", "2000", "missing")) {
+            assertThat(built.search(query, 0, 10)).as(query).isEqualTo(incremental.search(query, 0, 10));
+        }
+
+        // A built index is maintained by put and remove like any other
+        built.put(2, "Teapot", "Pairs with any jug");
+        built.remove(6);
+        assertThat(built.search("kettle", 0, 10).ids()).doesNotContain(2L, 6L);
+        assertThat(built.search("jug", 0, 10).ids()).containsExactly(2L);
+    }
+}
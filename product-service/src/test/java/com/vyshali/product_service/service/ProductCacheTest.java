@@ -0,0 +1,153 @@
+package com.vyshali.product_service.service;
+
+import com.vyshali.product_service.config.CacheConfig;
+import com.vyshali.product_service.dto.ProductRequest;
+import com.vyshali.product_service.dto.ProductResponse;
+import com.vyshali.product_service.dto.StockReservationItem;
+import com.vyshali.product_service.exception.InsufficientStockException;
+import com.vyshali.product_service.repository.ProductRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Product reads are served from the cache, and every committed write to a product evicts
+ * it, while a rolled-back write leaves it cached.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private static final AtomicInteger FIND_BY_ID_CALLS = new AtomicInteger();
+
+    @TestConfiguration
+    static class FindByIdCounting {
+
+        @Bean
+        static BeanPostProcessor countFindByIdCalls() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof ProductRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory factory = new ProxyFactory(bean);
+                    factory.addAdvice((MethodInterceptor) invocation -> {
+                        if (invocation.getMethod().getName().equals("findById")) {
+                            FIND_BY_ID_CALLS.incrementAndGet();
+                        }
+                        return invocation.proceed();
+                    });
+                    return factory.getProxy();
+                }
+            };
+        }
+    }
+
+    @Test
+    void repeatedReadIsServedFromTheCache() {
+        Long id = createProduct("Whisk", 10);
+        int calls = FIND_BY_ID_CALLS.get();
+
+        ProductResponse first = productService.getProductById(id);
+        ProductResponse second = productService.getProductById(id);
+
+        assertThat(FIND_BY_ID_CALLS.get() - calls).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(cached(id)).isEqualTo(first);
+    }
+
+    @Test
+    void updateEvictsAndTheNextReadSeesTheChange() {
+        Long id = createProduct("Sieve", 10);
+        productService.getProductById(id);
+
+        productService.updateProduct(id, request("Fine sieve", 10));
+
+        assertThat(cached(id)).isNull();
+        assertThat(productService.getProductById(id).getName()).isEqualTo("Fine sieve");
+    }
+
+    @Test
+    void deleteEvicts() {
+        Long id = createProduct("Grater", 10);
+        productService.getProductById(id);
+
+        productService.deleteProduct(id);
+
+        assertThat(cached(id)).isNull();
+    }
+
+    @Test
+    void reservationsEvict() {
+        Long single = createProduct("Colander", 10);
+        Long first = createProduct("Spatula", 10);
+        Long second = createProduct("Tongs", 10);
+        List.of(single, first, second).forEach(productService::getProductById);
+
+        productService.reserveStock(single, 1);
+        productService.reserveStock(List.of(new StockReservationItem(first, 2), new StockReservationItem(second, 3)));
+
+        assertThat(cached(single)).isNull();
+        assertThat(cached(first)).isNull();
+        assertThat(cached(second)).isNull();
+        assertThat(productService.getProductById(second).getStockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void rolledBackReservationsKeepTheEntry() {
+        Long plenty = createProduct("Ladle", 10);
+        Long scarce = createProduct("Mandoline", 1);
+        ProductResponse before = productService.getProductById(plenty);
+        ProductResponse scarceBefore = productService.getProductById(scarce);
+
+        // The first item is reserved and then rolled back with the batch
+        assertThatThrownBy(() -> productService.reserveStock(List.of(new StockReservationItem(plenty, 2), new StockReservationItem(scarce, 5))))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThatThrownBy(() -> productService.reserveStock(scarce, 5))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(cached(plenty)).isEqualTo(before);
+        assertThat(cached(scarce)).isEqualTo(scarceBefore);
+        assertThat(before.getStockQuantity()).isEqualTo(10);
+    }
+
+    private ProductResponse cached(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        return cache == null ? null : cache.get(id, ProductResponse.class);
+    }
+
+    private Long createProduct(String name, int stock) {
+        return productService.createProduct(request(name, stock)).getId();
+    }
+
+    private static ProductRequest request(String name, int stock) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setDescription(name + " for the cache test");
+        request.setPrice(new BigDecimal("4.50"));
+        request.setStockQuantity(stock);
+        return request;
+    }
+}
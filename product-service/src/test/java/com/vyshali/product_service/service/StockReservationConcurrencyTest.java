@@ -0,0 +1,139 @@
+package com.vyshali.product_service.service;
+
+import com.vyshali.product_service.domain.Product;
+import com.vyshali.product_service.dto.StockReservationItem;
+import com.vyshali.product_service.exception.InsufficientStockException;
+import com.vyshali.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a few hot products with concurrent reservations and checks that every unit
+ * of stock is handed out exactly once: reserved + remaining == initial, never negative.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void singleReservationsNeverOversellHotProduct() throws Exception {
+        int initialStock = 2_000;
+        Long id = createProduct(initialStock);
+        AtomicLong reserved = new AtomicLong();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+            try {
+                productService.reserveStock(id, quantity);
+                reserved.addAndGet(quantity);
+            } catch (InsufficientStockException ex) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int remaining = stockOf(id);
+        assertThat(remaining).isGreaterThanOrEqualTo(0);
+        assertThat(reserved.get() + remaining).isEqualTo(initialStock);
+        // More demand than supply, so the product must have been drawn down to less than one request
+        assertThat(remaining).isLessThan(3);
+        assertThat(rejected.get()).isPositive();
+    }
+
+    @Test
+    void batchReservationsAreAllOrNothingAndDoNotDeadlock() throws Exception {
+        int initialStock = 3_000;
+        Long first = createProduct(initialStock);
+        Long second = createProduct(initialStock);
+        AtomicLong reservedFirst = new AtomicLong();
+        AtomicLong reservedSecond = new AtomicLong();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int firstQuantity = random.nextInt(1, 4);
+            int secondQuantity = random.nextInt(1, 4);
+            // Opposite item orders would deadlock if rows were locked in request order
+            List<StockReservationItem> items = random.nextBoolean()
+                    ? List.of(new StockReservationItem(first, firstQuantity), new StockReservationItem(second, secondQuantity))
+                    : List.of(new StockReservationItem(second, secondQuantity), new StockReservationItem(first, firstQuantity));
+            try {
+                productService.reserveStock(items);
+                reservedFirst.addAndGet(firstQuantity);
+                reservedSecond.addAndGet(secondQuantity);
+            } catch (InsufficientStockException ex) {
+                // Nothing of this batch may have been kept
+            }
+        });
+
+        int remainingFirst = stockOf(first);
+        int remainingSecond = stockOf(second);
+        assertThat(remainingFirst).isGreaterThanOrEqualTo(0);
+        assertThat(remainingSecond).isGreaterThanOrEqualTo(0);
+        assertThat(reservedFirst.get() + remainingFirst).isEqualTo(initialStock);
+        assertThat(reservedSecond.get() + remainingSecond).isEqualTo(initialStock);
+    }
+
+    /**
+     * Run the task {@link #ATTEMPTS_PER_THREAD} times on each of {@link #THREADS} threads, all released together
+     */
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        task.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Surfaces any unexpected failure, such as a lock timeout or deadlock
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createProduct(int stock) {
+        Product product = new Product();
+        product.setName("Hot product");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStockQuantity(stock);
+        return productRepository.save(product).getId();
+    }
+
+    private int stockOf(Long id) {
+        return productRepository.findById(id).orElseThrow().getStockQuantity();
+    }
+}